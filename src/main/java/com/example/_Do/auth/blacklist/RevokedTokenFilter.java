@@ -0,0 +1,237 @@
+package com.example._Do.auth.blacklist;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+
+/**
+ * In-memory, time-partitioned Bloom filter of revoked tokens.
+ * <p>
+ * {@link #mightContain(String)} never returns {@code false} for a token that was added and has not
+ * expired yet, so a negative answer proves the token is not revoked and the blacklist lookup in
+ * Redis can be skipped. A positive answer may be a false positive and must be confirmed.
+ * </p>
+ * <p>
+ * Tokens are grouped into partitions by their expiration time; a partition is dropped as soon as
+ * every token in it has expired, so the filter never has to delete single entries and its size
+ * only depends on the revocations of one token lifetime. Each partition starts with one slice
+ * sized for {@code expectedInsertions} and adds slices with halved error rates when it fills up
+ * (scalable Bloom filter), so the false positive rate stays below the configured bound even if
+ * more tokens are revoked than expected.
+ * </p>
+ */
+public class RevokedTokenFilter {
+
+    private static final double LN2 = Math.log(2);
+
+    private final long partitionMillis;
+    private final int expectedInsertions;
+    private final double partitionFalsePositiveRate;
+    private final LongSupplier clock;
+    private final ConcurrentNavigableMap<Long, Partition> partitions = new ConcurrentSkipListMap<>();
+
+    /**
+     * @param maxTokenLifetimeMillis The longest lifetime of a token (bounds the number of live partitions).
+     * @param partitionMillis        The span of token expiration times grouped in one partition.
+     * @param expectedInsertions     Revocations expected per partition before it grows.
+     * @param falsePositiveRate      Upper bound for the false positive rate of a lookup.
+     * @param clock                  Source of the current time in milliseconds.
+     */
+    public RevokedTokenFilter(
+            long maxTokenLifetimeMillis,
+            long partitionMillis,
+            int expectedInsertions,
+            double falsePositiveRate,
+            LongSupplier clock
+    ) {
+        if (partitionMillis <= 0 || expectedInsertions <= 0 || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("Invalid revoked token filter configuration");
+        }
+        this.partitionMillis = partitionMillis;
+        this.expectedInsertions = expectedInsertions;
+        // A lookup checks every live partition, so the bound is shared between them
+        long livePartitions = Math.ceilDiv(maxTokenLifetimeMillis, partitionMillis) + 1;
+        this.partitionFalsePositiveRate = falsePositiveRate / livePartitions;
+        this.clock = clock;
+    }
+
+    /**
+     * Adds a revoked token. Tokens that have already expired are ignored.
+     *
+     * @param token           The revoked token (or its id).
+     * @param expiresAtMillis The expiration time of the token.
+     */
+    public void put(String token, long expiresAtMillis) {
+        long now = clock.getAsLong();
+        if (expiresAtMillis <= now) {
+            return;
+        }
+        dropExpired(now);
+        long[] hash = hash(token);
+        partitions.computeIfAbsent(expiresAtMillis / partitionMillis, key -> new Partition()).put(hash);
+    }
+
+    /**
+     * Checks whether a token may have been revoked.
+     *
+     * @param token The token (or its id).
+     * @return False if the token has definitely not been revoked, True if it may have been.
+     */
+    public boolean mightContain(String token) {
+        long now = clock.getAsLong();
+        if (partitions.isEmpty()) {
+            return false;
+        }
+        dropExpired(now);
+        long[] hash = hash(token);
+        for (Partition partition : partitions.values()) {
+            if (partition.mightContain(hash)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return The number of tokens added to the live partitions.
+     */
+    public long size() {
+        return partitions.values().stream().mapToLong(Partition::size).sum();
+    }
+
+    /**
+     * @return The memory used by the bit arrays of the live partitions, in bytes.
+     */
+    public long sizeInBytes() {
+        return partitions.values().stream().mapToLong(Partition::sizeInBytes).sum();
+    }
+
+    private void dropExpired(long now) {
+        // Partition n holds tokens expiring in [n * partitionMillis, (n + 1) * partitionMillis)
+        partitions.headMap(now / partitionMillis).clear();
+    }
+
+    /**
+     * Two independent 64-bit hashes (from SHA-256, so tokens that only differ in their signature
+     * are spread as well); the bit positions are derived by double hashing.
+     */
+    private static long[] hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            ByteBuffer buffer = ByteBuffer.wrap(digest);
+            return new long[]{buffer.getLong(), buffer.getLong() | 1};
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Growing list of slices; slice {@code i} has the error rate {@code p / 2^(i + 1)}, so the
+     * rates of all slices sum up to less than {@code p}.
+     */
+    private final class Partition {
+
+        private final List<Slice> slices = new CopyOnWriteArrayList<>();
+
+        Partition() {
+            slices.add(new Slice(expectedInsertions, partitionFalsePositiveRate / 2));
+        }
+
+        void put(long[] hash) {
+            if (mightContain(hash)) {
+                // Already present (or indistinguishable): re-adding would only use up capacity
+                return;
+            }
+            Slice current = slices.getLast();
+            if (current.isFull()) {
+                synchronized (this) {
+                    current = slices.getLast();
+                    if (current.isFull()) {
+                        current = new Slice(expectedInsertions, current.falsePositiveRate / 2);
+                        slices.add(current);
+                    }
+                }
+            }
+            current.put(hash);
+        }
+
+        boolean mightContain(long[] hash) {
+            for (Slice slice : slices) {
+                if (slice.mightContain(hash)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        long size() {
+            return slices.stream().mapToLong(slice -> slice.insertions.get()).sum();
+        }
+
+        long sizeInBytes() {
+            return slices.stream().mapToLong(slice -> slice.bits.length() * (long) Long.BYTES).sum();
+        }
+    }
+
+    /**
+     * Classic Bloom filter with a lock-free bit array.
+     */
+    private static final class Slice {
+
+        private final AtomicLongArray bits;
+        private final long bitCount;
+        private final int hashCount;
+        private final int capacity;
+        private final double falsePositiveRate;
+        private final AtomicInteger insertions = new AtomicInteger();
+
+        Slice(int capacity, double falsePositiveRate) {
+            long optimalBits = (long) Math.ceil(-capacity * Math.log(falsePositiveRate) / (LN2 * LN2));
+            int words = Math.toIntExact(Math.ceilDiv(optimalBits, Long.SIZE));
+            this.bits = new AtomicLongArray(words);
+            this.bitCount = (long) words * Long.SIZE;
+            this.hashCount = Math.max(1, (int) Math.round((double) bitCount / capacity * LN2));
+            this.capacity = capacity;
+            this.falsePositiveRate = falsePositiveRate;
+        }
+
+        boolean isFull() {
+            return insertions.get() >= capacity;
+        }
+
+        void put(long[] hash) {
+            for (int i = 0; i < hashCount; i++) {
+                long index = index(hash, i);
+                int word = (int) (index >>> 6);
+                long mask = 1L << index;
+                long current;
+                do {
+                    current = bits.get(word);
+                } while ((current & mask) == 0 && !bits.compareAndSet(word, current, current | mask));
+            }
+            insertions.incrementAndGet();
+        }
+
+        boolean mightContain(long[] hash) {
+            for (int i = 0; i < hashCount; i++) {
+                long index = index(hash, i);
+                if ((bits.get((int) (index >>> 6)) & (1L << index)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private long index(long[] hash, int i) {
+            return Math.floorMod(hash[0] + i * hash[1], bitCount);
+        }
+    }
+}
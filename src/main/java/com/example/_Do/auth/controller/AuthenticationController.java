@@ -2,6 +2,8 @@ package com.example._Do.auth.controller;
 
 import com.example._Do.auth.dto.AuthenticationRequest;
 import com.example._Do.auth.dto.AuthenticationResponse;
+import com.example._Do.auth.dto.RefreshTokenRequest;
+import com.example._Do.auth.principal.AuthenticatedUser;
 import com.example._Do.auth.service.AuthenticationService;
 import com.example._Do.user.dto.RegisterRequest;
 import io.swagger.v3.oas.annotations.Operation;
@@ -12,6 +14,7 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -26,7 +29,7 @@ public class AuthenticationController {
 
     @Operation(
             summary = "Logout and invalidate token",
-            description = "Logs out the current user by adding their JWT to the Redis blacklist. The token will be unusable until its original expiration time.",
+            description = "Logs out the current session by adding its JWT to the Redis blacklist and revoking its refresh token. The token will be unusable until its original expiration time.",
             security = @SecurityRequirement(name = "bearerAuth")
     )
     @ApiResponses(value = {
@@ -40,6 +43,22 @@ public class AuthenticationController {
         throw new IllegalStateException("This method should be intercepted by Spring Security.");
     }
 
+    @Operation(
+            summary = "Logout from all sessions",
+            description = "Invalidates every token issued to the current user so far, on all devices.",
+            security = @SecurityRequirement(name = "bearerAuth")
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "All sessions logged out."),
+            @ApiResponse(responseCode = "401", description = "Unauthorized - Invalid or missing Bearer token."),
+            @ApiResponse(responseCode = "429", description = "Too Many Requests - Rate limit exceeded.")
+    })
+    @PostMapping("/logout-all")
+    public ResponseEntity<Void> logoutAll(@AuthenticationPrincipal AuthenticatedUser user) {
+        authenticationService.logoutAllSessions(user.id());
+        return ResponseEntity.noContent().build();
+    }
+
     @PostMapping("/register")
     @Operation(
             summary="Register a new user",
@@ -57,4 +76,17 @@ public class AuthenticationController {
     public ResponseEntity<AuthenticationResponse> authenticate(@Valid @RequestBody AuthenticationRequest request) {
         return ResponseEntity.ok(authenticationService.authenticate(request));
     }
+
+    @PostMapping("/refresh")
+    @Operation(
+            summary="Refresh access token",
+            description="Exchanges a refresh token for a new access token and a new refresh token. Each refresh token can be used once; reusing one ends the session."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "New access and refresh token issued."),
+            @ApiResponse(responseCode = "401", description = "Unauthorized - Refresh token unknown, expired, reused or revoked.")
+    })
+    public ResponseEntity<AuthenticationResponse> refresh(@Valid @RequestBody RefreshTokenRequest request) {
+        return ResponseEntity.ok(authenticationService.refresh(request));
+    }
 }
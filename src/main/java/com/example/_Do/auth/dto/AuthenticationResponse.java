@@ -4,16 +4,22 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.Builder;
 
 /**
- * Immutable response object containing the generated JWT.
+ * Immutable response object containing the generated JWT and the refresh token of the session.
  */
 @Builder
-@Schema(description="Response object containing the JWT access token.")
+@Schema(description="Response object containing the JWT access token and the refresh token.")
 public record AuthenticationResponse (
     @Schema(
             description="JWT Access Token used for authorizing subsequent requests.",
             example="eyJhbGciOiJIUzI1NiJ9.eyJzdWIiOiJ..."
     )
-    String token
+    String token,
+
+    @Schema(
+            description="Single-use refresh token for POST /api/v1/auth/refresh; the response of every refresh contains its successor.",
+            example="q3N0c1Zx0b7m5YtW..."
+    )
+    String refreshToken
 ) {
 
 }
\ No newline at end of file
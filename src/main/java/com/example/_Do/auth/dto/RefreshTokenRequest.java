@@ -0,0 +1,21 @@
+package com.example._Do.auth.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+import lombok.Builder;
+
+/**
+ * Immutable Data Transfer Object for exchanging a refresh token.
+ */
+@Builder
+@Schema(description="Request object containing the refresh token to exchange.")
+public record RefreshTokenRequest (
+    @Schema(
+            description="Refresh token returned by the last login or refresh",
+            example="q3N0c1Zx0b7m5YtW..."
+    )
+    @NotBlank(message="Refresh token is required")
+    String refreshToken
+) {
+
+}
@@ -0,0 +1,68 @@
+package com.example._Do.auth.entity;
+
+import com.example._Do.user.entity.User;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.time.LocalDateTime;
+
+/**
+ * Server-side record of an issued refresh token.
+ * <p>
+ * Maps to the 'refresh_tokens' table. Only the SHA-256 hash of the token is stored. All tokens
+ * of one login share a {@code familyId}, which access tokens carry as their session id; a token
+ * is used once (rotation) and presenting it again revokes the whole family.
+ * </p>
+ */
+@Entity
+@Getter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "refresh_tokens")
+public class RefreshToken {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private User user;
+
+    @Column(name = "family_id", nullable = false, length = 32)
+    private String familyId;
+
+    @Column(name = "token_hash", nullable = false, unique = true, length = 64)
+    private String tokenHash;
+
+    /**
+     * Token version of the user when the family was created; a later "log out everywhere"
+     * (version increment) invalidates the family.
+     */
+    @Column(name = "token_version", nullable = false)
+    private int tokenVersion;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    /**
+     * Set when the token has been exchanged; a used token is never accepted again.
+     */
+    @Column(name = "used_at")
+    private LocalDateTime usedAt;
+}
@@ -0,0 +1,155 @@
+package com.example._Do.auth.interceptor;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.github.bucket4j.BucketConfiguration;
+import io.github.bucket4j.TokensInheritanceStrategy;
+import io.github.bucket4j.distributed.AsyncBucketProxy;
+import io.github.bucket4j.distributed.proxy.AsyncProxyManager;
+import io.github.bucket4j.distributed.proxy.ProxyManager;
+import io.github.bucket4j.distributed.proxy.optimization.DelayParameters;
+import io.github.bucket4j.distributed.proxy.optimization.Optimization;
+import io.github.bucket4j.distributed.proxy.optimization.OptimizationListener;
+import io.github.bucket4j.distributed.proxy.optimization.Optimizations;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Resolves the rate limit bucket of a client key.
+ * <p>
+ * Buckets are asynchronous proxies: a consumption returns a future completed by the Lettuce event
+ * loop, so callers decide how long to wait for Redis.
+ * </p>
+ * <p>
+ * In {@code redis} mode every request builds a plain proxy, so every consumption is one round trip
+ * to the bucket in Redis (exact, but Redis sees every request).
+ * </p>
+ * <p>
+ * In {@code hybrid} mode (default) each node keeps one proxy per active key with Bucket4j's
+ * {@linkplain Optimizations#delaying delaying optimization}: consumptions are decided against a local
+ * copy of the bucket and written to Redis in one batch once {@code max-unsynchronized-tokens} have
+ * been consumed locally or {@code max-unsynchronized-timeout} has passed since the last
+ * synchronization, whichever comes first. A key may therefore exceed its limit by at most
+ * {@code max-unsynchronized-tokens} per node, and a node learns about the consumptions of the
+ * other nodes at most {@code max-unsynchronized-timeout} late. Concurrent requests for the same key
+ * are also merged into one Redis call.
+ * </p>
+ * <p>
+ * Local proxies are held in a bounded cache and dropped after {@code idle-timeout} without requests;
+ * the state in Redis is kept. A new configuration version gets a new proxy, so changed limits take
+ * effect immediately. Synchronizations avoided are counted as
+ * {@code rate_limit.redis.syncs{result=skipped|merged}}.
+ * </p>
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "application.rate-limit.enabled", havingValue = "true", matchIfMissing = true)
+public class RateLimitBuckets {
+
+    /**
+     * How buckets are synchronized with Redis.
+     */
+    public enum Mode {
+        /** One Redis call per consumption. */
+        REDIS,
+        /** Local decisions, synchronized with Redis in batches. */
+        HYBRID
+    }
+
+    private final AsyncProxyManager<String> proxyManager;
+    private final Mode mode;
+    private final Optimization optimization;
+    private final Cache<LocalBucketKey, AsyncBucketProxy> localBuckets;
+
+    public RateLimitBuckets(
+            ProxyManager<String> proxyManager,
+            MeterRegistry meterRegistry,
+            @Value("${application.rate-limit.mode:hybrid}") Mode mode,
+            @Value("${application.rate-limit.hybrid.max-unsynchronized-tokens:2}") long maxUnsynchronizedTokens,
+            @Value("${application.rate-limit.hybrid.max-unsynchronized-timeout:1s}") Duration maxUnsynchronizedTimeout,
+            @Value("${application.rate-limit.hybrid.local-buckets:100000}") long localBuckets,
+            @Value("${application.rate-limit.hybrid.idle-timeout:5m}") Duration idleTimeout
+    ) {
+        this.proxyManager = proxyManager.asAsync();
+        this.mode = mode;
+        this.optimization = Optimizations
+                .delaying(new DelayParameters(maxUnsynchronizedTokens, maxUnsynchronizedTimeout))
+                .withListener(new MeteredOptimizationListener(meterRegistry));
+        this.localBuckets = Caffeine.newBuilder()
+                .maximumSize(localBuckets)
+                .expireAfterAccess(idleTimeout)
+                .build();
+        Gauge.builder("rate_limit.local.buckets", this.localBuckets, Cache::estimatedSize)
+                .description("Rate limit buckets held locally by this node")
+                .register(meterRegistry);
+        log.info("Rate limiting in {} mode (max {} unsynchronized tokens, max {} ms unsynchronized)",
+                mode, maxUnsynchronizedTokens, maxUnsynchronizedTimeout.toMillis());
+    }
+
+    /**
+     * Returns the bucket of a key, creating it in Redis on first use.
+     * <p>
+     * If the bucket in Redis was created with a lower configuration version, its configuration is
+     * replaced (keeping the available tokens proportionally).
+     * </p>
+     *
+     * @param key           The bucket key.
+     * @param configuration The limits of the bucket.
+     * @param version       The version of the limits.
+     * @return The asynchronous bucket proxy.
+     */
+    public AsyncBucketProxy resolve(String key, BucketConfiguration configuration, long version) {
+        if (mode == Mode.REDIS) {
+            return proxyManager.builder()
+                    .withImplicitConfigurationReplacement(version, TokensInheritanceStrategy.PROPORTIONALLY)
+                    .build(key, () -> CompletableFuture.completedFuture(configuration));
+        }
+        // The proxy has to be reused: the unsynchronized consumptions live in the proxy instance
+        return localBuckets.get(new LocalBucketKey(key, version), k -> proxyManager.builder()
+                .withOptimization(optimization)
+                .withImplicitConfigurationReplacement(version, TokensInheritanceStrategy.PROPORTIONALLY)
+                .build(key, () -> CompletableFuture.completedFuture(configuration)));
+    }
+
+    private record LocalBucketKey(String key, long version) {
+    }
+
+    /**
+     * Bridges Bucket4j's optimization statistics to Micrometer.
+     */
+    private static final class MeteredOptimizationListener implements OptimizationListener {
+
+        private final Counter skipped;
+        private final Counter merged;
+
+        MeteredOptimizationListener(MeterRegistry meterRegistry) {
+            this.skipped = syncCounter(meterRegistry, "skipped");
+            this.merged = syncCounter(meterRegistry, "merged");
+        }
+
+        @Override
+        public void incrementSkipCount(int count) {
+            skipped.increment(count);
+        }
+
+        @Override
+        public void incrementMergeCount(int count) {
+            merged.increment(count);
+        }
+
+        private static Counter syncCounter(MeterRegistry meterRegistry, String result) {
+            return Counter.builder("rate_limit.redis.syncs")
+                    .description("Rate limit consumptions that did not need their own Redis call")
+                    .tag("result", result)
+                    .register(meterRegistry);
+        }
+    }
+}
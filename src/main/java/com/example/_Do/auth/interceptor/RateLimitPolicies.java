@@ -0,0 +1,167 @@
+package com.example._Do.auth.interceptor;
+
+import com.example._Do.config.RateLimitProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.http.server.PathContainer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * The active rate limit policies of this node.
+ * <p>
+ * Policies are read from {@link RateLimitProperties} and compiled once at startup, so requests only
+ * match paths against pre-parsed patterns and reuse pre-built bucket configurations.
+ * </p>
+ * <p>
+ * Limits changed at runtime ({@link #update}) are stored in the Redis hash {@value #OVERRIDES_KEY}
+ * (read at startup, so restarted and new nodes use them too) and announced on the channel
+ * {@value #CHANNEL}. Every change gets a new, higher version; Bucket4j replaces the configuration
+ * of an existing bucket when it is used with a higher version than the one stored in Redis, keeping
+ * the available tokens proportionally.
+ * </p>
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "application.rate-limit.enabled", havingValue = "true", matchIfMissing = true)
+public class RateLimitPolicies implements MessageListener {
+
+    public static final String CHANNEL = "rate_limit_policies";
+    private static final String OVERRIDES_KEY = "rate_limit:policies";
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private volatile List<RateLimitPolicy> policies;
+
+    public RateLimitPolicies(RateLimitProperties properties, StringRedisTemplate stringRedisTemplate) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        List<RateLimitPolicy> compiled = properties.policies().stream().map(RateLimitPolicy::from).toList();
+        Set<String> names = new HashSet<>();
+        for (RateLimitPolicy policy : compiled) {
+            if (!names.add(policy.name())) {
+                throw new IllegalArgumentException("Duplicate rate limit policy: " + policy.name());
+            }
+        }
+        this.policies = compiled;
+        loadOverrides();
+    }
+
+    /**
+     * @return All policies, in evaluation order.
+     */
+    public List<RateLimitPolicy> all() {
+        return policies;
+    }
+
+    /**
+     * @param name The name of the policy.
+     * @return The policy, if it exists.
+     */
+    public Optional<RateLimitPolicy> find(String name) {
+        return policies.stream().filter(policy -> policy.name().equals(name)).findFirst();
+    }
+
+    /**
+     * A request must pass every returned policy; if one rejects it, none of them charges it
+     * (see {@link RateLimitingInterceptor}).
+     *
+     * @param path The path of the request within the application.
+     * @return The policies applying to the path, in evaluation order.
+     */
+    public List<RateLimitPolicy> matching(PathContainer path) {
+        List<RateLimitPolicy> matching = new ArrayList<>(2);
+        for (RateLimitPolicy policy : policies) {
+            if (policy.matches(path)) {
+                matching.add(policy);
+            }
+        }
+        return matching;
+    }
+
+    /**
+     * Changes the limits of a policy on every node.
+     *
+     * @param name         The name of the policy.
+     * @param capacity     The new capacity.
+     * @param refillPeriod The new refill period.
+     * @return The updated policy.
+     * @throws IllegalArgumentException If the policy does not exist or the limits are invalid.
+     */
+    public RateLimitPolicy update(String name, long capacity, Duration refillPeriod) {
+        RateLimitPolicy current = find(name)
+                .orElseThrow(() -> new IllegalArgumentException("Unknown rate limit policy: " + name));
+        // Wall-clock based, so versions keep increasing across restarts and nodes
+        long version = Math.max(System.currentTimeMillis(), current.version() + 1);
+        RateLimitPolicy updated = current.withLimits(capacity, refillPeriod, version);
+        stringRedisTemplate.opsForHash().put(OVERRIDES_KEY, name, format(updated));
+        apply(updated);
+        stringRedisTemplate.convertAndSend(CHANNEL, name);
+        log.info("Rate limit policy {} changed to {} requests per {}", name, capacity, refillPeriod);
+        return updated;
+    }
+
+    /**
+     * Receives the names of policies changed on any node (including this one) and re-reads their limits.
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String name = new String(message.getBody(), StandardCharsets.UTF_8);
+        try {
+            Object value = stringRedisTemplate.opsForHash().get(OVERRIDES_KEY, name);
+            if (value != null) {
+                applyOverride(name, value.toString());
+            }
+        } catch (DataAccessException e) {
+            log.warn("Could not read the limits of rate limit policy {}: {}", name, e.getMessage());
+        }
+    }
+
+    private void loadOverrides() {
+        try {
+            Map<Object, Object> overrides = stringRedisTemplate.opsForHash().entries(OVERRIDES_KEY);
+            overrides.forEach((name, value) -> applyOverride(name.toString(), value.toString()));
+        } catch (DataAccessException e) {
+            log.warn("Could not load rate limit overrides, using the configured limits: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Applies stored limits ({@code <version>:<capacity>:<refillPeriodMillis>}) unless they are outdated.
+     */
+    private void applyOverride(String name, String value) {
+        Optional<RateLimitPolicy> current = find(name);
+        if (current.isEmpty()) {
+            return;
+        }
+        try {
+            String[] parts = value.split(":");
+            apply(current.get().withLimits(
+                    Long.parseLong(parts[1]), Duration.ofMillis(Long.parseLong(parts[2])), Long.parseLong(parts[0])));
+        } catch (RuntimeException e) {
+            log.warn("Ignoring malformed limits of rate limit policy {}", name);
+        }
+    }
+
+    private synchronized void apply(RateLimitPolicy updated) {
+        List<RateLimitPolicy> next = new ArrayList<>(policies.size());
+        for (RateLimitPolicy policy : policies) {
+            next.add(policy.name().equals(updated.name()) && policy.version() < updated.version() ? updated : policy);
+        }
+        policies = List.copyOf(next);
+    }
+
+    private static String format(RateLimitPolicy policy) {
+        return policy.version() + ":" + policy.capacity() + ":" + policy.refillPeriod().toMillis();
+    }
+}
@@ -0,0 +1,78 @@
+package com.example._Do.auth.interceptor;
+
+import com.example._Do.config.RateLimitProperties;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.pattern.PathPattern;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Actuator endpoint {@code /actuator/ratelimits} to inspect the rate limit policies and change their
+ * limits at runtime on every node (see {@link RateLimitPolicies#update}).
+ * <p>
+ * Like every actuator endpoint it is restricted to administrators.
+ * </p>
+ */
+@Component
+@Endpoint(id = "ratelimits")
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "application.rate-limit.enabled", havingValue = "true", matchIfMissing = true)
+public class RateLimitPoliciesEndpoint {
+
+    private final RateLimitPolicies rateLimitPolicies;
+
+    /**
+     * The current limits of a policy.
+     */
+    public record PolicyDescriptor(
+            String name,
+            List<String> paths,
+            RateLimitProperties.KeyType key,
+            long capacity,
+            String refillPeriod,
+            long version
+    ) {
+        static PolicyDescriptor of(RateLimitPolicy policy) {
+            return new PolicyDescriptor(
+                    policy.name(),
+                    policy.patterns().stream().map(PathPattern::getPatternString).toList(),
+                    policy.key(),
+                    policy.capacity(),
+                    policy.refillPeriod().toString(),
+                    policy.version());
+        }
+    }
+
+    @ReadOperation
+    public List<PolicyDescriptor> policies() {
+        return rateLimitPolicies.all().stream().map(PolicyDescriptor::of).toList();
+    }
+
+    @ReadOperation
+    public PolicyDescriptor policy(@Selector String name) {
+        return rateLimitPolicies.find(name).map(PolicyDescriptor::of).orElse(null);
+    }
+
+    /**
+     * Changes the limits of a policy.
+     *
+     * @param name         The name of the policy.
+     * @param capacity     The new capacity.
+     * @param refillPeriod The new refill period (e.g. {@code 1m} or {@code PT1M}).
+     * @return The updated policy, or 404 if there is no such policy.
+     */
+    @WriteOperation
+    public PolicyDescriptor update(@Selector String name, long capacity, Duration refillPeriod) {
+        if (rateLimitPolicies.find(name).isEmpty()) {
+            return null;
+        }
+        return PolicyDescriptor.of(rateLimitPolicies.update(name, capacity, refillPeriod));
+    }
+}
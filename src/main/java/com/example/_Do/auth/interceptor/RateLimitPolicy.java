@@ -0,0 +1,107 @@
+package com.example._Do.auth.interceptor;
+
+import com.example._Do.config.RateLimitProperties;
+import io.github.bucket4j.BucketConfiguration;
+import org.springframework.http.server.PathContainer;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * A rate limit policy ready for use: parsed path patterns and a pre-built bucket configuration.
+ * <p>
+ * Immutable; a change of the limits produces a new instance with a higher {@code version}, which
+ * makes Bucket4j replace the configuration of the existing buckets in Redis on their next use.
+ * </p>
+ *
+ * @param name          Unique name of the policy.
+ * @param patterns      The paths the policy applies to.
+ * @param key           What requests are counted by.
+ * @param apiKeyHeader  The header holding the API key.
+ * @param capacity      Maximum number of requests in a burst.
+ * @param refillPeriod  Time in which {@code capacity} tokens are refilled.
+ * @param bytesPerToken Body bytes per token for size-weighted policies (0 = one token per request).
+ * @param version       Version of the limits (0 = as configured at startup).
+ * @param configuration The bucket configuration for the limits.
+ */
+public record RateLimitPolicy(
+        String name,
+        List<PathPattern> patterns,
+        RateLimitProperties.KeyType key,
+        String apiKeyHeader,
+        long capacity,
+        Duration refillPeriod,
+        long bytesPerToken,
+        long version,
+        BucketConfiguration configuration
+) {
+
+    /**
+     * Builds a policy from its configuration.
+     *
+     * @param policy The configured policy.
+     * @return The policy with version 0.
+     * @throws IllegalArgumentException If the name, paths or limits are missing or invalid.
+     */
+    public static RateLimitPolicy from(RateLimitProperties.Policy policy) {
+        if (policy.name() == null || policy.name().isBlank() || policy.paths() == null || policy.paths().isEmpty()) {
+            throw new IllegalArgumentException("Rate limit policies need a name and at least one path");
+        }
+        List<PathPattern> patterns = policy.paths().stream()
+                .map(PathPatternParser.defaultInstance::parse)
+                .toList();
+        long bytesPerToken = policy.bytesPerToken() == null ? 0 : policy.bytesPerToken().toBytes();
+        if (bytesPerToken < 0) {
+            throw new IllegalArgumentException("Invalid bytes per token for rate limit policy " + policy.name());
+        }
+        return new RateLimitPolicy(
+                policy.name(), patterns, policy.key(), policy.apiKeyHeader(), 0, null, bytesPerToken, 0, null)
+                .withLimits(policy.capacity(), policy.refillPeriod(), 0);
+    }
+
+    /**
+     * @param capacity     The new capacity.
+     * @param refillPeriod The new refill period.
+     * @param version      The version of the new limits.
+     * @return A copy of this policy with other limits.
+     * @throws IllegalArgumentException If the limits are not positive.
+     */
+    public RateLimitPolicy withLimits(long capacity, Duration refillPeriod, long version) {
+        if (capacity <= 0 || refillPeriod == null || refillPeriod.isNegative() || refillPeriod.isZero()) {
+            throw new IllegalArgumentException("Invalid limits for rate limit policy " + name);
+        }
+        BucketConfiguration configuration = BucketConfiguration.builder()
+                .addLimit(limit -> limit.capacity(capacity).refillGreedy(capacity, refillPeriod))
+                .build();
+        return new RateLimitPolicy(
+                name, patterns, key, apiKeyHeader, capacity, refillPeriod, bytesPerToken, version, configuration);
+    }
+
+    /**
+     * @param contentLength The size of the request body in bytes (negative if unknown).
+     * @return The tokens a request costs: 1, or for size-weighted policies one per started
+     * {@code bytesPerToken}, capped at the capacity so that every allowed upload can pass eventually.
+     * The whole cost is refunded if another matching policy rejects the request.
+     */
+    public long cost(long contentLength) {
+        if (bytesPerToken == 0 || contentLength <= 0) {
+            return 1;
+        }
+        return Math.min(capacity, Math.ceilDiv(contentLength, bytesPerToken));
+    }
+
+    /**
+     * @param path The path of the request within the application.
+     * @return True if one of the patterns matches the path.
+     */
+    public boolean matches(PathContainer path) {
+        for (PathPattern pattern : patterns) {
+            if (pattern.matches(path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
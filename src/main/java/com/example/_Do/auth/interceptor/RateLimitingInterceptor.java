@@ -1,76 +1,307 @@
 package com.example._Do.auth.interceptor;
 
+import com.example._Do.auth.principal.AuthenticatedUser;
 import com.example._Do.exception.RateLimitExceededException;
-import io.github.bucket4j.BucketConfiguration;
-import io.github.bucket4j.distributed.BucketProxy;
-import io.github.bucket4j.distributed.proxy.ProxyManager;
+import com.example._Do.exception.RateLimitUnavailableException;
+import io.github.bucket4j.ConsumptionProbe;
+import io.github.bucket4j.distributed.AsyncBucketProxy;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.server.PathContainer;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.multipart.MultipartHttpServletRequest;
 import org.springframework.web.servlet.HandlerInterceptor;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
  * Interceptor for Distributed Rate Limiting.
  * <p>
- * This interceptor monitors incoming HTTP requests and enforces rate limits
- * based on the client's IP address. It leverages a distributed Redis store
- * via {@link ProxyManager} to ensure consistency across multiple application instances.
+ * This interceptor monitors incoming HTTP requests and enforces the {@link RateLimitPolicies}
+ * matching their path, counting requests by client IP address, authenticated user or API key.
+ * It leverages a distributed Redis store via {@link RateLimitBuckets} to ensure consistency across
+ * multiple application instances; by default most decisions are made locally and synchronized
+ * with Redis in batches.
+ * </p>
+ * <p>
+ * The matching policies are all-or-nothing: a request is only charged if every policy allows it.
+ * Each bucket consumes atomically on its own, so when one policy rejects the request, the tokens it
+ * consumed from the others are added back (asynchronously; the answer does not wait for it).
+ * </p>
+ * <p>
+ * The buckets of all matching policies are queried concurrently and asynchronously; the request
+ * thread waits at most {@code application.rate-limit.timeout} for the answers, so a slow Redis
+ * cannot tie up the servlet threads. If Redis does not answer in time or fails, the request is
+ * let through ({@code failure-policy: open}) or rejected with 503 ({@code closed}).
+ * </p>
+ * <p>
+ * Decided requests carry {@value #LIMIT_HEADER} and {@value #REMAINING_HEADER} of the most restrictive
+ * matching policy; rejected requests also get the exact {@code Retry-After} (seconds until the
+ * bucket has a token again), see {@link RateLimitExceededException#getRetryAfterSeconds()}.
+ * </p>
+ * <p>
+ * The time to a decision is recorded as the histogram {@code rate_limit.decision} with the result
+ * {@code allowed}, {@code rejected}, {@code timeout} or {@code error}; requests let through
+ * without a decision are counted as {@code rate_limit.failed_open}.
  * </p>
  */
 
 @Slf4j
 @Component
-@RequiredArgsConstructor
 @ConditionalOnProperty(name = "application.rate-limit.enabled", havingValue = "true", matchIfMissing = true)
 public class RateLimitingInterceptor implements HandlerInterceptor {
 
-    private final ProxyManager<String> proxyManager;
+    /**
+     * What to do with a request whose limits could not be checked.
+     */
+    public enum FailurePolicy {
+        /** Let the request through (availability over protection). */
+        OPEN,
+        /** Reject the request with 503 (protection over availability). */
+        CLOSED
+    }
+
+    public static final String LIMIT_HEADER = "X-RateLimit-Limit";
+    public static final String REMAINING_HEADER = "X-RateLimit-Remaining";
+
+    private static final String BUCKET_PREFIX = "rate_limit:";
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final RateLimitPolicies rateLimitPolicies;
+    private final RateLimitBuckets rateLimitBuckets;
+    private final long timeoutNanos;
+    private final FailurePolicy failurePolicy;
+
+    private final Timer allowed;
+    private final Timer rejected;
+    private final Timer timedOut;
+    private final Timer failed;
+    private final Counter failedOpen;
+
+    public RateLimitingInterceptor(
+            RateLimitPolicies rateLimitPolicies,
+            RateLimitBuckets rateLimitBuckets,
+            MeterRegistry meterRegistry,
+            @Value("${application.rate-limit.timeout:100ms}") Duration timeout,
+            @Value("${application.rate-limit.failure-policy:open}") FailurePolicy failurePolicy
+    ) {
+        this.rateLimitPolicies = rateLimitPolicies;
+        this.rateLimitBuckets = rateLimitBuckets;
+        this.timeoutNanos = timeout.toNanos();
+        this.failurePolicy = failurePolicy;
+        this.allowed = decisionTimer(meterRegistry, "allowed");
+        this.rejected = decisionTimer(meterRegistry, "rejected");
+        this.timedOut = decisionTimer(meterRegistry, "timeout");
+        this.failed = decisionTimer(meterRegistry, "error");
+        this.failedOpen = Counter.builder("rate_limit.failed_open")
+                .description("Requests let through because their rate limit could not be checked")
+                .register(meterRegistry);
+    }
 
     /**
      * Intercepts requests before they reach the controller to verify rate limit quotas.
+     * <p>
+     * Every matching policy consumes one token (size-weighted policies one per started
+     * {@code bytes-per-token} of the body, see {@link RateLimitPolicy#cost(long)}); the request is
+     * rejected if any policy has not enough tokens left, with the longest wait of those policies
+     * as {@code Retry-After}. A rejected request is not charged: the policies that allowed it get
+     * their tokens back. The same applies when the check fails and the rate limiter fails closed.
+     * </p>
      *
      * @param request  The incoming HttpServletRequest
      * @param response The outgoing HttpServletResponse
      * @param handler  The target handler (controller method)
-     * @return {@code true} if the request is within limits; {@code false} otherwise.
+     * @return {@code true} if the request is within limits (or its limits could not be checked and the
+     * rate limiter fails open).
+     * @throws RateLimitExceededException   If a limit is exceeded.
+     * @throws RateLimitUnavailableException If the limits could not be checked and the rate limiter fails closed.
      */
     @Override
     public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
+        PathContainer path = PathContainer.parsePath(request.getRequestURI().substring(request.getContextPath().length()));
+        List<RateLimitPolicy> policies = rateLimitPolicies.matching(path);
+        if (policies.isEmpty()) {
+            return true;
+        }
+
+        long start = System.nanoTime();
+        long contentLength = contentLength(request);
+        List<String> clientKeys = new ArrayList<>(policies.size());
+        List<AsyncBucketProxy> buckets = new ArrayList<>(policies.size());
+        long[] costs = new long[policies.size()];
+        List<CompletableFuture<ConsumptionProbe>> decisions = new ArrayList<>(policies.size());
+        Runnable refund = () -> refund(policies, buckets, costs, decisions);
+        try {
+            for (int i = 0; i < policies.size(); i++) {
+                RateLimitPolicy policy = policies.get(i);
+                String clientKey = resolveClientKey(policy, request);
+                clientKeys.add(clientKey);
+                // Retrieve or initialize the bucket from Redis for the policy and client and
+                // attempt to consume the cost of the request; the pre-built configuration is only
+                // sent to Redis if the bucket does not exist yet.
+                AsyncBucketProxy bucket = rateLimitBuckets.resolve(
+                        BUCKET_PREFIX + policy.name() + ":" + clientKey, policy.configuration(), policy.version());
+                costs[i] = policy.cost(contentLength);
+                buckets.add(bucket);
+                decisions.add(bucket.tryConsumeAndReturnRemaining(costs[i]));
+            }
+            CompletableFuture.allOf(decisions.toArray(CompletableFuture[]::new))
+                    .get(timeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            return onFailure(timedOut, start, "timed out", refund);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return onFailure(failed, start, "was interrupted", refund);
+        } catch (ExecutionException | RuntimeException e) {
+            log.debug("Rate limit check failed", e);
+            return onFailure(failed, start, "failed", refund);
+        }
+
+        int binding = -1;
+        int exceeded = -1;
+        ConsumptionProbe bindingProbe = null;
+        ConsumptionProbe exceededProbe = null;
+        for (int i = 0; i < policies.size(); i++) {
+            ConsumptionProbe probe = decisions.get(i).join();
+            if (!probe.isConsumed()) {
+                if (exceededProbe == null || probe.getNanosToWaitForRefill() > exceededProbe.getNanosToWaitForRefill()) {
+                    exceeded = i;
+                    exceededProbe = probe;
+                }
+            } else if (bindingProbe == null || probe.getRemainingTokens() < bindingProbe.getRemainingTokens()) {
+                binding = i;
+                bindingProbe = probe;
+            }
+        }
+
+        if (exceededProbe != null) {
+            refund.run();
+            rejected.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            RateLimitPolicy policy = policies.get(exceeded);
+            long retryAfterSeconds = Math.max(1, Math.ceilDiv(exceededProbe.getNanosToWaitForRefill(), NANOS_PER_SECOND));
+            response.setHeader(LIMIT_HEADER, String.valueOf(policy.capacity()));
+            response.setHeader(REMAINING_HEADER, "0");
+            log.warn("Rate limit {} exceeded for client identifier: {}", policy.name(), clientKeys.get(exceeded));
+            throw new RateLimitExceededException(
+                    "Too many requests. Please try again in " + retryAfterSeconds + " seconds.", retryAfterSeconds);
+        }
+        allowed.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        response.setHeader(LIMIT_HEADER, String.valueOf(policies.get(binding).capacity()));
+        response.setHeader(REMAINING_HEADER, String.valueOf(bindingProbe.getRemainingTokens()));
+        return true;
+    }
+
+    private boolean onFailure(Timer timer, long start, String reason, Runnable refund) {
+        timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        if (failurePolicy == FailurePolicy.OPEN) {
+            failedOpen.increment();
+            log.debug("Rate limit check {}; request let through", reason);
+            return true;
+        }
+        log.debug("Rate limit check {}; request rejected", reason);
+        refund.run();
+        throw new RateLimitUnavailableException("Service temporarily unavailable. Please try again shortly.");
+    }
+
+    /**
+     * Adds the cost of a request that is not served back to every bucket that consumed it, including
+     * decisions still in flight once they complete. Does not wait for Redis; a failed refund only
+     * leaves the tokens consumed until the bucket refills.
+     */
+    private static void refund(List<RateLimitPolicy> policies, List<AsyncBucketProxy> buckets, long[] costs,
+                               List<CompletableFuture<ConsumptionProbe>> decisions) {
+        for (int i = 0; i < decisions.size(); i++) {
+            AsyncBucketProxy bucket = buckets.get(i);
+            long cost = costs[i];
+            String policy = policies.get(i).name();
+            decisions.get(i).thenAccept(probe -> {
+                if (probe.isConsumed()) {
+                    bucket.addTokens(cost).exceptionally(e -> {
+                        log.debug("Could not refund rate limit {}: {}", policy, e.getMessage());
+                        return null;
+                    });
+                }
+            });
+        }
+    }
 
+    /**
+     * The declared body size; for chunked uploads the size of the (already parsed) multipart files.
+     */
+    private static long contentLength(HttpServletRequest request) {
+        long contentLength = request.getContentLengthLong();
+        if (contentLength < 0 && request instanceof MultipartHttpServletRequest multipartRequest) {
+            contentLength = multipartRequest.getFileMap().values().stream().mapToLong(MultipartFile::getSize).sum();
+        }
+        return contentLength;
+    }
+
+    private static String resolveClientKey(RateLimitPolicy policy, HttpServletRequest request) {
+        switch (policy.key()) {
+            case USER -> {
+                Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+                if (authentication != null && authentication.getPrincipal() instanceof AuthenticatedUser user) {
+                    return "user:" + user.id();
+                }
+            }
+            case API_KEY -> {
+                String apiKey = request.getHeader(policy.apiKeyHeader());
+                if (apiKey != null && !apiKey.isEmpty()) {
+                    // Only a hash of the key ends up in Redis and in the logs
+                    return "key:" + sha256(apiKey);
+                }
+            }
+            case IP -> {
+                // Counted by IP below, like anonymous USER and keyless API_KEY requests
+            }
+        }
+        return "ip:" + clientIp(request);
+    }
+
+    private static String clientIp(HttpServletRequest request) {
         // Resolve the real client IP address.
         // In cloud environments (Azure, AWS), the request often passes through a Load Balancer or Gateway.
         // 'X-Forwarded-For' ensures we track the actual user, not the proxy's internal IP.
         String remoteAddr = request.getHeader("X-Forwarded-For");
-        if (remoteAddr == null ||remoteAddr.isEmpty()) {
+        if (remoteAddr == null || remoteAddr.isEmpty()) {
             remoteAddr = request.getRemoteAddr();
         }
+        return remoteAddr;
+    }
 
-        // Define the Rate Limiting Strategy:
-        // Capacity: 10 tokens per bucket.
-        // Refill: Greedy refill of 10 tokens every 1 minute.
-        BucketConfiguration config = BucketConfiguration.builder()
-                .addLimit(limit -> limit.capacity(10).refillGreedy(10 , Duration.ofMinutes(1)))
-                .build();
-
-        // Retrieve or initialize the bucket from Redis for the resolved IP.
-        // Using a Supplier (() -> config) is highly efficient as it avoids redundant
-        // configuration object processing if the bucket already exists in the cache.
-        BucketProxy bucket = proxyManager.builder().build(remoteAddr, () -> config);
-
-        // Attempt to consume a single token for the current request.
-        if (bucket.tryConsume(1)){
-            return true; // Limit not exceeded, allow request to proceed.
-        } else {
-            log.warn("Rate limit exceeded for client identifier: {}", remoteAddr);
-
-            throw new RateLimitExceededException("Too many requests. Please try again after 1 minute.");
-        }
-
+    private static Timer decisionTimer(MeterRegistry meterRegistry, String result) {
+        return Timer.builder("rate_limit.decision")
+                .description("Time to decide whether a request is within its rate limits")
+                .tag("result", result)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
     }
 
+    private static String sha256(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
 }
@@ -0,0 +1,50 @@
+package com.example._Do.auth.principal;
+
+import com.example._Do.user.entity.Role;
+import com.example._Do.user.entity.User;
+import org.springframework.security.core.AuthenticatedPrincipal;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.io.Serializable;
+import java.util.Collection;
+
+/**
+ * Lightweight security principal built directly from verified JWT claims.
+ * <p>
+ * Unlike the {@link User} entity it carries no password and requires no database lookup,
+ * which keeps authenticated requests stateless. Services read the owner id from here
+ * instead of re-loading the user by email.
+ * </p>
+ *
+ * @param id    The database id of the user.
+ * @param email The user's email address (JWT subject).
+ * @param role  The role the token was issued with.
+ */
+public record AuthenticatedUser(
+        Long id,
+        String email,
+        Role role
+) implements AuthenticatedPrincipal, Serializable {
+
+    /**
+     * Creates a principal from a loaded user entity.
+     */
+    public static AuthenticatedUser from(User user) {
+        return new AuthenticatedUser(user.getId(), user.getEmail(), user.getRole());
+    }
+
+    /**
+     * Returns the email, so {@code Authentication.getName()} keeps returning the username.
+     */
+    @Override
+    public String getName() {
+        return email;
+    }
+
+    /**
+     * Returns the authorities granted by the role, see {@link Role#getAuthorities()}.
+     */
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return role.getAuthorities();
+    }
+}
@@ -0,0 +1,63 @@
+package com.example._Do.auth.repository;
+
+import com.example._Do.auth.entity.RefreshToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Data Access Object (DAO) for {@link RefreshToken} rows.
+ * <p>
+ * Tokens are stored as SHA-256 hashes and grouped in families, one per session, so a whole
+ * session can be ended with a single delete.
+ * </p>
+ */
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
+
+    /**
+     * Retrieves a refresh token together with its user in one statement.
+     *
+     * @param tokenHash The SHA-256 hash of the token.
+     * @return The stored token, or empty if it is unknown or its family was revoked.
+     */
+    @Query("select r from RefreshToken r join fetch r.user where r.tokenHash = :tokenHash")
+    Optional<RefreshToken> findWithUserByTokenHash(@Param("tokenHash") String tokenHash);
+
+    /**
+     * Marks a token as used unless another request used it first.
+     *
+     * @param id  The ID of the token.
+     * @param now The current time.
+     * @return 1 if the token was marked, 0 if it had already been used.
+     */
+    @Modifying
+    @Query("update RefreshToken r set r.usedAt = :now where r.id = :id and r.usedAt is null")
+    int markUsed(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    /**
+     * Deletes every token of a family (ends the session).
+     *
+     * @param familyId The family (session) id.
+     * @return The number of deleted tokens.
+     */
+    @Modifying
+    @Transactional
+    @Query("delete from RefreshToken r where r.familyId = :familyId")
+    int deleteByFamilyId(@Param("familyId") String familyId);
+
+    /**
+     * Deletes every token that has expired.
+     *
+     * @param now The current time.
+     * @return The number of deleted tokens.
+     */
+    @Modifying
+    @Transactional
+    @Query("delete from RefreshToken r where r.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
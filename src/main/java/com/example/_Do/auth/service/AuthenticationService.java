@@ -2,6 +2,7 @@ package com.example._Do.auth.service;
 
 import com.example._Do.auth.dto.AuthenticationRequest;
 import com.example._Do.auth.dto.AuthenticationResponse;
+import com.example._Do.auth.dto.RefreshTokenRequest;
 import com.example._Do.config.JwtService;
 import com.example._Do.user.dto.RegisterRequest;
 import com.example._Do.user.entity.Role;
@@ -12,12 +13,16 @@ import com.example._Do.user.mapper.UserMapper;
 import com.example._Do.user.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Locale;
 
 /**
  * Service class responsible for handling user authentication and registration logic.
@@ -35,48 +40,64 @@ public class AuthenticationService {
     private final JwtService jwtService;
     private final AuthenticationManager authenticationManager;
     private final UserMapper userMapper;
+    private final TokenVersionService tokenVersionService;
+    private final RefreshTokenService refreshTokenService;
 
     /**
      * Creates a new user account and returns a JWT token.
+     * <p>
+     * Duplicate emails are detected by the {@code uc_users_email} unique constraint on insert
+     * instead of a separate existence query, which also closes the race between two concurrent
+     * registrations with the same email.
+     * </p>
+     * <p>
+     * Not transactional: the password is hashed before any connection is taken, and the user and
+     * the refresh token are each inserted in their own repository transaction. If the token insert
+     * fails, the account exists and the user can log in.
+     * </p>
      *
      * @param request The registration request containing user details.
-     * @return AuthenticationResponse containing the generated JWT token.
+     * @return AuthenticationResponse containing the generated JWT token and refresh token.
      */
-    @Transactional
     public AuthenticationResponse register(RegisterRequest request) {
 
         log.info("Attempting to register new user with email: {}", request.email());
 
-        if (userRepository.existsByEmail(request.email())) {
-            log.warn("Registration failed: Email {} is already in use", request.email());
-            throw new UserAlreadyExistsException("User with email " + request.email() + " already exists.");
-        }
-
         User user = userMapper.toEntity(request);
         // Encode the password (mapper copied the raw one)
         user.setPassword(passwordEncoder.encode(request.password()));
         // Force ROLE_USER for public registration (Safety measure)
         user.setRole(Role.USER);
-        userRepository.save(user);
+        try {
+            userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            if (!isEmailConstraintViolation(e)) {
+                throw e;
+            }
+            log.warn("Registration failed: Email {} is already in use", request.email());
+            throw new UserAlreadyExistsException("User with email " + request.email() + " already exists.");
+        }
         log.info("User registered successfully with ID: {}", user.getId());
 
-        String jwtToken = jwtService.generateToken(user);
-        return AuthenticationResponse.builder()
-                .token(jwtToken)
-                .build();
+        return issueTokens(refreshTokenService.create(user));
     }
 
     /**
      * Authenticates an existing user and returns a JWT token.
+     * <p>
+     * The token is built from the principal returned by the {@link AuthenticationManager},
+     * so the user is looked up only once.
+     * </p>
      *
      * @param request The authentication request containing email and password.
-     * @return AuthenticationResponse containing the generated JWT token.
+     * @return AuthenticationResponse containing the generated JWT token and refresh token.
      */
     public AuthenticationResponse authenticate(AuthenticationRequest request) {
 
         log.info("Authenticating user: {}", request.email());
+        Authentication authentication;
         try {
-            authenticationManager.authenticate(
+            authentication = authenticationManager.authenticate(
                     new UsernamePasswordAuthenticationToken(
                             request.email(),
                             request.password()
@@ -86,15 +107,52 @@ public class AuthenticationService {
             throw new InvalidCredentialsException("Invalid username or password.");
         }
 
-        User user = userRepository.findByEmail(request.email()).orElseThrow(
-                () -> new InvalidCredentialsException("Invalid username or password.")
-        );
+        if (!(authentication.getPrincipal() instanceof User user)) {
+            throw new InvalidCredentialsException("Invalid username or password.");
+        }
 
-        String jwtToken = jwtService.generateToken(user);
+        AuthenticationResponse response = issueTokens(refreshTokenService.create(user));
         log.info("User authenticated successfully: {}", user.getEmail());
 
+        return response;
+    }
+
+    /**
+     * Exchanges a refresh token for a new access token and the next refresh token of the session.
+     *
+     * @param request The request containing the current refresh token.
+     * @return AuthenticationResponse containing the new JWT token and refresh token.
+     */
+    public AuthenticationResponse refresh(RefreshTokenRequest request) {
+        return issueTokens(refreshTokenService.rotate(request.refreshToken()));
+    }
+
+    /**
+     * Logs the user out of every session by invalidating all tokens issued so far.
+     * <p>
+     * This is a single version increment, independent of the number of sessions.
+     * </p>
+     *
+     * @param userId The ID of the user.
+     */
+    public void logoutAllSessions(Long userId) {
+        tokenVersionService.revokeAllTokens(userId);
+    }
+
+    private static boolean isEmailConstraintViolation(DataIntegrityViolationException e) {
+        for (Throwable cause = e.getCause(); cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation) {
+                return violation.getConstraintName() != null
+                        && violation.getConstraintName().toLowerCase(Locale.ROOT).contains(User.EMAIL_CONSTRAINT);
+            }
+        }
+        return false;
+    }
+
+    private AuthenticationResponse issueTokens(RefreshTokenService.IssuedRefreshToken refreshToken) {
         return AuthenticationResponse.builder()
-                .token(jwtToken)
+                .token(jwtService.generateToken(refreshToken.user(), refreshToken.sessionId()))
+                .refreshToken(refreshToken.token())
                 .build();
     }
 }
@@ -1,37 +1,208 @@
 package com.example._Do.auth.service;
 
-import lombok.RequiredArgsConstructor;
+import com.example._Do.auth.blacklist.RevokedTokenFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.ScanOptions;
 import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Service responsible for managing the lifecycle of invalidated JWT tokens.
+ * <p>
+ * Blacklisted tokens are stored in Redis as {@code jwt_blacklist:<jti>} (see
+ * {@link com.example._Do.config.JwtService#extractTokenId}), so a revoked session costs a few dozen
+ * bytes instead of the whole token. Revoking every session of a user does not use the blacklist at
+ * all; it increments the user's token version ({@link TokenVersionService#revokeAllTokens}).
+ * Every node also keeps a {@link RevokedTokenFilter} of the
+ * blacklisted tokens, so the Redis lookup is skipped for the (almost always) not revoked tokens and
+ * only performed when the filter reports a possible match. New entries reach the other nodes via
+ * the Redis channel {@value #CHANNEL}; a periodic scan of the blacklist keys fills the filter when
+ * a node starts and repairs messages lost while a node was disconnected. Until the first scan has
+ * completed, every lookup goes to Redis.
+ * </p>
+ * <p>
+ * Revocation is a security feature, so it has its own switch ({@code application.security.jwt.revocation.enabled},
+ * independent of rate limiting) and the node refuses to start when Redis cannot be reached, instead of
+ * accepting logged-out tokens.
+ * </p>
+ * <p>
+ * Lookups are counted as {@code jwt.blacklist.lookups} with the result {@code filtered} (Redis round
+ * trip avoided), {@code revoked}, {@code false_positive} or {@code unfiltered} (filter not ready).
+ * </p>
  */
 @Service
-@RequiredArgsConstructor
-@ConditionalOnProperty(name = "application.rate-limit.enabled", havingValue = "true", matchIfMissing = true)
-public class JwtBlacklistService {
-    private final StringRedisTemplate stringRedisTemplate;
+@Slf4j
+@ConditionalOnProperty(name = "application.security.jwt.revocation.enabled", havingValue = "true", matchIfMissing = true)
+public class JwtBlacklistService implements MessageListener {
+
+    public static final String CHANNEL = "jwt_blacklist";
     private static final String JWT_BLACKLIST_PREFIX = "jwt_blacklist:";
+    private static final int SCAN_BATCH_SIZE = 1000;
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final long jwtExpiration;
+    private final RevokedTokenFilter revokedTokens;
+    private volatile boolean filterReady;
+
+    private final Counter filteredLookups;
+    private final Counter revokedLookups;
+    private final Counter falsePositiveLookups;
+    private final Counter unfilteredLookups;
+
+    public JwtBlacklistService(
+            StringRedisTemplate stringRedisTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${application.security.jwt.expiration}") long jwtExpiration,
+            @Value("${application.security.jwt.blacklist-filter.partition:1h}") Duration partition,
+            @Value("${application.security.jwt.blacklist-filter.expected-insertions:10000}") int expectedInsertions,
+            @Value("${application.security.jwt.blacklist-filter.false-positive-rate:0.001}") double falsePositiveRate
+    ) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.jwtExpiration = jwtExpiration;
+        this.revokedTokens = new RevokedTokenFilter(
+                jwtExpiration, partition.toMillis(), expectedInsertions, falsePositiveRate, System::currentTimeMillis);
+        this.filteredLookups = lookupCounter(meterRegistry, "filtered");
+        this.revokedLookups = lookupCounter(meterRegistry, "revoked");
+        this.falsePositiveLookups = lookupCounter(meterRegistry, "false_positive");
+        this.unfilteredLookups = lookupCounter(meterRegistry, "unfiltered");
+        Gauge.builder("jwt.blacklist.filter.size", revokedTokens, RevokedTokenFilter::size)
+                .description("Revoked tokens held in the local blacklist filter")
+                .register(meterRegistry);
+        Gauge.builder("jwt.blacklist.filter.memory", revokedTokens, RevokedTokenFilter::sizeInBytes)
+                .description("Memory used by the local blacklist filter")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Fails the startup if Redis is unreachable: without it, revoked tokens could not be detected.
+     */
+    @PostConstruct
+    void requireRedis() {
+        try {
+            stringRedisTemplate.execute((RedisCallback<String>) RedisConnection::ping);
+        } catch (DataAccessException e) {
+            throw new IllegalStateException("Token revocation needs Redis; set application.security.jwt.revocation.enabled=false "
+                    + "to run without it (logged-out tokens then stay valid until they expire)", e);
+        }
+    }
 
     /**
      * Adds a token to the blacklist with a specific expiration time.
-     * @param token The JWT token to blacklist
+     * @param tokenId The id of the JWT token to blacklist
      * @param duration How long the token should stay in the blacklist (usually until its expiration)
      */
-    public void blacklistToken(String token, Duration duration) {
-        stringRedisTemplate.opsForValue().set(JWT_BLACKLIST_PREFIX + token, "true", duration);
+    public void blacklistToken(String tokenId, Duration duration) {
+        long expiresAt = System.currentTimeMillis() + duration.toMillis();
+        // The expiration time is stored so synchronizeFilter() can place the token in its partition
+        stringRedisTemplate.opsForValue().set(JWT_BLACKLIST_PREFIX + tokenId, String.valueOf(expiresAt), duration);
+        revokedTokens.put(tokenId, expiresAt);
+        stringRedisTemplate.convertAndSend(CHANNEL, expiresAt + ":" + tokenId);
     }
 
     /**
      * Checks if a token is present in the blacklist.
-     * @param token The JWT token to check
+     * @param tokenId The id of the JWT token to check
      * @return true if blacklisted, false otherwise
      */
-    public boolean isTokenBlacklisted(String token) {
-        return stringRedisTemplate.hasKey(JWT_BLACKLIST_PREFIX + token);
+    public boolean isTokenBlacklisted(String tokenId) {
+        boolean ready = filterReady;
+        if (ready && !revokedTokens.mightContain(tokenId)) {
+            filteredLookups.increment();
+            return false;
+        }
+        boolean blacklisted = Boolean.TRUE.equals(stringRedisTemplate.hasKey(JWT_BLACKLIST_PREFIX + tokenId));
+        if (!ready) {
+            unfilteredLookups.increment();
+        } else if (blacklisted) {
+            revokedLookups.increment();
+        } else {
+            falsePositiveLookups.increment();
+        }
+        return blacklisted;
+    }
+
+    /**
+     * Receives tokens blacklisted by any node (including this one).
+     * The payload is {@code <expiresAtMillis>:<tokenId>}.
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String payload = new String(message.getBody(), StandardCharsets.UTF_8);
+        int separator = payload.indexOf(':');
+        try {
+            revokedTokens.put(payload.substring(separator + 1), Long.parseLong(payload.substring(0, separator)));
+        } catch (RuntimeException e) {
+            log.warn("Ignoring malformed blacklist message");
+        }
+    }
+
+    /**
+     * Adds every blacklisted token in Redis to the local filter.
+     * <p>
+     * Runs right after startup and then periodically. Keys are scanned and read in batches of
+     * {@value #SCAN_BATCH_SIZE}; entries without a stored expiration time are kept for the maximum
+     * token lifetime.
+     * </p>
+     */
+    @Scheduled(fixedDelayString = "${application.security.jwt.blacklist-filter.resync-interval:PT5M}")
+    public void synchronizeFilter() {
+        long scanned = 0;
+        ScanOptions options = ScanOptions.scanOptions().match(JWT_BLACKLIST_PREFIX + "*").count(SCAN_BATCH_SIZE).build();
+        List<String> batch = new ArrayList<>(SCAN_BATCH_SIZE);
+        try (Cursor<String> keys = stringRedisTemplate.scan(options)) {
+            while (keys.hasNext()) {
+                batch.add(keys.next());
+                if (batch.size() == SCAN_BATCH_SIZE || !keys.hasNext()) {
+                    scanned += addToFilter(batch);
+                    batch.clear();
+                }
+            }
+        } catch (DataAccessException e) {
+            log.warn("Could not synchronize the token blacklist filter: {}", e.getMessage());
+            return;
+        }
+        if (!filterReady) {
+            filterReady = true;
+            log.info("Token blacklist filter ready ({} revoked tokens)", scanned);
+        }
+    }
+
+    private int addToFilter(List<String> keys) {
+        List<String> values = stringRedisTemplate.opsForValue().multiGet(keys);
+        long defaultExpiresAt = System.currentTimeMillis() + jwtExpiration;
+        for (int i = 0; i < keys.size(); i++) {
+            String value = values == null ? null : values.get(i);
+            long expiresAt = value != null && !value.isEmpty() && Character.isDigit(value.charAt(0))
+                    ? Long.parseLong(value)
+                    : defaultExpiresAt;
+            revokedTokens.put(keys.get(i).substring(JWT_BLACKLIST_PREFIX.length()), expiresAt);
+        }
+        return keys.size();
+    }
+
+    private static Counter lookupCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("jwt.blacklist.lookups")
+                .description("Blacklist checks of authenticated requests")
+                .tag("result", result)
+                .register(meterRegistry);
     }
 }
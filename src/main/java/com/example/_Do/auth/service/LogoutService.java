@@ -1,6 +1,9 @@
 package com.example._Do.auth.service;
 
 import com.example._Do.config.JwtService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
@@ -12,18 +15,22 @@ import org.springframework.stereotype.Service;
 
 import java.time.Duration;
 import java.time.Instant;
-import java.util.Date;
 
 /**
  * Service responsible for handling secure user logout in a stateless JWT environment.
+ * <p>
+ * Only the id ({@code jti}) of the presented token is blacklisted and the refresh tokens of its
+ * session are revoked; the other sessions of the user stay valid (see {@link AuthenticationService#logoutAllSessions(Long)}).
+ * </p>
  */
 @Service
 @RequiredArgsConstructor
-@ConditionalOnProperty(name = "application.rate-limit.enabled", havingValue = "true", matchIfMissing = true)
+@ConditionalOnProperty(name = "application.security.jwt.revocation.enabled", havingValue = "true", matchIfMissing = true)
 public class LogoutService implements LogoutHandler {
 
     private final JwtBlacklistService jwtBlacklistService;
     private final JwtService jwtService;
+    private final RefreshTokenService refreshTokenService;
 
     /**
      * Performs the logout operation by extracting the JWT from the request,
@@ -48,10 +55,22 @@ public class LogoutService implements LogoutHandler {
 
         jwt = authHeader.substring(7);
 
-        Date expirationDate = jwtService.extractExpiration(jwt);
-        Duration remainingDuration = Duration.between(Instant.now(), expirationDate.toInstant());
+        Claims claims;
+        try {
+            claims = jwtService.verifyToken(jwt);
+            Duration remainingDuration = Duration.between(Instant.now(), claims.getExpiration().toInstant());
+            jwtBlacklistService.blacklistToken(jwtService.extractTokenId(jwt, claims), remainingDuration);
+        } catch (ExpiredJwtException e) {
+            // Signed by us but already unusable: nothing to blacklist, the session is still ended
+            claims = e.getClaims();
+        } catch (JwtException e) {
+            return;
+        }
 
-        jwtBlacklistService.blacklistToken(jwt, remainingDuration);
+        String sessionId = jwtService.extractSessionId(claims);
+        if (sessionId != null) {
+            refreshTokenService.revokeSession(sessionId);
+        }
 
         SecurityContextHolder.clearContext();
 
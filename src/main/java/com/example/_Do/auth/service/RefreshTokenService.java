@@ -0,0 +1,148 @@
+package com.example._Do.auth.service;
+
+import com.example._Do.auth.entity.RefreshToken;
+import com.example._Do.auth.repository.RefreshTokenRepository;
+import com.example._Do.user.entity.User;
+import com.example._Do.user.exception.InvalidRefreshTokenException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+
+/**
+ * Service that issues and rotates the refresh tokens of the server-side sessions.
+ * <p>
+ * A refresh token is an opaque random string; only its SHA-256 hash is stored. Every exchange
+ * marks the presented token as used and issues its successor in the same family. A used token
+ * that is presented again was either stolen or replayed, so the whole family is revoked and the
+ * session ends. Families are also ended by logout and, via the token version, by
+ * {@link TokenVersionService#revokeAllTokens(Long)}.
+ * </p>
+ */
+@Service
+@Slf4j
+public class RefreshTokenService {
+
+    private static final int TOKEN_BYTES = 32;
+    private static final int FAMILY_ID_BYTES = 16;
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final Duration refreshTokenExpiration;
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    public RefreshTokenService(
+            RefreshTokenRepository refreshTokenRepository,
+            @Value("${application.security.jwt.refresh-token.expiration}") long refreshTokenExpiration
+    ) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.refreshTokenExpiration = Duration.ofMillis(refreshTokenExpiration);
+    }
+
+    /**
+     * A newly issued refresh token.
+     *
+     * @param token     The raw token for the client (never stored).
+     * @param sessionId The family id, carried by the access tokens of the session.
+     * @param user      The owner of the session.
+     */
+    public record IssuedRefreshToken(String token, String sessionId, User user) {
+    }
+
+    /**
+     * Starts a new session for the user.
+     *
+     * @param user The authenticated user.
+     * @return The first refresh token of the session.
+     */
+    @Transactional
+    public IssuedRefreshToken create(User user) {
+        return issue(user, randomString(FAMILY_ID_BYTES), user.getTokenVersion());
+    }
+
+    /**
+     * Exchanges a refresh token for its successor.
+     * <p>
+     * Failures caused by a reused token are committed (the family stays revoked).
+     * </p>
+     *
+     * @param presentedToken The refresh token sent by the client.
+     * @return The next refresh token of the same session.
+     * @throws InvalidRefreshTokenException If the token is unknown, expired, already used or its session was ended.
+     */
+    @Transactional(noRollbackFor = InvalidRefreshTokenException.class)
+    public IssuedRefreshToken rotate(String presentedToken) {
+        RefreshToken current = refreshTokenRepository.findWithUserByTokenHash(hash(presentedToken))
+                .orElseThrow(() -> new InvalidRefreshTokenException("Invalid refresh token."));
+        LocalDateTime now = LocalDateTime.now();
+
+        if (current.getUsedAt() != null || refreshTokenRepository.markUsed(current.getId(), now) == 0) {
+            refreshTokenRepository.deleteByFamilyId(current.getFamilyId());
+            log.warn("Refresh token reuse detected for user {}; session revoked", current.getUser().getId());
+            throw new InvalidRefreshTokenException("Invalid refresh token.");
+        }
+        User user = current.getUser();
+        if (current.getExpiresAt().isBefore(now) || current.getTokenVersion() != user.getTokenVersion()) {
+            throw new InvalidRefreshTokenException("Refresh token has expired.");
+        }
+        return issue(user, current.getFamilyId(), current.getTokenVersion());
+    }
+
+    /**
+     * Ends a session; its refresh tokens can no longer be exchanged.
+     *
+     * @param sessionId The family id from the access token.
+     */
+    public void revokeSession(String sessionId) {
+        refreshTokenRepository.deleteByFamilyId(sessionId);
+    }
+
+    /**
+     * Deletes expired refresh tokens.
+     */
+    @Scheduled(
+            initialDelayString = "${application.security.jwt.refresh-token.purge-interval:PT1H}",
+            fixedDelayString = "${application.security.jwt.refresh-token.purge-interval:PT1H}"
+    )
+    public void purgeExpired() {
+        int deleted = refreshTokenRepository.deleteExpired(LocalDateTime.now());
+        log.info("Purged {} expired refresh tokens", deleted);
+    }
+
+    private IssuedRefreshToken issue(User user, String familyId, int tokenVersion) {
+        String token = randomString(TOKEN_BYTES);
+        refreshTokenRepository.save(RefreshToken.builder()
+                .user(user)
+                .familyId(familyId)
+                .tokenHash(hash(token))
+                .tokenVersion(tokenVersion)
+                .expiresAt(LocalDateTime.now().plus(refreshTokenExpiration))
+                .build());
+        return new IssuedRefreshToken(token, familyId, user);
+    }
+
+    private String randomString(int bytes) {
+        byte[] random = new byte[bytes];
+        secureRandom.nextBytes(random);
+        return ENCODER.encodeToString(random);
+    }
+
+    private static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
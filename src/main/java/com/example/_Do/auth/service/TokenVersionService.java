@@ -0,0 +1,98 @@
+package com.example._Do.auth.service;
+
+import com.example._Do.user.cache.UserChangedEvent;
+import com.example._Do.user.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Service that validates the per-user token version carried by every JWT.
+ * <p>
+ * A user's tokens are invalidated by incrementing {@code users.token_version}. Current versions
+ * are cached in-process for a short time, so authenticated requests only reach the database
+ * once per user and cache period instead of on every call.
+ * </p>
+ * <p>
+ * This check is kept on the hot path on purpose, even with 15-minute access tokens: "log out
+ * everywhere" must end the other sessions at once rather than when their tokens expire. It costs
+ * one read of {@code users.token_version} per user, node and cache period (30s by default) on a
+ * cache miss. A revocation evicts the cached version on every node through
+ * {@code UserInvalidationService}; only a lost invalidation message leaves a revoked token usable,
+ * for at most one cache period.
+ * </p>
+ */
+@Service
+@Slf4j
+public class TokenVersionService {
+
+    /**
+     * Cached marker for users that no longer exist.
+     */
+    private static final int USER_REMOVED = -1;
+
+    private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Cache<Long, Integer> currentVersions;
+
+    public TokenVersionService(
+            UserRepository userRepository,
+            ApplicationEventPublisher eventPublisher,
+            @Value("${application.security.jwt.token-version.cache-ttl:30s}") Duration cacheTtl,
+            @Value("${application.security.jwt.token-version.cache-maximum-size:10000}") long cacheMaximumSize
+    ) {
+        this.userRepository = userRepository;
+        this.eventPublisher = eventPublisher;
+        this.currentVersions = Caffeine.newBuilder()
+                .maximumSize(cacheMaximumSize)
+                .expireAfterWrite(cacheTtl)
+                .build();
+    }
+
+    /**
+     * Checks whether a token version is still the current one for the user.
+     *
+     * @param userId       The ID of the user (from the token).
+     * @param tokenVersion The version claim of the token.
+     * @return True if the user exists and the version matches, False otherwise.
+     */
+    public boolean isCurrent(Long userId, Integer tokenVersion) {
+        int current = currentVersions.get(userId, id -> userRepository.findTokenVersionById(id).orElse(USER_REMOVED));
+        if (current == USER_REMOVED || !Objects.equals(current, tokenVersion)) {
+            log.debug("Token version {} rejected for user {} (current: {})", tokenVersion, userId, current);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Invalidates every token issued for the user so far.
+     * <p>
+     * The cached version is evicted on every node after the commit (see {@link UserChangedEvent}).
+     * </p>
+     *
+     * @param userId The ID of the user.
+     */
+    @Transactional
+    public void revokeAllTokens(Long userId) {
+        userRepository.incrementTokenVersion(userId);
+        eventPublisher.publishEvent(new UserChangedEvent(userId));
+        log.info("All tokens revoked for user: {}", userId);
+    }
+
+    /**
+     * Drops the cached version of a user on this node so the next request re-reads it.
+     *
+     * @param userId The ID of the user.
+     */
+    public void evict(Long userId) {
+        currentVersions.invalidate(userId);
+    }
+}
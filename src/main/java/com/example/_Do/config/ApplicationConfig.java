@@ -1,18 +1,22 @@
 package com.example._Do.config;
 
-import com.example._Do.user.repository.UserRepository;
+import com.example._Do.user.cache.UserCache;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.time.Duration;
+
 /**
  * Core configuration class for application-wide security beans.
  * <p>
@@ -22,29 +26,36 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 @Configuration
 @RequiredArgsConstructor
 public class ApplicationConfig {
-    private final UserRepository userRepository;
+    private final UserCache userCache;
 
     /**
      * Defines how to retrieve user details from the database.
-     * Used by Spring Security during the authentication process.
+     * Used by Spring Security during the authentication process; users are served
+     * from the in-process {@link UserCache} when possible.
      *
      * @return A UserDetailsService implementation that fetches users by email.
      */
     @Bean
     public UserDetailsService userDetailsService() {
-        return username -> userRepository.findByEmail(username)
+        return username -> userCache.findByEmail(username)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + username));
     }
 
     /**
      * The Data Access Object (DAO) based authentication provider.
      * It connects the UserDetailsService and PasswordEncoder to verify credentials.
+     * Passwords hashed with an outdated cost factor are rehashed after a successful login
+     * through the {@link UserDetailsPasswordService}.
      */
     @Bean
-    public AuthenticationProvider authenticationProvider() {
+    public AuthenticationProvider authenticationProvider(
+            PasswordEncoder passwordEncoder,
+            UserDetailsPasswordService userDetailsPasswordService
+    ) {
         DaoAuthenticationProvider daoAuthenticationProvider = new DaoAuthenticationProvider();
         daoAuthenticationProvider.setUserDetailsService(userDetailsService());
-        daoAuthenticationProvider.setPasswordEncoder(passwordEncoder());
+        daoAuthenticationProvider.setPasswordEncoder(passwordEncoder);
+        daoAuthenticationProvider.setUserDetailsPasswordService(userDetailsPasswordService);
         return daoAuthenticationProvider;
     }
 
@@ -57,10 +68,20 @@ public class ApplicationConfig {
     }
 
     /**
-     * Defines the password hashing algorithm.
+     * Defines the password hashing algorithm: BCrypt with the configured cost factor, executed on a
+     * bounded thread pool so hashing cannot occupy every request thread (see {@link BoundedPasswordEncoder}).
+     * The strength that would fit the target duration on this machine is logged at startup as a hint.
      */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(
+            MeterRegistry meterRegistry,
+            @Value("${application.security.password-hashing.threads:2}") int threads,
+            @Value("${application.security.password-hashing.queue-capacity:50}") int queueCapacity,
+            @Value("${application.security.password-hashing.strength:10}") int strength,
+            @Value("${application.security.password-hashing.target-duration:100ms}") Duration targetDuration
+    ) {
+        BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(threads, queueCapacity, strength, meterRegistry);
+        encoder.recommendStrength(targetDuration);
+        return encoder;
     }
 }
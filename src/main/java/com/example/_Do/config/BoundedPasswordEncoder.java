@@ -0,0 +1,193 @@
+package com.example._Do.config;
+
+import com.example._Do.exception.PasswordHashingUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * BCrypt {@link PasswordEncoder} that hashes on a dedicated, bounded thread pool.
+ * <p>
+ * At most {@code threads} hashes run at a time and at most {@code queueCapacity} wait; any further
+ * request is rejected immediately with {@link PasswordHashingUnavailableException} (503), so a
+ * login or registration storm cannot use more than the configured CPUs.
+ * </p>
+ * <p>
+ * {@link PasswordEncoder} is synchronous: the calling request thread blocks until its hash is done.
+ * The pool caps CPU use, not blocked threads; up to {@code threads + queueCapacity} request threads
+ * wait here during a storm, so keep that sum well below the servlet thread pool to leave threads
+ * for the other endpoints.
+ * </p>
+ * <p>
+ * The BCrypt cost factor is configured, so every node hashes with the same strength whatever its
+ * hardware. {@link #recommendStrength(Duration)} measures this machine and logs the strength that
+ * would fit a target duration, as a hint for choosing it. Hashes with a lower strength are reported
+ * by {@link #upgradeEncoding(String)}, so Spring Security rehashes them on the next successful login.
+ * </p>
+ * <p>
+ * Metrics: {@code auth.password.hashing} (hashing time), {@code auth.password.hashing.wait}
+ * (time in the queue), {@code auth.password.hashing.queue} and {@code auth.password.hashing.active}
+ * (gauges), {@code auth.password.hashing.rejected} and {@code auth.password.hashing.strength}.
+ * </p>
+ */
+@Slf4j
+public class BoundedPasswordEncoder implements PasswordEncoder, AutoCloseable {
+
+    private static final int CALIBRATION_ROUNDS = 3;
+    private static final int MIN_STRENGTH = 4;
+    private static final int MAX_STRENGTH = 31;
+
+    private final BCryptPasswordEncoder delegate;
+    private final int strength;
+    private final ThreadPoolExecutor executor;
+    private final Timer hashingTimer;
+    private final Timer waitTimer;
+    private final Counter rejected;
+
+    public BoundedPasswordEncoder(
+            int threads,
+            int queueCapacity,
+            int strength,
+            MeterRegistry meterRegistry
+    ) {
+        this.strength = strength;
+        this.delegate = new BCryptPasswordEncoder(strength);
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hashing-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        this.hashingTimer = Timer.builder("auth.password.hashing")
+                .description("Time spent hashing or verifying a password")
+                .register(meterRegistry);
+        this.waitTimer = Timer.builder("auth.password.hashing.wait")
+                .description("Time a password hashing request waited for a hashing thread")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("auth.password.hashing.rejected")
+                .description("Password hashing requests rejected because the queue was full")
+                .register(meterRegistry);
+        Gauge.builder("auth.password.hashing.queue", executor, pool -> pool.getQueue().size())
+                .description("Password hashing requests waiting for a hashing thread")
+                .register(meterRegistry);
+        Gauge.builder("auth.password.hashing.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Passwords being hashed right now")
+                .register(meterRegistry);
+        Gauge.builder("auth.password.hashing.strength", this, encoder -> encoder.strength)
+                .description("Configured BCrypt cost factor")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return execute(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return execute(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    /**
+     * Only parses the stored hash, so it runs on the calling thread.
+     */
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    /**
+     * @return The configured BCrypt cost factor.
+     */
+    public int getStrength() {
+        return strength;
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    private <T> T execute(Supplier<T> hashing) {
+        long submittedAt = System.nanoTime();
+        Future<T> result;
+        try {
+            result = executor.submit(() -> {
+                waitTimer.record(System.nanoTime() - submittedAt, TimeUnit.NANOSECONDS);
+                return hashingTimer.record(hashing);
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new PasswordHashingUnavailableException("Too many concurrent sign-in requests. Please try again shortly.");
+        }
+
+        try {
+            // Blocks the caller: PasswordEncoder has no asynchronous contract
+            return result.get();
+        } catch (InterruptedException e) {
+            result.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for password hashing", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    /**
+     * Measures one hash at the configured strength (best of a few rounds, on the calling thread)
+     * and derives the highest strength whose hash would take at most the target on this machine,
+     * since every cost step doubles the BCrypt work. The result is only logged; the encoder keeps
+     * its configured strength.
+     *
+     * @param targetDuration The longest acceptable time for one hash.
+     * @return The recommended strength, within the BCrypt range 4 to 31.
+     */
+    public int recommendStrength(Duration targetDuration) {
+        long fastestNanos = Long.MAX_VALUE;
+        for (int i = 0; i < CALIBRATION_ROUNDS; i++) {
+            long start = System.nanoTime();
+            delegate.encode("calibration");
+            fastestNanos = Math.min(fastestNanos, System.nanoTime() - start);
+        }
+        int recommended = strength;
+        long expectedNanos = fastestNanos;
+        while (recommended > MIN_STRENGTH && expectedNanos > targetDuration.toNanos()) {
+            recommended--;
+            expectedNanos /= 2;
+        }
+        while (recommended < MAX_STRENGTH && expectedNanos * 2 <= targetDuration.toNanos()) {
+            recommended++;
+            expectedNanos *= 2;
+        }
+        if (recommended == strength) {
+            log.info("BCrypt strength {} takes ~{} ms per hash (target {} ms)",
+                    strength, TimeUnit.NANOSECONDS.toMillis(fastestNanos), targetDuration.toMillis());
+        } else {
+            log.info("BCrypt strength {} takes ~{} ms per hash; strength {} would fit the target of {} ms on this machine",
+                    strength, TimeUnit.NANOSECONDS.toMillis(fastestNanos), recommended, targetDuration.toMillis());
+        }
+        return recommended;
+    }
+}
@@ -1,6 +1,12 @@
 package com.example._Do.config;
 
+import com.example._Do.auth.principal.AuthenticatedUser;
 import com.example._Do.auth.service.JwtBlacklistService;
+import com.example._Do.auth.service.TokenVersionService;
+import com.example._Do.user.entity.User;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import jakarta.annotation.PostConstruct;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -24,8 +30,14 @@ import java.io.IOException;
  * Security filter that intercepts every incoming HTTP request to validate JWT-based authentication.
  * This filter is part of the Spring Security filter chain and ensures that:
  * 1. The request contains a valid 'Bearer' token.
- * 2. The token signature and expiration are verified.
+ * 2. The token signature and expiration are verified; an expired or invalid token leaves the request unauthenticated.
  * 3. The token is not present in the Redis-backed blacklist (revoked tokens).
+ * 4. The token version still matches the user's current version.
+ * The principal is built from the token claims, so no user lookup is needed per request.
+ * Signature and claims are checked in-process. The revocation checks can still leave the node:
+ * a token version cache miss reads the users table (at most once per user and cache period, see
+ * {@link TokenVersionService}), and a blacklist Bloom filter hit queries Redis (revoked tokens
+ * and false positives only, see {@link JwtBlacklistService}).
  */
 @Component
 @RequiredArgsConstructor
@@ -36,9 +48,21 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
     private final UserDetailsService userDetailsService;
+    private final TokenVersionService tokenVersionService;
     @Autowired(required = false)
     private JwtBlacklistService jwtBlacklistService;
 
+    /**
+     * Makes a disabled token revocation visible: logged-out tokens then stay valid until they expire.
+     */
+    @PostConstruct
+    void warnIfRevocationDisabled() {
+        if (jwtBlacklistService == null) {
+            log.warn("Token revocation is disabled (application.security.jwt.revocation.enabled=false): "
+                    + "logged-out access tokens are accepted until they expire");
+        }
+    }
+
     /**
      * Core filtering logic that processes the Authorization header and orchestrates the authentication flow.
      */
@@ -61,13 +85,22 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         // Extract the token (remove Bearer-Prefix)
         final String jwt = authHeader.substring(BEARER_PREFIX.length());
 
-        // Extract username (email) from token
-        // Note: This might throw an exception if token is malformed, handled by Spring Security EntryPoint
-        final String userEmail = jwtService.extractUsername(jwt);
+        // Verify the token once and reuse the claims for every later check
+        final Claims claims;
+        try {
+            claims = jwtService.verifyToken(jwt);
+        } catch (JwtException e) {
+            // Expired or invalid: continue unauthenticated, so protected routes get a 401 from the
+            // entry point and permitAll routes (e.g. /auth/refresh with a stale header) still work
+            log.debug("Ignoring invalid JWT: {}", e.getMessage());
+            filterChain.doFilter(request, response);
+            return;
+        }
+        final String userEmail = claims.getSubject();
 
         // Validate token and set authentication
         if(userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            authenticateUserIfValid(request, jwt, userEmail);
+            authenticateUserIfValid(request, jwt, claims);
         }
 
         filterChain.doFilter(request, response);
@@ -76,9 +109,9 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     /**
      * Creates a standardized Authentication token with the user's authorities and request details.
      */
-    private UsernamePasswordAuthenticationToken createAuthenticationToken(HttpServletRequest request, UserDetails userDetails) {
+    private UsernamePasswordAuthenticationToken createAuthenticationToken(HttpServletRequest request, AuthenticatedUser principal) {
         UsernamePasswordAuthenticationToken authenticationToken = new UsernamePasswordAuthenticationToken(
-                userDetails, null, userDetails.getAuthorities());
+                principal, null, principal.getAuthorities());
         authenticationToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
         return authenticationToken;
     }
@@ -86,8 +119,8 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     /**
      * Verifies if the token has been revoked (e.g., after a logout) by checking the blacklist.
      */
-    private boolean isBlacklisted(String jwt){
-        if (jwtBlacklistService != null && jwtBlacklistService.isTokenBlacklisted(jwt)) {
+    private boolean isBlacklisted(String jwt, Claims claims){
+        if (jwtBlacklistService != null && jwtBlacklistService.isTokenBlacklisted(jwtService.extractTokenId(jwt, claims))) {
             log.warn("Access denied: Token is blacklisted.");
             return true;
         }
@@ -98,11 +131,12 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
      * Orchestrates the validation of the token and updates the SecurityContext.
      * Combines JWT claim validation with a stateful check against the blacklist.
      */
-    private void authenticateUserIfValid(HttpServletRequest request, String jwt, String userEmail) {
-        UserDetails userDetails = userDetailsService.loadUserByUsername(userEmail);
+    private void authenticateUserIfValid(HttpServletRequest request, String jwt, Claims claims) {
+        String userEmail = claims.getSubject();
+        AuthenticatedUser principal = resolvePrincipal(claims);
 
-        if (jwtService.isTokenValid(jwt, userDetails) && !isBlacklisted(jwt)){
-            UsernamePasswordAuthenticationToken authenticationToken = createAuthenticationToken(request, userDetails);
+        if (principal != null && !isBlacklisted(jwt, claims)){
+            UsernamePasswordAuthenticationToken authenticationToken = createAuthenticationToken(request, principal);
             SecurityContextHolder.getContext().setAuthentication(authenticationToken);
             log.debug("User authenticated via JWT: {}", userEmail);
         } else {
@@ -110,6 +144,27 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
     }
 
+    /**
+     * Builds the principal from the token claims and checks the token version.
+     * Tokens issued before the user id and role claims existed fall back to a database lookup.
+     *
+     * @return The principal, or {@code null} if the token is no longer valid for the user.
+     */
+    private AuthenticatedUser resolvePrincipal(Claims claims) {
+        AuthenticatedUser principal = jwtService.extractPrincipal(claims);
+
+        if (principal == null) {
+            UserDetails userDetails = userDetailsService.loadUserByUsername(claims.getSubject());
+            return jwtService.isTokenValid(claims, userDetails) && userDetails instanceof User user
+                    ? AuthenticatedUser.from(user)
+                    : null;
+        }
+
+        return tokenVersionService.isCurrent(principal.id(), jwtService.extractTokenVersion(claims))
+                ? principal
+                : null;
+    }
+
     /**
      * Checks if the Authorization header follows the standard "Bearer <token>" format.
      */
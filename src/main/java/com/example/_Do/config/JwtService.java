@@ -1,6 +1,13 @@
 package com.example._Do.config;
 
+import com.example._Do.auth.principal.AuthenticatedUser;
+import com.example._Do.user.entity.Role;
+import com.example._Do.user.entity.User;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
@@ -9,10 +16,16 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
 /**
@@ -21,15 +34,51 @@ import java.util.function.Function;
  * This class provides methods to generate, validate, and extract information from JWT tokens.
  * Configuration values (secret key, expiration) are injected from the application.yml file.
  * </p>
+ * <p>
+ * The signing key and the parser are built once at startup. Every token is verified in a
+ * single pass by {@link #verifyToken(String)}; the verified claims are kept in a bounded cache
+ * keyed by the SHA-256 hash of the token, so repeated requests with the same token skip the
+ * signature check and JSON parsing until the token itself expires.
+ * </p>
+ * <p>
+ * Tokens carry the user id, role and token version as claims, so an authenticated request
+ * can be served from the token alone (see {@link #extractPrincipal(Claims)}). Every token also
+ * gets a short random id ({@code jti}), so a single token can be revoked by storing only its id.
+ * </p>
  */
 @Service
 public class JwtService {
 
-    @Value("${application.security.jwt.secret-key}")
-    private String secretKey;
+    public static final String CLAIM_USER_ID = "uid";
+    public static final String CLAIM_ROLE = "role";
+    public static final String CLAIM_TOKEN_VERSION = "ver";
+    public static final String CLAIM_SESSION_ID = "sid";
 
-    @Value("${application.security.jwt.expiration}")
-    private long jwtExpiration;
+    private static final SecureRandom TOKEN_ID_RANDOM = new SecureRandom();
+
+    private final long jwtExpiration;
+    private final Key signInKey;
+    private final JwtParser jwtParser;
+    private final Cache<String, Claims> verifiedClaimsCache;
+
+    public JwtService(
+            @Value("${application.security.jwt.secret-key}") String secretKey,
+            @Value("${application.security.jwt.expiration}") long jwtExpiration,
+            @Value("${application.security.jwt.claims-cache.maximum-size:10000}") long claimsCacheMaximumSize
+    ) {
+        this.jwtExpiration = jwtExpiration;
+        this.signInKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secretKey));
+        this.jwtParser = Jwts.parserBuilder()
+                .setSigningKey(signInKey)
+                .build();
+        // A size of 0 disables caching; every call then performs a full verification.
+        this.verifiedClaimsCache = claimsCacheMaximumSize > 0
+                ? Caffeine.newBuilder()
+                        .maximumSize(claimsCacheMaximumSize)
+                        .expireAfter(new ExpireWithToken())
+                        .build()
+                : null;
+    }
 
     /**
      * Extracts the username (subject) from the JWT token.
@@ -50,18 +99,24 @@ public class JwtService {
      * @return The extracted claim value.
      */
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
+        final Claims claims = verifyToken(token);
         return claimsResolver.apply(claims);
     }
 
     /**
-     * Generates a token for the user without extra claims.
+     * Generates an access token for the user with the id, role, token version and session claims.
      *
-     * @param userDetails The user details.
+     * @param user      The user entity.
+     * @param sessionId The refresh token family the token belongs to (see {@code RefreshTokenService}).
      * @return Signed JWT string.
      */
-    public String generateToken(UserDetails userDetails) {
-        return generateToken(new HashMap<>(), userDetails);
+    public String generateToken(User user, String sessionId) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(CLAIM_USER_ID, user.getId());
+        claims.put(CLAIM_ROLE, user.getRole().name());
+        claims.put(CLAIM_TOKEN_VERSION, user.getTokenVersion());
+        claims.put(CLAIM_SESSION_ID, sessionId);
+        return generateToken(claims, user);
     }
 
     /**
@@ -93,13 +148,39 @@ public class JwtService {
     ) {
         return Jwts.builder()
                 .setClaims(extraClaims)
+                .setId(newTokenId())
                 .setSubject(userDetails.getUsername())
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSignInKey(), SignatureAlgorithm.HS256)
+                .signWith(signInKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
+    /**
+     * Verifies the signature and expiration of the token and returns its claims.
+     * <p>
+     * This is the only place where a token is parsed. Successful results are cached until
+     * the token expires, so the same token is never verified twice while it is cached.
+     * </p>
+     *
+     * @param token The JWT token.
+     * @return The verified claims.
+     * @throws io.jsonwebtoken.JwtException If the token is malformed, tampered with or expired.
+     */
+    public Claims verifyToken(String token) {
+        if (verifiedClaimsCache == null) {
+            return parseClaims(token);
+        }
+        String tokenHash = hash(token);
+        Claims cached = verifiedClaimsCache.getIfPresent(tokenHash);
+        if (cached != null && !isExpired(cached)) {
+            return cached;
+        }
+        Claims claims = parseClaims(token);
+        verifiedClaimsCache.put(tokenHash, claims);
+        return claims;
+    }
+
     /**
      * Validates the token by checking the username and expiration date.
      *
@@ -108,35 +189,124 @@ public class JwtService {
      * @return True if token belongs to the user and is not expired, False otherwise.
      */
     public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
+        return isTokenValid(verifyToken(token), userDetails);
+    }
+
+    /**
+     * Validates already verified claims against the given user.
+     *
+     * @param claims      Claims returned by {@link #verifyToken(String)}.
+     * @param userDetails The user details from the database.
+     * @return True if the claims belong to the user and are not expired, False otherwise.
+     */
+    public boolean isTokenValid(Claims claims, UserDetails userDetails) {
         // CRITICAL CHECK: Token username matches AND token is not expired
-        return (username.equals(userDetails.getUsername())) && !isTokenExpired(token);
+        return userDetails.getUsername().equals(claims.getSubject()) && !isExpired(claims);
     }
 
     /**
-     * Checks if the token has expired.
+     * Builds the security principal from verified claims without touching the database.
      *
-     * @param token The JWT token.
-     * @return True if expired, False otherwise.
+     * @param claims Claims returned by {@link #verifyToken(String)}.
+     * @return The principal, or {@code null} for tokens issued without the user id and role claims.
+     */
+    public AuthenticatedUser extractPrincipal(Claims claims) {
+        Long userId = claims.get(CLAIM_USER_ID, Long.class);
+        String role = claims.get(CLAIM_ROLE, String.class);
+        if (userId == null || role == null) {
+            return null;
+        }
+        return new AuthenticatedUser(userId, claims.getSubject(), Role.valueOf(role));
+    }
+
+    /**
+     * Extracts the token version the token was issued with.
+     *
+     * @param claims Claims returned by {@link #verifyToken(String)}.
+     * @return The token version, or {@code null} if the claim is missing.
      */
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    public Integer extractTokenVersion(Claims claims) {
+        return claims.get(CLAIM_TOKEN_VERSION, Integer.class);
+    }
+
+    /**
+     * Returns the id under which the token is revoked.
+     *
+     * @param token  The JWT token.
+     * @param claims Claims returned by {@link #verifyToken(String)}.
+     * @return The {@code jti} claim, or the token itself for tokens issued before the claim existed.
+     */
+    public String extractTokenId(String token, Claims claims) {
+        String tokenId = claims.getId();
+        return tokenId != null ? tokenId : token;
+    }
+
+    /**
+     * Extracts the session (refresh token family) the token was issued for.
+     *
+     * @param claims Claims returned by {@link #verifyToken(String)}.
+     * @return The session id, or {@code null} for tokens issued before sessions existed.
+     */
+    public String extractSessionId(Claims claims) {
+        return claims.get(CLAIM_SESSION_ID, String.class);
     }
 
     public Date extractExpiration(String token) {
         return extractClaim(token, Claims::getExpiration);
     }
 
-    private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSignInKey())
-                .build()
+    private boolean isExpired(Claims claims) {
+        return claims.getExpiration().before(new Date());
+    }
+
+    private Claims parseClaims(String token) {
+        return jwtParser
                 .parseClaimsJws(token)
                 .getBody();
     }
 
-    private Key getSignInKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secretKey);
-        return Keys.hmacShaKeyFor(keyBytes);
+    /**
+     * Random 128-bit id (16 bytes from {@link SecureRandom}), base64url encoded (22 characters).
+     */
+    private static String newTokenId() {
+        byte[] id = new byte[16];
+        TOKEN_ID_RANDOM.nextBytes(id);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(id);
+    }
+
+    /**
+     * Hashes the token so the cache never holds the raw bearer credential and a forged token
+     * (different signature) can never collide with a verified one.
+     */
+    private static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hashed = digest.digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hashed);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Expires every cache entry at the same instant as the token it was created from.
+     */
+    private static final class ExpireWithToken implements Expiry<String, Claims> {
+
+        @Override
+        public long expireAfterCreate(String key, Claims claims, long currentTime) {
+            long remainingMillis = claims.getExpiration().getTime() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(remainingMillis, 0));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Claims claims, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, claims, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,59 @@
+package com.example._Do.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Rate limit policies ({@code application.rate-limit.policies}).
+ * <p>
+ * Every request is checked against each policy whose path patterns match it, in the declared order.
+ * The limits of a policy can be changed at runtime via the {@code ratelimits} actuator endpoint;
+ * the path patterns and the key are fixed at startup.
+ * </p>
+ *
+ * @param policies The policies, in evaluation order.
+ */
+@ConfigurationProperties(prefix = "application.rate-limit")
+public record RateLimitProperties(
+        @DefaultValue List<Policy> policies
+) {
+
+    /**
+     * What a policy counts requests by.
+     */
+    public enum KeyType {
+        /** The client IP address ({@code X-Forwarded-For}, else the remote address). */
+        IP,
+        /** The authenticated user id; anonymous requests are counted by IP. */
+        USER,
+        /** The API key header; requests without one are counted by IP. */
+        API_KEY
+    }
+
+    /**
+     * One rate limit.
+     *
+     * @param name          Unique name, part of the bucket keys in Redis.
+     * @param paths         Ant-style path patterns the policy applies to (e.g. {@code /api/v1/tasks/**}).
+     * @param key           What requests are counted by.
+     * @param apiKeyHeader  The header holding the API key (for {@link KeyType#API_KEY}).
+     * @param capacity      Maximum number of requests in a burst.
+     * @param refillPeriod  Time in which {@code capacity} tokens are refilled (greedily).
+     * @param bytesPerToken If set, a request costs one token per started {@code bytesPerToken} of its
+     *                      body (at least one, at most {@code capacity}) instead of one token.
+     */
+    public record Policy(
+            String name,
+            List<String> paths,
+            @DefaultValue("ip") KeyType key,
+            @DefaultValue("X-API-Key") String apiKeyHeader,
+            long capacity,
+            Duration refillPeriod,
+            DataSize bytesPerToken
+    ) {
+    }
+}
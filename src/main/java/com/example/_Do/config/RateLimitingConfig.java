@@ -12,6 +12,7 @@ import io.lettuce.core.codec.RedisCodec;
 import io.lettuce.core.codec.StringCodec;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import java.time.Duration;
@@ -21,9 +22,10 @@ import java.time.Duration;
  * Configuration class for Distributed Rate Limiting using Bucket4j and Redis.
  * This configuration ensures that rate limit buckets are synchronized across
  * multiple application instances (horizontally scaled) by using Redis as the
- * centralized state store.
+ * centralized state store. The limits are defined as {@link RateLimitProperties policies}.
  */
 @Configuration
+@EnableConfigurationProperties(RateLimitProperties.class)
 @ConditionalOnProperty(name = "application.rate-limit.enabled", havingValue = "true", matchIfMissing = true)
 public class RateLimitingConfig {
 
@@ -0,0 +1,59 @@
+package com.example._Do.config;
+
+import com.example._Do.auth.interceptor.RateLimitPolicies;
+import com.example._Do.auth.service.JwtBlacklistService;
+import com.example._Do.user.cache.UserInvalidationService;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+/**
+ * Redis pub/sub subscriptions used to keep the in-process caches of all nodes consistent.
+ * <p>
+ * Each channel is subscribed when its own feature is enabled: user invalidation
+ * ({@code application.security.user-cache.invalidation.enabled}), the token blacklist
+ * ({@code JwtBlacklistService}) and the rate limit policies ({@code RateLimitPolicies}).
+ * Disabling rate limiting does not affect the other two.
+ * </p>
+ */
+@Configuration
+public class RedisPubSubConfig {
+
+    /**
+     * Listener container subscribed to the channels of the enabled features.
+     *
+     * @param connectionFactory       The Redis connection factory (Spring Boot auto-configuration).
+     * @param userInvalidationService Evicts users from this node's caches.
+     * @param userInvalidationEnabled Whether user changes are exchanged between nodes.
+     * @param jwtBlacklistService     Adds blacklisted tokens to this node's blacklist filter
+     *                                (if {@code application.security.jwt.revocation.enabled}).
+     * @param rateLimitPolicies       Applies rate limits changed on another node (if enabled).
+     * @return The running listener container.
+     */
+    @Bean
+    @ConditionalOnExpression("${application.security.user-cache.invalidation.enabled:true} " +
+            "or ${application.security.jwt.revocation.enabled:true} or ${application.rate-limit.enabled:true}")
+    public RedisMessageListenerContainer redisMessageListenerContainer(
+            RedisConnectionFactory connectionFactory,
+            UserInvalidationService userInvalidationService,
+            @Value("${application.security.user-cache.invalidation.enabled:true}") boolean userInvalidationEnabled,
+            ObjectProvider<JwtBlacklistService> jwtBlacklistService,
+            ObjectProvider<RateLimitPolicies> rateLimitPolicies
+    ) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        if (userInvalidationEnabled) {
+            container.addMessageListener(userInvalidationService, new ChannelTopic(UserInvalidationService.CHANNEL));
+        }
+        jwtBlacklistService.ifAvailable(service ->
+                container.addMessageListener(service, new ChannelTopic(JwtBlacklistService.CHANNEL)));
+        rateLimitPolicies.ifAvailable(policies ->
+                container.addMessageListener(policies, new ChannelTopic(RateLimitPolicies.CHANNEL)));
+        return container;
+    }
+}
@@ -1,14 +1,20 @@
 package com.example._Do.config;
 
+import com.example._Do.auth.interceptor.RateLimitPolicies;
+import com.example._Do.auth.interceptor.RateLimitPolicy;
 import com.example._Do.auth.interceptor.RateLimitingInterceptor;
 import lombok.RequiredArgsConstructor;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.util.pattern.PathPattern;
+
+import java.util.List;
 
 /**
- * Configuration to register the RateLimitingInterceptor into the Spring MVC pipeline.
+ * Configuration to register the RateLimitingInterceptor into the Spring MVC pipeline,
+ * for the paths of all configured rate limit policies.
  */
 @Configuration
 @RequiredArgsConstructor
@@ -16,11 +22,20 @@ import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 public class WebMvcConfig implements WebMvcConfigurer {
 
     private final RateLimitingInterceptor rateLimitingInterceptor;
+    private final RateLimitPolicies rateLimitPolicies;
 
     @Override
     public void addInterceptors(InterceptorRegistry registry) {
-        registry.addInterceptor(rateLimitingInterceptor)
-                .addPathPatterns("/api/v1/auth/**");
+        List<String> paths = rateLimitPolicies.all().stream()
+                .map(RateLimitPolicy::patterns)
+                .flatMap(List::stream)
+                .map(PathPattern::getPatternString)
+                .distinct()
+                .toList();
+        if (!paths.isEmpty()) {
+            registry.addInterceptor(rateLimitingInterceptor)
+                    .addPathPatterns(paths);
+        }
     }
 
 }
@@ -1,10 +1,18 @@
 package com.example._Do.exception;
 
+import com.example._Do.task.exception.AiServiceUnavailableException;
+import com.example._Do.task.exception.InvalidCursorException;
+import com.example._Do.task.exception.InvalidPageException;
+import com.example._Do.task.exception.InvalidTaskBatchException;
+import com.example._Do.task.exception.InvalidTaskFilterException;
+import com.example._Do.task.exception.InvalidTaskPatchException;
 import com.example._Do.user.exception.InvalidCredentialsException;
+import com.example._Do.user.exception.InvalidRefreshTokenException;
 import com.example._Do.user.exception.UserAlreadyExistsException;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -116,10 +124,24 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(error, HttpStatus.UNAUTHORIZED);
     }
 
+    /**
+     * Handles cases where a refresh token is unknown, expired, reused or revoked.
+     * @param ex      The captured {@link InvalidRefreshTokenException}.
+     * @param request The HTTP request.
+     * @return A {@link ResponseEntity} containing the structured 401 error details.
+     */
+    @ExceptionHandler(InvalidRefreshTokenException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidRefreshToken(InvalidRefreshTokenException ex, HttpServletRequest request) {
+        ErrorResponse error = errorResponseMapper.mapToErrorResponse(ex, HttpStatus.UNAUTHORIZED, request);
+
+        return new ResponseEntity<>(error, HttpStatus.UNAUTHORIZED);
+    }
+
     /**
      * Handles cases where the rate limit is exceeded.
      * <p>
-     * Returns a 429 Too Many Requests status code with a structured error response.
+     * Returns a 429 Too Many Requests status code with a structured error response and, if the
+     * wait time is known, a {@code Retry-After} header with the seconds until the next request is allowed.
      * </p>
      *
      * @param ex      The captured {@link RateLimitExceededException}.
@@ -129,6 +151,160 @@ public class GlobalExceptionHandler {
     @ExceptionHandler(RateLimitExceededException.class)
     public ResponseEntity<ErrorResponse> handleRateLimitExceeded(RateLimitExceededException ex, HttpServletRequest request) {
         ErrorResponse error = errorResponseMapper.mapToErrorResponse(ex, HttpStatus.TOO_MANY_REQUESTS, request);
-        return new ResponseEntity<>(error, HttpStatus.TOO_MANY_REQUESTS);
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS);
+        if (ex.getRetryAfterSeconds() > 0) {
+            response.header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()));
+        }
+        return response.body(error);
+    }
+
+    /**
+     * Handles requests rejected because their rate limit could not be checked (fail-closed mode).
+     * <p>
+     * Returns a 503 Service Unavailable status code with a {@code Retry-After} header.
+     * </p>
+     *
+     * @param ex      The captured {@link RateLimitUnavailableException}.
+     * @param request The HTTP request.
+     * @return A {@link ResponseEntity} containing the structured 503 error details.
+     */
+    @ExceptionHandler(RateLimitUnavailableException.class)
+    public ResponseEntity<ErrorResponse> handleRateLimitUnavailable(RateLimitUnavailableException ex, HttpServletRequest request) {
+        ErrorResponse error = errorResponseMapper.mapToErrorResponse(ex, HttpStatus.SERVICE_UNAVAILABLE, request);
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(error);
+    }
+
+    /**
+     * Handles sign-in and registration requests rejected because password hashing is saturated.
+     * <p>
+     * Returns a 503 Service Unavailable status code with a {@code Retry-After} header.
+     * </p>
+     *
+     * @param ex      The captured {@link PasswordHashingUnavailableException}.
+     * @param request The HTTP request.
+     * @return A {@link ResponseEntity} containing the structured 503 error details.
+     */
+    @ExceptionHandler(PasswordHashingUnavailableException.class)
+    public ResponseEntity<ErrorResponse> handlePasswordHashingUnavailable(PasswordHashingUnavailableException ex, HttpServletRequest request) {
+        ErrorResponse error = errorResponseMapper.mapToErrorResponse(ex, HttpStatus.SERVICE_UNAVAILABLE, request);
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(error);
+    }
+
+    /**
+     * Handles voice task requests rejected because every Gemini slot is busy.
+     * <p>
+     * Returns a 503 Service Unavailable status code with a {@code Retry-After} header.
+     * </p>
+     *
+     * @param ex      The captured {@link AiServiceUnavailableException}.
+     * @param request The HTTP request.
+     * @return A {@link ResponseEntity} containing the structured 503 error details.
+     */
+    @ExceptionHandler(AiServiceUnavailableException.class)
+    public ResponseEntity<ErrorResponse> handleAiServiceUnavailable(AiServiceUnavailableException ex, HttpServletRequest request) {
+        ErrorResponse error = errorResponseMapper.mapToErrorResponse(ex, HttpStatus.SERVICE_UNAVAILABLE, request);
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(error);
+    }
+
+    /**
+     * Handles invalid, tampered or foreign pagination cursors.
+     * <p>
+     * Returns a 400 Bad Request status code.
+     * </p>
+     *
+     * @param ex      The captured {@link InvalidCursorException}.
+     * @param request The HTTP request.
+     * @return A {@link ResponseEntity} containing the structured 400 error details.
+     */
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidCursor(InvalidCursorException ex, HttpServletRequest request) {
+        ErrorResponse error = errorResponseMapper.mapToErrorResponse(ex, HttpStatus.BAD_REQUEST, request);
+        return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
+    }
+
+    /**
+     * Handles page numbers whose offset cannot be queried (page x size beyond the int range).
+     * <p>
+     * Returns a 400 Bad Request status code.
+     * </p>
+     *
+     * @param ex      The captured {@link InvalidPageException}.
+     * @param request The HTTP request.
+     * @return A {@link ResponseEntity} containing the structured 400 error details.
+     */
+    @ExceptionHandler(InvalidPageException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidPage(InvalidPageException ex, HttpServletRequest request) {
+        ErrorResponse error = errorResponseMapper.mapToErrorResponse(ex, HttpStatus.BAD_REQUEST, request);
+        return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
+    }
+
+    /**
+     * Handles batch requests rejected as a whole (too many items, duplicate IDs).
+     * <p>
+     * Returns a 400 Bad Request status code.
+     * </p>
+     *
+     * @param ex      The captured {@link InvalidTaskBatchException}.
+     * @param request The HTTP request.
+     * @return A {@link ResponseEntity} containing the structured 400 error details.
+     */
+    @ExceptionHandler(InvalidTaskBatchException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidTaskBatch(InvalidTaskBatchException ex, HttpServletRequest request) {
+        ErrorResponse error = errorResponseMapper.mapToErrorResponse(ex, HttpStatus.BAD_REQUEST, request);
+        return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
+    }
+
+    /**
+     * Handles invalid merge patch documents (unknown members, invalid values).
+     * <p>
+     * Returns a 400 Bad Request status code.
+     * </p>
+     *
+     * @param ex      The captured {@link InvalidTaskPatchException}.
+     * @param request The HTTP request.
+     * @return A {@link ResponseEntity} containing the structured 400 error details.
+     */
+    @ExceptionHandler(InvalidTaskPatchException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidTaskPatch(InvalidTaskPatchException ex, HttpServletRequest request) {
+        ErrorResponse error = errorResponseMapper.mapToErrorResponse(ex, HttpStatus.BAD_REQUEST, request);
+        return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
+    }
+
+    /**
+     * Handles task listing filters that can never match together.
+     * <p>
+     * Returns a 400 Bad Request status code.
+     * </p>
+     *
+     * @param ex      The captured {@link InvalidTaskFilterException}.
+     * @param request The HTTP request.
+     * @return A {@link ResponseEntity} containing the structured 400 error details.
+     */
+    @ExceptionHandler(InvalidTaskFilterException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidTaskFilter(InvalidTaskFilterException ex, HttpServletRequest request) {
+        ErrorResponse error = errorResponseMapper.mapToErrorResponse(ex, HttpStatus.BAD_REQUEST, request);
+        return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
+    }
+
+    /**
+     * Handles conditional writes whose If-Match no longer matches the resource.
+     * <p>
+     * Returns a 412 Precondition Failed status code.
+     * </p>
+     *
+     * @param ex      The captured {@link PreconditionFailedException}.
+     * @param request The HTTP request.
+     * @return A {@link ResponseEntity} containing the structured 412 error details.
+     */
+    @ExceptionHandler(PreconditionFailedException.class)
+    public ResponseEntity<ErrorResponse> handlePreconditionFailed(PreconditionFailedException ex, HttpServletRequest request) {
+        ErrorResponse error = errorResponseMapper.mapToErrorResponse(ex, HttpStatus.PRECONDITION_FAILED, request);
+        return new ResponseEntity<>(error, HttpStatus.PRECONDITION_FAILED);
     }
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package com.example._Do.exception;
 
+import lombok.Getter;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.ResponseStatus;
 
@@ -7,9 +8,21 @@ import org.springframework.web.bind.annotation.ResponseStatus;
  * Exception thrown when a client exceeds the allowed number of requests
  * within a specific time window.
  */
+@Getter
 @ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
 public class RateLimitExceededException extends RuntimeException{
+
+    /**
+     * Seconds until the client may retry, or 0 if unknown.
+     */
+    private final long retryAfterSeconds;
+
     public RateLimitExceededException(String message){
+        this(message, 0);
+    }
+
+    public RateLimitExceededException(String message, long retryAfterSeconds){
         super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
     }
 }
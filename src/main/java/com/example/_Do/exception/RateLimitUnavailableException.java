@@ -0,0 +1,15 @@
+package com.example._Do.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exception thrown when the rate limit of a request cannot be checked in time (Redis slow or
+ * unavailable) and the rate limiter is configured to fail closed.
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class RateLimitUnavailableException extends RuntimeException {
+    public RateLimitUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,227 @@
+package com.example._Do.task.cache;
+
+import com.example._Do.task.dto.TaskFilter;
+import com.example._Do.task.dto.TaskResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Redis read-through cache for single tasks and first pages of task listings.
+ * <p>
+ * Entries are stored under {@code task_cache:{userId}:<shape>} as {@code <generation>:<json>}. Every
+ * mutation increments the user's generation counter once its transaction has committed, so all entries
+ * of the user become stale with a single INCR, whatever their number; a stale entry is treated as a miss
+ * and overwritten by the next load, or expires with its TTL. The generation and the entry are read with
+ * one MGET, and the user id is a hash tag so both keys live in the same cluster slot.
+ * </p>
+ * <p>
+ * Listings whose result changes with the clock ({@code overdue=true}) are never cached: no write
+ * invalidates them when a task passes its due date.
+ * </p>
+ * <p>
+ * Redis failures are treated as misses: the cache never fails a read, and {@code spring.data.redis.timeout}
+ * bounds how long a slow Redis can delay it. Lookups are counted in
+ * {@code tasks.cache.requests}, tagged by {@code type} (task, page) and {@code result} (hit, miss, error).
+ * With {@code application.tasks.cache.enabled=false} every read calls its loader and Redis is never used.
+ * </p>
+ */
+@Component
+@Slf4j
+public class TaskResponseCache {
+
+    private static final String KEY_PREFIX = "task_cache:{";
+    private static final String METRIC_NAME = "tasks.cache.requests";
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final ObjectMapper objectMapper;
+    private final Duration ttl;
+    private final boolean enabled;
+    private final Metrics taskMetrics;
+    private final Metrics pageMetrics;
+
+    public TaskResponseCache(
+            StringRedisTemplate stringRedisTemplate,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${application.tasks.cache.ttl:10m}") Duration ttl,
+            @Value("${application.tasks.cache.enabled:true}") boolean enabled
+    ) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.objectMapper = objectMapper;
+        this.ttl = ttl;
+        this.enabled = enabled;
+        this.taskMetrics = new Metrics(meterRegistry, "task");
+        this.pageMetrics = new Metrics(meterRegistry, "page");
+    }
+
+    /**
+     * Returns a cached task, or loads and caches it.
+     *
+     * @param userId The ID of the owner.
+     * @param taskId The ID of the task.
+     * @param loader Loads the task on a miss (exceptions, e.g. not found, are not cached).
+     * @return The task.
+     */
+    public TaskResponse getTask(Long userId, Long taskId, Supplier<TaskResponse> loader) {
+        return get(userId, ":task:" + taskId, TaskResponse.class, taskMetrics, loader);
+    }
+
+    /**
+     * Returns a cached first page (or slice) of tasks, or loads and caches it.
+     * Only the first page is cached; other pages and overdue listings always call the loader.
+     *
+     * @param userId    The ID of the owner.
+     * @param filter    The filters of the listing.
+     * @param pageable  Page number, size and sort.
+     * @param withCount Whether the listing is a {@link Page} with the total count.
+     * @param loader    Loads the listing on a miss.
+     * @return The page (withCount) or slice of tasks.
+     */
+    public Slice<TaskResponse> getFirstPage(Long userId, TaskFilter filter, Pageable pageable, boolean withCount,
+                                            Supplier<? extends Slice<TaskResponse>> loader) {
+        if (pageable.getPageNumber() != 0 || filter.isOverdue()) {
+            return loader.get();
+        }
+        String shape = ":page:" + (withCount ? "count" : "slice") + ":" + pageable.getPageSize()
+                + ":" + pageable.getSort() + ":" + shape(filter);
+        CachedPage cached = get(userId, shape, CachedPage.class, pageMetrics, () -> CachedPage.of(loader.get()));
+        return cached.toSlice(pageable, withCount);
+    }
+
+    /**
+     * Invalidates every cached entry of a user once the current transaction has committed
+     * (immediately without a transaction). Entries read by concurrent requests before the
+     * commit are written under the old generation and never served.
+     *
+     * @param userId The ID of the user.
+     */
+    public void invalidateAfterCommit(Long userId) {
+        if (!enabled) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            invalidate(userId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                invalidate(userId);
+            }
+        });
+    }
+
+    private void invalidate(Long userId) {
+        try {
+            stringRedisTemplate.opsForValue().increment(generationKey(userId));
+        } catch (DataAccessException e) {
+            // Entries of the user stay readable until their TTL expires
+            log.warn("Could not invalidate cached tasks of user {}: {}", userId, e.getMessage());
+        }
+    }
+
+    private <T> T get(Long userId, String shape, Class<T> type, Metrics metrics, Supplier<T> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+        String entryKey = KEY_PREFIX + userId + "}" + shape;
+        String generation;
+        try {
+            List<String> values = stringRedisTemplate.opsForValue().multiGet(List.of(generationKey(userId), entryKey));
+            generation = values == null || values.get(0) == null ? "0" : values.get(0);
+            String cached = values == null ? null : values.get(1);
+            // Entries written under an older generation were invalidated
+            if (cached != null && cached.startsWith(generation + ":")) {
+                T value = objectMapper.readValue(cached.substring(generation.length() + 1), type);
+                metrics.hits.increment();
+                return value;
+            }
+        } catch (DataAccessException | JsonProcessingException e) {
+            log.debug("Task cache lookup failed for user {}: {}", userId, e.getMessage());
+            metrics.errors.increment();
+            return loader.get();
+        }
+
+        metrics.misses.increment();
+        T value = loader.get();
+        try {
+            stringRedisTemplate.opsForValue().set(entryKey, generation + ":" + objectMapper.writeValueAsString(value), ttl);
+        } catch (DataAccessException | JsonProcessingException e) {
+            log.debug("Task cache write failed for user {}: {}", userId, e.getMessage());
+        }
+        return value;
+    }
+
+    private static String generationKey(Long userId) {
+        return KEY_PREFIX + userId + "}:gen";
+    }
+
+    /**
+     * Canonical form of a filter, so equal filters share an entry whatever the parameter order.
+     * The due date bounds are absolute timestamps chosen by the client, so they are part of the key
+     * like any other filter value.
+     */
+    private static String shape(TaskFilter filter) {
+        String priorities = filter.hasPriorities()
+                ? filter.priority().stream().map(Enum::name).sorted().collect(Collectors.joining(","))
+                : "";
+        return filter.completed() + "|" + priorities + "|" + filter.dueBefore() + "|" + filter.dueAfter()
+                + "|" + filter.isOverdue() + "|" + filter.isNoDueDate();
+    }
+
+    /**
+     * Serialized form of a first page; rebuilt into a {@link Page} or {@link Slice} on a hit.
+     */
+    record CachedPage(List<TaskResponse> content, long totalElements, boolean hasNext) {
+
+        static CachedPage of(Slice<TaskResponse> slice) {
+            long total = slice instanceof Page<TaskResponse> page ? page.getTotalElements() : -1;
+            return new CachedPage(slice.getContent(), total, slice.hasNext());
+        }
+
+        Slice<TaskResponse> toSlice(Pageable pageable, boolean withCount) {
+            return withCount
+                    ? new PageImpl<>(content, pageable, totalElements)
+                    : new SliceImpl<>(content, pageable, hasNext);
+        }
+    }
+
+    private static final class Metrics {
+        private final Counter hits;
+        private final Counter misses;
+        private final Counter errors;
+
+        private Metrics(MeterRegistry meterRegistry, String type) {
+            this.hits = counter(meterRegistry, type, "hit");
+            this.misses = counter(meterRegistry, type, "miss");
+            this.errors = counter(meterRegistry, type, "error");
+        }
+
+        private static Counter counter(MeterRegistry meterRegistry, String type, String result) {
+            return Counter.builder(METRIC_NAME)
+                    .description("Task cache lookups")
+                    .tag("type", type)
+                    .tag("result", result)
+                    .register(meterRegistry);
+        }
+    }
+}
@@ -1,20 +1,34 @@
 package com.example._Do.task.controller;
 
 import com.example._Do.task.dto.AiTaskResponse;
+import com.example._Do.task.dto.TaskBatchCreateRequest;
+import com.example._Do.task.dto.TaskBatchDeleteRequest;
+import com.example._Do.task.dto.TaskBatchResponse;
+import com.example._Do.task.dto.TaskBatchUpdateRequest;
+import com.example._Do.task.dto.TaskFilter;
+import com.example._Do.task.dto.TaskPatch;
 import com.example._Do.task.dto.TaskRequest;
 import com.example._Do.task.dto.TaskResponse;
+import com.example._Do.task.dto.TaskSliceResponse;
+import com.example._Do.task.dto.TaskStatsResponse;
+import com.example._Do.task.pagination.TaskCursorSort;
 import com.example._Do.task.service.AiTaskService;
 import com.example._Do.task.service.TaskService;
+import com.fasterxml.jackson.databind.JsonNode;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
@@ -36,6 +50,8 @@ import java.util.List;
 @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
 public class TaskController {
 
+    private static final int MAX_CURSOR_PAGE_SIZE = 100;
+
     private final TaskService taskService;
     private final AiTaskService aiTaskService;
 
@@ -64,19 +80,99 @@ public class TaskController {
      * Retrieves tasks belonging to the authenticated user with pagination.
      *
      * @param pageable Pagination information (page number, size, sort).
-     * @return A page of tasks owned by the user.
+     * @param count    Whether to compute the total number of tasks (defaults to true for backward compatibility).
+     * @param filter   Optional filters (completed, priority, dueBefore, dueAfter, overdue, noDueDate).
+     * @return A page of tasks owned by the user (a slice without totals when count=false).
      */
     @GetMapping
     @Operation(
             summary = "Get my tasks (Paged)",
             description = "Retrieves a paged list of tasks belonging to the authenticated user. " +
-                    "You can filter by page, size, and sort. Example: ?page=0&size=5&sort=createdAt,desc"
+                    "You can filter by page, size, and sort. Example: ?page=0&size=5&sort=createdAt,desc. " +
+                    "Pass count=false to skip the total count query. " +
+                    "Filters can be combined: ?completed=false&priority=HIGH&priority=MEDIUM&dueBefore=2025-12-31T00:00:00"
     )
     @ApiResponse(responseCode = "200", description = "Page of tasks retrieved successfully")
-    public ResponseEntity<Page<TaskResponse>> getAllTasks(
-            @PageableDefault(size = 10, sort = "createdAt", direction = Sort.Direction.DESC) Pageable pageable
+    @ApiResponse(responseCode = "400", description = "Contradictory filters or page out of range")
+    public ResponseEntity<Slice<TaskResponse>> getAllTasks(
+            @PageableDefault(size = 10, sort = "createdAt", direction = Sort.Direction.DESC) Pageable pageable,
+            @RequestParam(defaultValue = "true") boolean count,
+            @ParameterObject TaskFilter filter
+    ) {
+        Slice<TaskResponse> tasks = count
+                ? taskService.getAllTasks(filter, pageable)
+                : taskService.getTaskSlice(filter, pageable);
+        return ResponseEntity.ok().eTag(TaskETags.forSlice(tasks)).body(tasks);
+    }
+
+    /**
+     * Searches the authenticated user's tasks by title and description.
+     *
+     * @param q        The search text; every word is matched as a prefix.
+     * @param pageable Page number and size (results are ordered by relevance).
+     * @return A slice of matching tasks, best matches first.
+     */
+    @GetMapping("/search")
+    @Operation(
+            summary = "Search my tasks",
+            description = "Full-text search over title and description. Every word must match the start of a word; " +
+                    "title matches rank higher. Example: ?q=rep jav&page=0&size=20"
+    )
+    @ApiResponse(responseCode = "200", description = "Matching tasks retrieved successfully")
+    @ApiResponse(responseCode = "400", description = "Page out of range")
+    public ResponseEntity<Slice<TaskResponse>> searchTasks(
+            @RequestParam String q,
+            @PageableDefault(size = 20) Pageable pageable
+    ) {
+        Slice<TaskResponse> tasks = taskService.searchTasks(q, pageable);
+        return ResponseEntity.ok().eTag(TaskETags.forSlice(tasks)).body(tasks);
+    }
+
+    /**
+     * Retrieves tasks belonging to the authenticated user with cursor (keyset) pagination.
+     *
+     * @param sort   The sort order.
+     * @param cursor The nextCursor of the previous slice; omit for the first slice.
+     * @param size   The slice size (1-100).
+     * @param count  Whether to include the total number of matching tasks.
+     * @param filter Optional filters; keep them unchanged while following the cursors.
+     * @return A slice of tasks with the cursor for the next slice.
+     */
+    @GetMapping("/cursor")
+    @Operation(
+            summary = "Get my tasks (Cursor)",
+            description = "Retrieves tasks using keyset pagination, which stays fast for deep pages. " +
+                    "Pass the returned nextCursor as 'cursor' to get the next slice. " +
+                    "Accepts the same filters as the paged listing. Example: ?sort=DUE_DATE_ASC&size=20&overdue=true"
+    )
+    @ApiResponse(responseCode = "200", description = "Slice of tasks retrieved successfully")
+    @ApiResponse(responseCode = "400", description = "Invalid or tampered cursor, or contradictory filters")
+    public ResponseEntity<TaskSliceResponse> getTasksByCursor(
+            @RequestParam(defaultValue = "CREATED_AT_DESC") TaskCursorSort sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "false") boolean count,
+            @ParameterObject TaskFilter filter
     ) {
-        return ResponseEntity.ok(taskService.getAllTasks(pageable));
+        int boundedSize = Math.clamp(size, 1, MAX_CURSOR_PAGE_SIZE);
+        TaskSliceResponse tasks = taskService.getTasksByCursor(sort, cursor, boundedSize, count, filter);
+        return ResponseEntity.ok().eTag(TaskETags.forCursorSlice(tasks)).body(tasks);
+    }
+
+    /**
+     * Retrieves the task counts of the authenticated user.
+     *
+     * @return Open, completed and overdue counts, in total and per priority.
+     */
+    @GetMapping("/stats")
+    @Operation(
+            summary = "Get my task statistics",
+            description = "Returns the number of open, completed and overdue tasks, in total and per priority. " +
+                    "Served from per-user counters, so the cost does not grow with the number of tasks."
+    )
+    @ApiResponse(responseCode = "200", description = "Statistics retrieved successfully")
+    public ResponseEntity<TaskStatsResponse> getTaskStats() {
+        return ResponseEntity.ok(taskService.getTaskStats());
     }
 
     /**
@@ -88,14 +184,16 @@ public class TaskController {
     @GetMapping("/{id}")
     @Operation(
             summary = "Get task by ID",
-            description = "Retrieves a specific task. Throws 404 if not found or not owned by user."
+            description = "Retrieves a specific task. Throws 404 if not found or not owned by user. " +
+                    "The ETag can be sent back as If-None-Match (304 if unchanged) or If-Match on writes."
     )
     @ApiResponse(responseCode = "200", description = "Task found")
+    @ApiResponse(responseCode = "304", description = "Task unchanged since the ETag in If-None-Match")
     @ApiResponse(responseCode = "404", description = "Task not found or access denied")
     public ResponseEntity<TaskResponse> getTaskById(
             @PathVariable Long id
     ) {
-        return ResponseEntity.ok(taskService.getTaskById(id));
+        return withETag(taskService.getTaskById(id));
     }
 
     /**
@@ -112,11 +210,38 @@ public class TaskController {
     )
     @ApiResponse(responseCode = "200", description = "Task updated successfully")
     @ApiResponse(responseCode = "404", description = "Task not found")
+    @ApiResponse(responseCode = "412", description = "Task was modified since the ETag in If-Match")
     public ResponseEntity<TaskResponse> updateTask(
             @PathVariable Long id,
-            @Valid @RequestBody TaskRequest request
+            @Valid @RequestBody TaskRequest request,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
+    ) {
+        return withETag(taskService.updateTask(id, request, TaskETags.expectedVersion(ifMatch)));
+    }
+
+    /**
+     * Partially updates a task with a JSON Merge Patch document.
+     *
+     * @param id    The ID of the task to update.
+     * @param patch The merge patch, e.g. {@code {"completed": true}}.
+     * @return The updated task object.
+     */
+    @PatchMapping(value = "/{id}", consumes = {"application/merge-patch+json", MediaType.APPLICATION_JSON_VALUE})
+    @Operation(
+            summary = "Patch task",
+            description = "Updates only the given fields (JSON Merge Patch, RFC 7396). " +
+                    "Absent fields are left unchanged, null clears a nullable field. Example: {\"completed\": true}"
+    )
+    @ApiResponse(responseCode = "200", description = "Task updated successfully")
+    @ApiResponse(responseCode = "400", description = "Invalid patch document")
+    @ApiResponse(responseCode = "404", description = "Task not found")
+    @ApiResponse(responseCode = "412", description = "Task was modified since the ETag in If-Match")
+    public ResponseEntity<TaskResponse> patchTask(
+            @PathVariable Long id,
+            @RequestBody JsonNode patch,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
     ) {
-        return ResponseEntity.ok(taskService.updateTask(id, request));
+        return withETag(taskService.patchTask(id, TaskPatch.fromJson(patch), TaskETags.expectedVersion(ifMatch)));
     }
 
     /**
@@ -132,16 +257,87 @@ public class TaskController {
     )
     @ApiResponse(responseCode = "204", description = "Task deleted successfully")
     @ApiResponse(responseCode = "404", description = "Task not found")
+    @ApiResponse(responseCode = "412", description = "Task was modified since the ETag in If-Match")
     public ResponseEntity<Void> deleteTask(
-            @PathVariable Long id
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
     ) {
-        taskService.deleteTask(id);
+        taskService.deleteTask(id, TaskETags.expectedVersion(ifMatch));
         return ResponseEntity.noContent().build();
     }
 
+    /**
+     * Creates several tasks at once.
+     *
+     * @param request The tasks to create.
+     * @return Per-item results with a 201 CREATED status.
+     */
+    @PostMapping("/batch")
+    @Operation(
+            summary = "Create tasks (Batch)",
+            description = "Creates up to 'application.tasks.batch.max-size' tasks in one transaction. " +
+                    "All items are validated together; if one is invalid, nothing is created."
+    )
+    @ApiResponse(responseCode = "201", description = "Tasks created successfully")
+    @ApiResponse(responseCode = "400", description = "Invalid item or batch too large")
+    public ResponseEntity<TaskBatchResponse> createTasks(
+            @Valid @RequestBody TaskBatchCreateRequest request
+    ) {
+        return ResponseEntity
+                .status(HttpStatus.CREATED)
+                .body(taskService.createTasks(request));
+    }
+
+    /**
+     * Updates several tasks at once.
+     *
+     * @param request The IDs and new details of the tasks.
+     * @return Per-item results (UPDATED or NOT_FOUND).
+     */
+    @PutMapping("/batch")
+    @Operation(
+            summary = "Update tasks (Batch)",
+            description = "Updates several tasks in one transaction. Tasks that do not exist or are not " +
+                    "owned by the user are reported as NOT_FOUND; the others are still updated."
+    )
+    @ApiResponse(responseCode = "200", description = "Batch processed, see per-item results")
+    @ApiResponse(responseCode = "400", description = "Invalid item, duplicate ID or batch too large")
+    public ResponseEntity<TaskBatchResponse> updateTasks(
+            @Valid @RequestBody TaskBatchUpdateRequest request
+    ) {
+        return ResponseEntity.ok(taskService.updateTasks(request));
+    }
+
+    /**
+     * Deletes several tasks at once.
+     *
+     * @param request The IDs of the tasks to delete.
+     * @return Per-item results (DELETED or NOT_FOUND).
+     */
+    @DeleteMapping("/batch")
+    @Operation(
+            summary = "Delete tasks (Batch)",
+            description = "Deletes several tasks in one transaction. Tasks that do not exist or are not " +
+                    "owned by the user are reported as NOT_FOUND."
+    )
+    @ApiResponse(responseCode = "200", description = "Batch processed, see per-item results")
+    @ApiResponse(responseCode = "400", description = "Duplicate ID or batch too large")
+    public ResponseEntity<TaskBatchResponse> deleteTasks(
+            @Valid @RequestBody TaskBatchDeleteRequest request
+    ) {
+        return ResponseEntity.ok(taskService.deleteTasks(request));
+    }
+
     @PostMapping("/ai-generate")
     public ResponseEntity<AiTaskResponse> generateTaskFromVoice(@RequestParam("file") MultipartFile file) {
         return ResponseEntity.ok(aiTaskService.processVoiceTask(file));
     }
 
-}
\ No newline at end of file
+    /**
+     * Wraps a single task with its strong ETag (its version).
+     * For GET requests, Spring answers a matching If-None-Match with 304 without serializing the body.
+     */
+    private ResponseEntity<TaskResponse> withETag(TaskResponse task) {
+        return ResponseEntity.ok().eTag(TaskETags.forTask(task)).body(task);
+    }
+}
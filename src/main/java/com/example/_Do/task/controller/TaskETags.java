@@ -0,0 +1,90 @@
+package com.example._Do.task.controller;
+
+import com.example._Do.exception.PreconditionFailedException;
+import com.example._Do.task.dto.TaskResponse;
+import com.example._Do.task.dto.TaskSliceResponse;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Strong entity tags for task responses.
+ * <p>
+ * A single task is tagged with its version. A page is tagged with a hash of the IDs and versions
+ * of its tasks plus the page metadata, so it changes whenever a task on the page is modified,
+ * added or removed, without hashing the serialized body.
+ * </p>
+ */
+final class TaskETags {
+
+    private static final int PAGE_HASH_BYTES = 16;
+
+    private TaskETags() {
+    }
+
+    static String forTask(TaskResponse task) {
+        return quote(Long.toString(task.getVersion()));
+    }
+
+    static String forSlice(Slice<TaskResponse> slice) {
+        StringBuilder key = new StringBuilder()
+                .append(slice.getNumber()).append('/').append(slice.getSize()).append('/').append(slice.hasNext());
+        if (slice instanceof Page<TaskResponse> page) {
+            key.append('/').append(page.getTotalElements());
+        }
+        return quote(hash(key, slice.getContent()));
+    }
+
+    static String forCursorSlice(TaskSliceResponse slice) {
+        StringBuilder key = new StringBuilder()
+                .append(slice.size()).append('/').append(slice.nextCursor()).append('/').append(slice.totalElements());
+        return quote(hash(key, slice.content()));
+    }
+
+    /**
+     * Extracts the expected task version from an If-Match header.
+     *
+     * @param ifMatch The header value, may be {@code null}.
+     * @return The expected version, or {@code null} if the write is unconditional (no header or {@code *}).
+     * @throws PreconditionFailedException If the header can never match a current task ETag
+     *                                     (weak or foreign tags; If-Match uses strong comparison).
+     */
+    static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.length() < 3 || tag.charAt(0) != '"' || tag.charAt(tag.length() - 1) != '"') {
+            throw new PreconditionFailedException("If-Match must be a single strong ETag of the task");
+        }
+        try {
+            return Long.valueOf(tag.substring(1, tag.length() - 1));
+        } catch (NumberFormatException e) {
+            throw new PreconditionFailedException("If-Match does not match the task version");
+        }
+    }
+
+    private static String hash(CharSequence key, List<TaskResponse> content) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            StringBuilder input = new StringBuilder(key);
+            for (TaskResponse task : content) {
+                input.append(';').append(task.getId()).append(':').append(task.getVersion());
+            }
+            byte[] hashed = digest.digest(input.toString().getBytes(StandardCharsets.US_ASCII));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(hashed, PAGE_HASH_BYTES));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static String quote(String value) {
+        return '"' + value + '"';
+    }
+}
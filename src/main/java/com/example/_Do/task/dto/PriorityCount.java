@@ -0,0 +1,9 @@
+package com.example._Do.task.dto;
+
+import com.example._Do.task.entity.Priority;
+
+/**
+ * Number of tasks of one priority (projection of grouped count queries).
+ */
+public record PriorityCount(Priority priority, long count) {
+}
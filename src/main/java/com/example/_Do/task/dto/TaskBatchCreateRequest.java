@@ -0,0 +1,16 @@
+package com.example._Do.task.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.List;
+
+@Schema(description = "Request object for creating several tasks at once")
+public record TaskBatchCreateRequest(
+        @Schema(description = "Tasks to create, validated together")
+        @NotEmpty(message = "At least one task is required")
+        List<@Valid @NotNull TaskRequest> tasks
+) {
+}
@@ -0,0 +1,15 @@
+package com.example._Do.task.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.List;
+
+@Schema(description = "Request object for deleting several tasks at once")
+public record TaskBatchDeleteRequest(
+        @Schema(description = "IDs of the tasks to delete", example = "[1, 2, 3]")
+        @NotEmpty(message = "At least one task ID is required")
+        List<@NotNull(message = "Task ID is required") Long> ids
+) {
+}
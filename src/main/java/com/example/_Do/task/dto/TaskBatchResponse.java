@@ -0,0 +1,38 @@
+package com.example._Do.task.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+/**
+ * Result of a batch operation, with one entry per requested item in request order.
+ */
+@Schema(description = "Per-item results of a batch operation")
+public record TaskBatchResponse(
+        int succeeded,
+        int failed,
+        List<ItemResult> results
+) {
+
+    public static TaskBatchResponse of(List<ItemResult> results) {
+        int failed = (int) results.stream().filter(result -> result.status() == Status.NOT_FOUND).count();
+        return new TaskBatchResponse(results.size() - failed, failed, results);
+    }
+
+    public enum Status {
+        CREATED, UPDATED, DELETED, NOT_FOUND
+    }
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record ItemResult(
+            @Schema(description = "Position of the item in the request", example = "0")
+            int index,
+            @Schema(description = "ID of the task", example = "42")
+            Long id,
+            Status status,
+            @Schema(description = "The task after the operation (create and update only)")
+            TaskResponse task
+    ) {
+    }
+}
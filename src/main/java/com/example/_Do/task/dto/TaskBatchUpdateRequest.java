@@ -0,0 +1,29 @@
+package com.example._Do.task.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.List;
+
+@Schema(description = "Request object for updating several tasks at once")
+public record TaskBatchUpdateRequest(
+        @Schema(description = "Tasks to update, validated together")
+        @NotEmpty(message = "At least one task is required")
+        List<@Valid @NotNull Item> tasks
+) {
+
+    @Schema(description = "A single task update")
+    public record Item(
+            @Schema(description = "ID of the task to update", example = "42")
+            @NotNull(message = "Task ID is required")
+            Long id,
+
+            @Schema(description = "New task details")
+            @NotNull(message = "Task details are required")
+            @Valid
+            TaskRequest task
+    ) {
+    }
+}
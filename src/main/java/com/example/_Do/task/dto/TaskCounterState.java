@@ -0,0 +1,14 @@
+package com.example._Do.task.dto;
+
+import com.example._Do.task.entity.Priority;
+
+/**
+ * Counted state of a locked task (projection of the single-task locking query).
+ *
+ * @param id        The ID of the task.
+ * @param priority  The priority the task is counted under ({@code MEDIUM} if none is stored).
+ * @param completed The completion state of the task.
+ * @param counted   Whether the owner has counters, i.e. whether writes must keep them up to date.
+ */
+public record TaskCounterState(Long id, Priority priority, boolean completed, boolean counted) {
+}
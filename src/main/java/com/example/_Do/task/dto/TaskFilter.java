@@ -0,0 +1,83 @@
+package com.example._Do.task.dto;
+
+import com.example._Do.task.entity.Priority;
+import com.example._Do.task.exception.InvalidTaskFilterException;
+import io.swagger.v3.oas.annotations.media.Schema;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+/**
+ * Optional filters for task listings, bound from query parameters.
+ * <p>
+ * All given filters must match (AND). Every combination is compiled into one owner-scoped
+ * query backed by an index (see the V3/V7 migrations).
+ * </p>
+ */
+@Schema(description = "Optional task listing filters")
+public record TaskFilter(
+        @Schema(description = "Only completed (true) or open (false) tasks", example = "false")
+        Boolean completed,
+
+        @Schema(description = "Only tasks with one of these priorities", example = "[\"HIGH\", \"MEDIUM\"]")
+        Set<Priority> priority,
+
+        @Schema(description = "Only tasks due before this time (exclusive)", example = "2025-12-31T23:59:00")
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+        LocalDateTime dueBefore,
+
+        @Schema(description = "Only tasks due at or after this time", example = "2025-12-01T00:00:00")
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+        LocalDateTime dueAfter,
+
+        @Schema(description = "Only open tasks whose due date has passed", example = "true")
+        Boolean overdue,
+
+        @Schema(description = "Only tasks without a due date", example = "true")
+        Boolean noDueDate
+) {
+
+    private static final TaskFilter NONE = new TaskFilter(null, null, null, null, null, null);
+
+    public static TaskFilter none() {
+        return NONE;
+    }
+
+    public boolean isOverdue() {
+        return Boolean.TRUE.equals(overdue);
+    }
+
+    public boolean isNoDueDate() {
+        return Boolean.TRUE.equals(noDueDate);
+    }
+
+    public boolean hasPriorities() {
+        return priority != null && !priority.isEmpty();
+    }
+
+    /**
+     * True if only tasks with a due date can match.
+     */
+    public boolean requiresDueDate() {
+        return dueBefore != null || dueAfter != null || isOverdue();
+    }
+
+    /**
+     * Rejects contradictory combinations.
+     *
+     * @throws InvalidTaskFilterException If the filters can never match together.
+     */
+    public TaskFilter validate() {
+        if (isNoDueDate() && requiresDueDate()) {
+            throw new InvalidTaskFilterException("noDueDate cannot be combined with dueBefore, dueAfter or overdue");
+        }
+        if (isOverdue() && Boolean.TRUE.equals(completed)) {
+            throw new InvalidTaskFilterException("overdue only applies to open tasks");
+        }
+        if (dueBefore != null && dueAfter != null && !dueAfter.isBefore(dueBefore)) {
+            throw new InvalidTaskFilterException("dueAfter must be before dueBefore");
+        }
+        return this;
+    }
+}
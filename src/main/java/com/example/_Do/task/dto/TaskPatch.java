@@ -0,0 +1,146 @@
+package com.example._Do.task.dto;
+
+import com.example._Do.task.entity.Priority;
+import com.example._Do.task.exception.InvalidTaskPatchException;
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A validated JSON Merge Patch (RFC 7396) for a task.
+ * <p>
+ * Only the members present in the document are changed: an absent member keeps its value,
+ * {@code null} clears it (for nullable fields). {@link #getFields()} tells which columns to write.
+ * </p>
+ */
+@Getter
+public final class TaskPatch {
+
+    /**
+     * Patchable task fields and their JSON member names.
+     */
+    public enum Field {
+        TITLE("title"),
+        DESCRIPTION("description"),
+        PRIORITY("priority"),
+        DUE_DATE("dueDate"),
+        COMPLETED("completed");
+
+        private final String jsonName;
+
+        Field(String jsonName) {
+            this.jsonName = jsonName;
+        }
+
+        static Field fromJsonName(String name) {
+            for (Field field : values()) {
+                if (field.jsonName.equals(name)) {
+                    return field;
+                }
+            }
+            throw new InvalidTaskPatchException("Unknown field: " + name);
+        }
+    }
+
+    private final Set<Field> fields = EnumSet.noneOf(Field.class);
+    private String title;
+    private String description;
+    private Priority priority;
+    private LocalDateTime dueDate;
+    private boolean completed;
+
+    private TaskPatch() {
+    }
+
+    /**
+     * Parses and validates a merge patch document.
+     *
+     * @param document The request body.
+     * @return The patch.
+     * @throws InvalidTaskPatchException If the document is not an object, has unknown members or invalid values.
+     */
+    public static TaskPatch fromJson(JsonNode document) {
+        if (document == null || !document.isObject()) {
+            throw new InvalidTaskPatchException("Patch document must be a JSON object");
+        }
+        TaskPatch patch = new TaskPatch();
+        Iterator<Map.Entry<String, JsonNode>> members = document.fields();
+        while (members.hasNext()) {
+            Map.Entry<String, JsonNode> member = members.next();
+            patch.apply(Field.fromJsonName(member.getKey()), member.getValue());
+        }
+        return patch;
+    }
+
+    public Set<Field> getFields() {
+        return Collections.unmodifiableSet(fields);
+    }
+
+    public boolean contains(Field field) {
+        return fields.contains(field);
+    }
+
+    public boolean isEmpty() {
+        return fields.isEmpty();
+    }
+
+    /**
+     * True if the patch only toggles completion, the most frequent write.
+     */
+    public boolean isCompletionOnly() {
+        return fields.size() == 1 && fields.contains(Field.COMPLETED);
+    }
+
+    private void apply(Field field, JsonNode value) {
+        switch (field) {
+            case TITLE -> {
+                if (!value.isTextual() || value.asText().isBlank()) {
+                    throw new InvalidTaskPatchException("title: Title is required");
+                }
+                title = value.asText();
+            }
+            case DESCRIPTION -> {
+                if (!value.isNull() && !value.isTextual()) {
+                    throw new InvalidTaskPatchException("description: must be a string or null");
+                }
+                description = value.isNull() ? null : value.asText();
+            }
+            case PRIORITY -> priority = value.isNull() ? null : parsePriority(value);
+            case DUE_DATE -> dueDate = value.isNull() ? null : parseDueDate(value);
+            case COMPLETED -> {
+                if (!value.isBoolean()) {
+                    throw new InvalidTaskPatchException("completed: must be true or false");
+                }
+                completed = value.booleanValue();
+            }
+        }
+        fields.add(field);
+    }
+
+    private static Priority parsePriority(JsonNode value) {
+        try {
+            return Priority.valueOf(value.asText());
+        } catch (IllegalArgumentException e) {
+            throw new InvalidTaskPatchException("priority: unknown value " + value.asText());
+        }
+    }
+
+    private static LocalDateTime parseDueDate(JsonNode value) {
+        try {
+            LocalDateTime parsed = LocalDateTime.parse(value.asText());
+            if (parsed.isBefore(LocalDateTime.now())) {
+                throw new InvalidTaskPatchException("dueDate: Due date cannot be in the past");
+            }
+            return parsed;
+        } catch (DateTimeParseException e) {
+            throw new InvalidTaskPatchException("dueDate: invalid date " + value.asText());
+        }
+    }
+}
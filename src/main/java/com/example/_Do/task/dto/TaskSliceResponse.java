@@ -0,0 +1,31 @@
+package com.example._Do.task.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+
+import java.util.List;
+
+/**
+ * Compact response envelope for cursor (keyset) pagination.
+ */
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(description = "A slice of tasks with the cursor for the next slice")
+public record TaskSliceResponse(
+        @Schema(description = "Tasks of this slice, in the requested sort order")
+        List<TaskResponse> content,
+
+        @Schema(description = "Requested slice size", example = "20")
+        int size,
+
+        @Schema(description = "Whether more tasks follow this slice", example = "true")
+        boolean hasNext,
+
+        @Schema(description = "Opaque cursor to pass as 'cursor' for the next slice (absent on the last slice)")
+        String nextCursor,
+
+        @Schema(description = "Total number of tasks (only present when count=true)", example = "1250")
+        Long totalElements
+) {
+}
@@ -0,0 +1,38 @@
+package com.example._Do.task.dto;
+
+import com.example._Do.task.entity.Priority;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+
+import java.util.Map;
+
+/**
+ * Task counts of the current user, in total and per priority.
+ */
+@Builder
+@Schema(description = "Open, completed and overdue task counts")
+public record TaskStatsResponse(
+        @Schema(description = "Number of tasks", example = "42")
+        long total,
+
+        @Schema(description = "Number of open tasks", example = "12")
+        long open,
+
+        @Schema(description = "Number of completed tasks", example = "30")
+        long completed,
+
+        @Schema(description = "Number of open tasks whose due date has passed", example = "3")
+        long overdue,
+
+        @Schema(description = "The same counts per priority (tasks without a priority count as MEDIUM)")
+        Map<Priority, PriorityStats> byPriority
+) {
+
+    @Schema(description = "Task counts of one priority")
+    public record PriorityStats(
+            @Schema(example = "4") long open,
+            @Schema(example = "10") long completed,
+            @Schema(example = "1") long overdue
+    ) {
+    }
+}
@@ -23,8 +23,17 @@ import java.time.LocalDateTime;
 @Table(name="tasks")
 public class Task {
 
+    /**
+     * Sequence-generated ID.
+     * <p>
+     * Unlike IDENTITY, a sequence lets Hibernate assign IDs before the INSERT and therefore batch
+     * inserts. The pooled optimizer reserves {@code allocationSize} IDs per sequence call;
+     * it must match the sequence increment (see V4 migration).
+     * </p>
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tasks_seq")
+    @SequenceGenerator(name = "tasks_seq", sequenceName = "tasks_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -42,6 +51,17 @@ public class Task {
 
     private boolean completed;
 
+    /**
+     * Optimistic locking version, incremented on every update.
+     * <p>
+     * Bulk JPQL/Criteria updates bypass Hibernate's versioning and must increment it explicitly.
+     * Exposed to clients as the ETag of the task.
+     * </p>
+     */
+    @Version
+    @Column(nullable = false)
+    private long version;
+
     // --- RELATIONSHIPS ---
 
     /**
@@ -91,6 +111,7 @@ public class Task {
                 ", description='" + description + '\'' +
                 ", priority=" + priority +
                 ", completed=" + completed +
+                ", version=" + version +
                 ", dueDate=" + dueDate +
                 ", userId=" + (user != null ? user.getId() : "null") +
                 ", createdAt=" + createdAt +
@@ -0,0 +1,32 @@
+package com.example._Do.task.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * Number of tasks a user has for one priority and completion state.
+ * <p>
+ * Maps to the 'task_counters' table. A user has either no counters or all six
+ * (3 priorities x open/completed); the counters are only changed with relative
+ * bulk updates, in the same transaction as the task writes they reflect.
+ * Tasks without a priority are counted as {@link Priority#MEDIUM}, the default of {@link Task}.
+ * </p>
+ */
+@Entity
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "task_counters")
+public class TaskCounter {
+
+    @EmbeddedId
+    private TaskCounterId id;
+
+    @Column(name = "task_count", nullable = false)
+    private long taskCount;
+}
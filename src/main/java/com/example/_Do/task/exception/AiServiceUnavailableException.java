@@ -0,0 +1,15 @@
+package com.example._Do.task.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when every slot for voice task generation is busy (Gemini concurrency cap reached).
+ * Maps to HTTP 503 Service Unavailable.
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class AiServiceUnavailableException extends RuntimeException {
+    public AiServiceUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,15 @@
+package com.example._Do.task.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when a requested page lies beyond the offsets a query can skip.
+ * Maps to HTTP 400 Bad Request.
+ */
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidPageException extends RuntimeException {
+    public InvalidPageException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,16 @@
+package com.example._Do.task.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when a batch request is rejected as a whole,
+ * e.g. too many items or the same task referenced twice.
+ * Maps to HTTP 400 Bad Request.
+ */
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidTaskBatchException extends RuntimeException {
+    public InvalidTaskBatchException(String message) {
+        super(message);
+    }
+}
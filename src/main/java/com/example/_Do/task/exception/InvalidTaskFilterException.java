@@ -0,0 +1,15 @@
+package com.example._Do.task.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when task listing filters contradict each other.
+ * Maps to HTTP 400 Bad Request.
+ */
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidTaskFilterException extends RuntimeException {
+    public InvalidTaskFilterException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,16 @@
+package com.example._Do.task.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when a merge patch document is not an object, contains unknown members
+ * or invalid values.
+ * Maps to HTTP 400 Bad Request.
+ */
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidTaskPatchException extends RuntimeException {
+    public InvalidTaskPatchException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,17 @@
+package com.example._Do.task.pagination;
+
+import java.time.LocalDateTime;
+
+/**
+ * Decoded position of a cursor page: the sort key and id of the last task already returned.
+ *
+ * @param sort  The sort order the cursor was created for.
+ * @param value The sort column value of the last task ({@code null} for tasks without a due date).
+ * @param id    The id of the last task (tie-breaker).
+ */
+public record TaskCursor(
+        TaskCursorSort sort,
+        LocalDateTime value,
+        Long id
+) {
+}
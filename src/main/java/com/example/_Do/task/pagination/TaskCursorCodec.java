@@ -0,0 +1,103 @@
+package com.example._Do.task.pagination;
+
+import com.example._Do.task.exception.InvalidCursorException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * Encodes and decodes opaque, tamper-evident pagination cursors.
+ * <p>
+ * A cursor is {@code base64url(payload) + "." + base64url(mac)} where the payload holds the sort
+ * order, the last sort key and the last id. The MAC (truncated HMAC-SHA256) also covers the id of
+ * the user the cursor was issued to, so a modified cursor or a cursor of another user is rejected.
+ * </p>
+ */
+@Component
+public class TaskCursorCodec {
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    private static final int MAC_LENGTH = 16;
+    private static final String SEPARATOR = "~";
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final SecretKeySpec secretKey;
+
+    public TaskCursorCodec(@Value("${application.pagination.cursor-secret}") String cursorSecret) {
+        this.secretKey = new SecretKeySpec(cursorSecret.getBytes(StandardCharsets.UTF_8), HMAC_ALGORITHM);
+    }
+
+    /**
+     * Encodes a cursor for the given user.
+     *
+     * @param cursor The position after the last returned task.
+     * @param userId The ID of the user the cursor is issued to.
+     * @return The opaque cursor string.
+     */
+    public String encode(TaskCursor cursor, Long userId) {
+        String payload = cursor.sort().name()
+                + SEPARATOR + (cursor.value() == null ? "" : cursor.value().toString())
+                + SEPARATOR + cursor.id();
+        byte[] payloadBytes = payload.getBytes(StandardCharsets.UTF_8);
+        return ENCODER.encodeToString(payloadBytes) + "." + ENCODER.encodeToString(sign(payloadBytes, userId));
+    }
+
+    /**
+     * Decodes and verifies a cursor.
+     *
+     * @param cursor       The opaque cursor string from the client.
+     * @param userId       The ID of the current user.
+     * @param expectedSort The sort order of the current request.
+     * @return The decoded position.
+     * @throws InvalidCursorException If the cursor is malformed, tampered with, or issued for another user or sort.
+     */
+    public TaskCursor decode(String cursor, Long userId, TaskCursorSort expectedSort) {
+        try {
+            int dot = cursor.indexOf('.');
+            if (dot < 0) {
+                throw new InvalidCursorException("Malformed cursor");
+            }
+            byte[] payloadBytes = DECODER.decode(cursor.substring(0, dot));
+            byte[] mac = DECODER.decode(cursor.substring(dot + 1));
+            if (!MessageDigest.isEqual(mac, sign(payloadBytes, userId))) {
+                throw new InvalidCursorException("Invalid cursor");
+            }
+
+            String[] parts = new String(payloadBytes, StandardCharsets.UTF_8).split(SEPARATOR, -1);
+            if (parts.length != 3) {
+                throw new InvalidCursorException("Malformed cursor");
+            }
+            TaskCursorSort sort = TaskCursorSort.valueOf(parts[0]);
+            if (sort != expectedSort) {
+                throw new InvalidCursorException("Cursor was created for sort order " + sort);
+            }
+            LocalDateTime value = parts[1].isEmpty() ? null : LocalDateTime.parse(parts[1]);
+            return new TaskCursor(sort, value, Long.valueOf(parts[2]));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new InvalidCursorException("Malformed cursor");
+        }
+    }
+
+    private byte[] sign(byte[] payload, Long userId) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(secretKey);
+            mac.update(String.valueOf(userId).getBytes(StandardCharsets.UTF_8));
+            mac.update((byte) ':');
+            return Arrays.copyOf(mac.doFinal(payload), MAC_LENGTH);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot sign pagination cursor", e);
+        }
+    }
+}
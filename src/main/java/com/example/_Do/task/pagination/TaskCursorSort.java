@@ -0,0 +1,45 @@
+package com.example._Do.task.pagination;
+
+import com.example._Do.task.dto.TaskResponse;
+
+import java.time.LocalDateTime;
+import java.util.function.Function;
+
+/**
+ * Sort orders supported by cursor (keyset) pagination.
+ * <p>
+ * Each order is keyed on one timestamp column plus the task id as a unique tie-breaker,
+ * so the position after the last returned task can be expressed as a WHERE condition
+ * instead of an OFFSET.
+ * </p>
+ */
+public enum TaskCursorSort {
+
+    /**
+     * Newest tasks first: {@code createdAt DESC, id DESC}.
+     */
+    CREATED_AT_DESC(TaskResponse::getCreatedAt),
+
+    /**
+     * Oldest tasks first: {@code createdAt ASC, id ASC}.
+     */
+    CREATED_AT_ASC(TaskResponse::getCreatedAt),
+
+    /**
+     * Most urgent tasks first: {@code dueDate ASC, id ASC}, tasks without a due date last.
+     */
+    DUE_DATE_ASC(TaskResponse::getDueDate);
+
+    private final Function<TaskResponse, LocalDateTime> keyExtractor;
+
+    TaskCursorSort(Function<TaskResponse, LocalDateTime> keyExtractor) {
+        this.keyExtractor = keyExtractor;
+    }
+
+    /**
+     * Builds the cursor pointing right after the given task.
+     */
+    public TaskCursor cursorAfter(TaskResponse task) {
+        return new TaskCursor(this, keyExtractor.apply(task), task.getId());
+    }
+}
@@ -0,0 +1,167 @@
+package com.example._Do.task.repository;
+
+import com.example._Do.task.entity.Priority;
+import com.example._Do.task.entity.TaskCounter;
+import com.example._Do.task.entity.TaskCounterId;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Data Access Object (DAO) for the per-user {@link TaskCounter} rows.
+ * <p>
+ * The counters are only changed by relative bulk updates, in the same transaction as the task
+ * writes they follow (see {@code TaskCounterService}), and recounted from the tasks to fix drift.
+ * </p>
+ */
+public interface TaskCounterRepository extends JpaRepository<TaskCounter, TaskCounterId> {
+
+    /**
+     * JPQL condition matching a task {@code t} to its counter {@code c}.
+     */
+    String TASK_MATCHES_COUNTER = "t.user.id = c.id.userId " +
+            "and coalesce(t.priority, com.example._Do.task.entity.Priority.MEDIUM) = c.id.priority " +
+            "and t.completed = c.id.completed";
+
+    /**
+     * SQL expression recounting the tasks of the counter row {@code c}.
+     */
+    String RECOUNT = "(select count(*) from tasks t where t.user_id = c.user_id " +
+            "and coalesce(t.priority, 'MEDIUM') = c.priority and t.completed = c.completed)";
+
+    /**
+     * Retrieves the counters of a user (none, or one per priority and completion state).
+     *
+     * @param userId The ID of the user.
+     * @return The counters of the user.
+     */
+    List<TaskCounter> findAllByIdUserId(Long userId);
+
+    /**
+     * Locks the counters of a user until the end of the current transaction.
+     * <p>
+     * The rows are locked in primary key order, the order in which the writers update them.
+     * </p>
+     *
+     * @param userId The ID of the user.
+     * @return The locked counters.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select c from TaskCounter c where c.id.userId = :userId order by c.id.priority, c.id.completed")
+    List<TaskCounter> lockAllByIdUserId(@Param("userId") Long userId);
+
+    /**
+     * Adds a delta to one counter.
+     *
+     * @param userId    The ID of the owner.
+     * @param priority  The priority of the counted tasks.
+     * @param completed The completion state of the counted tasks.
+     * @param delta     The number of tasks to add (negative to subtract).
+     * @return The number of updated counters (0 if the user has no counters yet).
+     */
+    @Modifying
+    @Query("update TaskCounter c set c.taskCount = c.taskCount + :delta " +
+            "where c.id.userId = :userId and c.id.priority = :priority and c.id.completed = :completed")
+    int add(@Param("userId") Long userId,
+            @Param("priority") Priority priority,
+            @Param("completed") boolean completed,
+            @Param("delta") long delta);
+
+    /**
+     * Moves a task whose completion flag was just flipped to the counter of its new state.
+     * <p>
+     * Updates the open and the completed counter of the task's priority in one statement. The priority is
+     * read from the task, which the flipping UPDATE keeps locked, so it is the one the task is counted under.
+     * </p>
+     *
+     * @param userId    The ID of the owner.
+     * @param taskId    The ID of the flipped task.
+     * @param completed The new completion state.
+     * @return The number of updated counters (0 if the user has no counters yet).
+     */
+    @Modifying
+    @Query("update TaskCounter c set c.taskCount = c.taskCount + case when c.id.completed = :completed then 1 else -1 end " +
+            "where c.id.userId = :userId and c.id.priority = (select coalesce(t.priority, " +
+            "com.example._Do.task.entity.Priority.MEDIUM) from Task t where t.id = :taskId)")
+    int moveCompleted(@Param("userId") Long userId,
+                      @Param("taskId") Long taskId,
+                      @Param("completed") boolean completed);
+
+    /**
+     * Adds (sign 1) or subtracts (sign -1) the given tasks, as currently stored, to or from their counters.
+     * <p>
+     * Called with -1 before the tasks are updated or deleted and with 1 after they are updated, so the
+     * counters follow the tasks without reading them first. Only the counters of matching tasks are touched;
+     * tasks of other users never match.
+     * </p>
+     * <p>
+     * The tasks must be locked by the caller ({@link TaskRepository#lockIdsByIdInAndUserId}): the
+     * subqueries read the snapshot of the statement, so a task written by a concurrent, not yet
+     * committed transaction would be counted in its old state twice.
+     * </p>
+     *
+     * @param userId  The ID of the owner.
+     * @param taskIds The IDs of the tasks.
+     * @param sign    1 to add the tasks, -1 to subtract them.
+     * @return The number of updated counters.
+     */
+    @Modifying
+    @Query("update TaskCounter c set c.taskCount = c.taskCount + :sign * " +
+            "(select count(t) from Task t where t.id in :taskIds and " + TASK_MATCHES_COUNTER + ") " +
+            "where c.id.userId = :userId and exists " +
+            "(select 1 from Task t where t.id in :taskIds and " + TASK_MATCHES_COUNTER + ")")
+    int addTasks(@Param("userId") Long userId,
+                 @Param("taskIds") Collection<Long> taskIds,
+                 @Param("sign") long sign);
+
+    /**
+     * Creates the six counters of a user from a full count of the user's tasks.
+     *
+     * @param userId The ID of the user.
+     * @return The number of created counters.
+     * @throws org.springframework.dao.DataIntegrityViolationException If the user already has counters.
+     */
+    @Transactional
+    @Modifying
+    @Query(nativeQuery = true, value = "insert into task_counters (user_id, priority, completed, task_count) " +
+            "select c.user_id, c.priority, c.completed, " + RECOUNT + " " +
+            "from (select :userId as user_id, p.priority, s.completed " +
+            "from (select 'LOW' as priority union all select 'MEDIUM' union all select 'HIGH') p " +
+            "cross join (select true as completed union all select false) s) c")
+    int initialize(@Param("userId") Long userId);
+
+    /**
+     * Recounts the counters of a user and fixes those that drifted.
+     * <p>
+     * The counters must be locked by the caller ({@link #lockAllByIdUserId}): the recount reads the
+     * snapshot of the statement, so it would miss the tasks of a writer that holds a counter row and
+     * then overwrite the delta that writer applies.
+     * </p>
+     *
+     * @param userId The ID of the user.
+     * @return The number of corrected counters.
+     */
+    @Transactional
+    @Modifying
+    @Query(nativeQuery = true, value = "update task_counters c set task_count = " + RECOUNT + " " +
+            "where c.user_id = :userId and c.task_count <> " + RECOUNT)
+    int reconcile(@Param("userId") Long userId);
+
+    /**
+     * Retrieves the IDs of users with counters, in ascending order (keyset pagination).
+     *
+     * @param afterUserId Only users with a greater ID are returned.
+     * @param limit       The maximum number of IDs to return.
+     * @return The user IDs.
+     */
+    @Query("select distinct c.id.userId from TaskCounter c where c.id.userId > :afterUserId order by c.id.userId")
+    List<Long> findUserIdsAfter(@Param("afterUserId") Long afterUserId, Limit limit);
+}
@@ -0,0 +1,88 @@
+package com.example._Do.task.repository;
+
+import com.example._Do.task.dto.TaskFilter;
+import com.example._Do.task.dto.TaskPatch;
+import com.example._Do.task.dto.TaskResponse;
+import com.example._Do.task.pagination.TaskCursor;
+import com.example._Do.task.pagination.TaskCursorSort;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Custom repository fragment for task queries that cannot be expressed as derived queries.
+ * <p>
+ * Implemented with the Criteria API in {@link TaskQueryRepositoryImpl}.
+ * </p>
+ */
+public interface TaskQueryRepository {
+
+    /**
+     * Retrieves a page of a user's tasks matching the filter, with the total count.
+     * <p>
+     * The COUNT query is skipped when the page is the last one and its size is known.
+     * </p>
+     *
+     * @param userId   The ID of the owner.
+     * @param filter   The filters to apply ({@link TaskFilter#none()} for all tasks).
+     * @param pageable Page number, size and sort.
+     * @return A page of task projections.
+     */
+    Page<TaskResponse> findPage(Long userId, TaskFilter filter, Pageable pageable);
+
+    /**
+     * Retrieves a page of a user's tasks matching the filter, without counting.
+     *
+     * @param userId   The ID of the owner.
+     * @param filter   The filters to apply.
+     * @param pageable Page number, size and sort.
+     * @return A slice of task projections.
+     */
+    Slice<TaskResponse> findSlice(Long userId, TaskFilter filter, Pageable pageable);
+
+    /**
+     * Counts a user's tasks matching the filter.
+     *
+     * @param userId The ID of the owner.
+     * @param filter The filters to apply.
+     * @return The number of matching tasks.
+     */
+    long countFiltered(Long userId, TaskFilter filter);
+
+    /**
+     * Retrieves the next tasks of a user in keyset (cursor) order.
+     * <p>
+     * The position is expressed as a WHERE condition on the sort key and id,
+     * so the cost does not grow with the page depth and no COUNT query is needed.
+     * Rows are selected straight into {@link TaskResponse} projections.
+     * </p>
+     *
+     * @param userId The ID of the owner.
+     * @param filter The filters to apply.
+     * @param sort   The sort order.
+     * @param after  The position after the last returned task, or {@code null} for the first page.
+     * @param limit  The maximum number of tasks to return.
+     * @return Tasks following the cursor position, in sort order.
+     */
+    List<TaskResponse> findSliceAfter(Long userId, TaskFilter filter, TaskCursorSort sort, TaskCursor after, int limit);
+
+    /**
+     * Applies a merge patch with a single UPDATE that only sets the patched columns
+     * (plus {@code updatedAt} and the incremented version), scoped to the owner.
+     *
+     * @param id              The ID of the task.
+     * @param userId          The ID of the owner.
+     * @param expectedVersion The version the client last saw (If-Match), or {@code null} for an unconditional update.
+     * @param patch           The non-empty patch.
+     * @param updatedAt       The modification timestamp.
+     * @param uncountedOnly   Whether to only apply the patch if the task stays in its counter (the owner has no
+     *                        counters, or the patched priority and completion state equal the stored ones).
+     * @return The number of updated rows (0 if the task does not exist, belongs to someone else,
+     * no longer has the expected version or, with {@code uncountedOnly}, would move to another counter).
+     */
+    int patch(Long id, Long userId, Long expectedVersion, TaskPatch patch, LocalDateTime updatedAt, boolean uncountedOnly);
+}
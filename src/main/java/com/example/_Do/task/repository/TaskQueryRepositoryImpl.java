@@ -0,0 +1,311 @@
+package com.example._Do.task.repository;
+
+import com.example._Do.task.dto.TaskFilter;
+import com.example._Do.task.dto.TaskPatch;
+import com.example._Do.task.dto.TaskResponse;
+import com.example._Do.task.entity.Priority;
+import com.example._Do.task.entity.Task;
+import com.example._Do.task.entity.TaskCounter;
+import com.example._Do.task.pagination.TaskCursor;
+import com.example._Do.task.pagination.TaskCursorSort;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CompoundSelection;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Criteria API implementation of {@link TaskQueryRepository}.
+ * <p>
+ * Queries select into {@link TaskResponse} with {@code cb.construct}, mirroring
+ * {@link TaskRepository#SELECT_TASK_RESPONSE}.
+ * </p>
+ * <p>
+ * The listings open their own read-only transaction, so callers can consult a cache first without
+ * holding a connection.
+ * </p>
+ */
+class TaskQueryRepositoryImpl implements TaskQueryRepository {
+
+    private static final String ID = "id";
+    private static final String CREATED_AT = "createdAt";
+    private static final String DUE_DATE = "dueDate";
+    private static final String VERSION = "version";
+    private static final String COMPLETED = "completed";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<TaskResponse> findPage(Long userId, TaskFilter filter, Pageable pageable) {
+        List<TaskResponse> content = findOffset(userId, filter, pageable, pageable.getPageSize());
+        return PageableExecutionUtils.getPage(content, pageable, () -> countFiltered(userId, filter));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<TaskResponse> findSlice(Long userId, TaskFilter filter, Pageable pageable) {
+        // Fetch one extra row to know whether a next page exists
+        List<TaskResponse> content = findOffset(userId, filter, pageable, pageable.getPageSize() + 1);
+        boolean hasNext = content.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? content.subList(0, pageable.getPageSize()) : content, pageable, hasNext);
+    }
+
+    @Override
+    public long countFiltered(Long userId, TaskFilter filter) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Task> task = query.from(Task.class);
+        query.select(cb.count(task)).where(filtered(cb, task, userId, filter).toArray(Predicate[]::new));
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    @Override
+    public List<TaskResponse> findSliceAfter(Long userId, TaskFilter filter, TaskCursorSort sort, TaskCursor after, int limit) {
+        return switch (sort) {
+            case CREATED_AT_DESC -> findByCreatedAt(userId, filter, after, false, limit);
+            case CREATED_AT_ASC -> findByCreatedAt(userId, filter, after, true, limit);
+            case DUE_DATE_ASC -> findByDueDate(userId, filter, after, limit);
+        };
+    }
+
+    /**
+     * Offset query with the sort of the pageable, plus the id as a tie-breaker for a stable order.
+     */
+    private List<TaskResponse> findOffset(Long userId, TaskFilter filter, Pageable pageable, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<TaskResponse> query = cb.createQuery(TaskResponse.class);
+        Root<Task> task = query.from(Task.class);
+
+        List<Order> orders = new ArrayList<>(QueryUtils.toOrders(pageable.getSort(), task, cb));
+        if (pageable.getSort().getOrderFor(ID) == null) {
+            orders.add(cb.desc(task.get(ID)));
+        }
+        query.select(taskResponse(cb, task))
+                .where(filtered(cb, task, userId, filter).toArray(Predicate[]::new))
+                .orderBy(orders);
+        return entityManager.createQuery(query)
+                .setFirstResult(Math.toIntExact(pageable.getOffset()))
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    /**
+     * Keyset query on {@code (createdAt, id)}.
+     */
+    private List<TaskResponse> findByCreatedAt(Long userId, TaskFilter filter, TaskCursor after, boolean ascending, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<TaskResponse> query = cb.createQuery(TaskResponse.class);
+        Root<Task> task = query.from(Task.class);
+        query.select(taskResponse(cb, task));
+        Path<LocalDateTime> createdAt = task.get(CREATED_AT);
+        Path<Long> id = task.get(ID);
+
+        List<Predicate> where = filtered(cb, task, userId, filter);
+        if (after != null) {
+            where.add(isAfter(cb, createdAt, id, after, ascending));
+        }
+
+        query.where(where.toArray(Predicate[]::new))
+                .orderBy(order(cb, createdAt, ascending), order(cb, id, ascending));
+        return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+    }
+
+    /**
+     * Keyset query on {@code (dueDate, id)} with tasks without a due date last.
+     * <p>
+     * Runs in two phases so both stay index friendly: first the tasks with a due date,
+     * then (only once those are exhausted) the tasks without one, ordered by id.
+     * A filter that requires (or excludes) a due date skips the phase that cannot match.
+     * </p>
+     */
+    private List<TaskResponse> findByDueDate(Long userId, TaskFilter filter, TaskCursor after, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        List<TaskResponse> result = new ArrayList<>();
+        boolean inUndatedPhase = after != null && after.value() == null;
+
+        if (!inUndatedPhase && !filter.isNoDueDate()) {
+            CriteriaQuery<TaskResponse> query = cb.createQuery(TaskResponse.class);
+            Root<Task> task = query.from(Task.class);
+            query.select(taskResponse(cb, task));
+            Path<LocalDateTime> dueDate = task.get(DUE_DATE);
+            Path<Long> id = task.get(ID);
+
+            List<Predicate> where = filtered(cb, task, userId, filter);
+            where.add(cb.isNotNull(dueDate));
+            if (after != null) {
+                where.add(isAfter(cb, dueDate, id, after, true));
+            }
+
+            query.where(where.toArray(Predicate[]::new)).orderBy(cb.asc(dueDate), cb.asc(id));
+            result.addAll(entityManager.createQuery(query).setMaxResults(limit).getResultList());
+        }
+
+        if (result.size() < limit && !filter.requiresDueDate()) {
+            CriteriaQuery<TaskResponse> query = cb.createQuery(TaskResponse.class);
+            Root<Task> task = query.from(Task.class);
+            query.select(taskResponse(cb, task));
+            Path<Long> id = task.get(ID);
+
+            List<Predicate> where = filtered(cb, task, userId, filter);
+            where.add(cb.isNull(task.get(DUE_DATE)));
+            if (inUndatedPhase) {
+                where.add(cb.greaterThan(id, after.id()));
+            }
+
+            query.where(where.toArray(Predicate[]::new)).orderBy(cb.asc(id));
+            result.addAll(entityManager.createQuery(query).setMaxResults(limit - result.size()).getResultList());
+        }
+
+        return result;
+    }
+
+    @Override
+    public int patch(Long id, Long userId, Long expectedVersion, TaskPatch patch, LocalDateTime updatedAt,
+                     boolean uncountedOnly) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Task> update = cb.createCriteriaUpdate(Task.class);
+        Root<Task> task = update.from(Task.class);
+
+        // Only the patched columns end up in the SET clause, e.g. an untouched description is never rewritten
+        for (TaskPatch.Field field : patch.getFields()) {
+            switch (field) {
+                case TITLE -> update.set(task.<String>get("title"), patch.getTitle());
+                case DESCRIPTION -> setNullable(cb, update, task.get("description"), patch.getDescription(), String.class);
+                case PRIORITY -> setNullable(cb, update, task.get("priority"), patch.getPriority(), Priority.class);
+                case DUE_DATE -> setNullable(cb, update, task.get(DUE_DATE), patch.getDueDate(), LocalDateTime.class);
+                case COMPLETED -> update.set(task.<Boolean>get(COMPLETED), patch.isCompleted());
+            }
+        }
+        update.set(task.<LocalDateTime>get("updatedAt"), updatedAt);
+        // Bulk updates bypass Hibernate versioning: increment explicitly
+        Path<Long> version = task.get(VERSION);
+        update.set(version, cb.sum(version, 1L));
+
+        List<Predicate> where = new ArrayList<>();
+        where.add(cb.equal(task.get(ID), id));
+        where.add(ownedBy(cb, task, userId));
+        if (expectedVersion != null) {
+            where.add(cb.equal(version, expectedVersion));
+        }
+        if (uncountedOnly && (patch.contains(TaskPatch.Field.PRIORITY) || patch.contains(TaskPatch.Field.COMPLETED))) {
+            where.add(cb.or(countedStateIs(cb, task, patch), cb.not(cb.exists(counters(cb, update, userId)))));
+        }
+        update.where(where.toArray(Predicate[]::new));
+
+        return entityManager.createQuery(update).executeUpdate();
+    }
+
+    /**
+     * Matches a task whose stored priority and completion state equal the patched ones.
+     */
+    private Predicate countedStateIs(CriteriaBuilder cb, Root<Task> task, TaskPatch patch) {
+        List<Predicate> unchanged = new ArrayList<>();
+        if (patch.contains(TaskPatch.Field.PRIORITY)) {
+            Priority priority = patch.getPriority() == null ? Priority.MEDIUM : patch.getPriority();
+            unchanged.add(cb.equal(cb.coalesce(task.<Priority>get("priority"), Priority.MEDIUM), priority));
+        }
+        if (patch.contains(TaskPatch.Field.COMPLETED)) {
+            unchanged.add(cb.equal(task.get(COMPLETED), patch.isCompleted()));
+        }
+        return cb.and(unchanged.toArray(Predicate[]::new));
+    }
+
+    /**
+     * Criteria counterpart of {@link TaskRepository#OWNER_UNCOUNTED}, without the negation.
+     */
+    private Subquery<Integer> counters(CriteriaBuilder cb, CriteriaUpdate<Task> update, Long userId) {
+        Subquery<Integer> counters = update.subquery(Integer.class);
+        Root<TaskCounter> counter = counters.from(TaskCounter.class);
+        return counters.select(cb.literal(1)).where(cb.equal(counter.get(ID).get("userId"), userId));
+    }
+
+    private <T> void setNullable(CriteriaBuilder cb, CriteriaUpdate<Task> update, Path<T> path, T value, Class<T> type) {
+        if (value == null) {
+            update.set(path, cb.nullLiteral(type));
+        } else {
+            update.set(path, value);
+        }
+    }
+
+    /**
+     * Criteria counterpart of {@link TaskRepository#SELECT_TASK_RESPONSE}.
+     */
+    static CompoundSelection<TaskResponse> taskResponse(CriteriaBuilder cb, Root<Task> task) {
+        return cb.construct(TaskResponse.class,
+                task.get(ID), task.get("title"), task.get("description"), task.get("priority"),
+                task.get(COMPLETED), task.get(DUE_DATE), task.get(CREATED_AT), task.get("updatedAt"), task.get(VERSION));
+    }
+
+    private Predicate ownedBy(CriteriaBuilder cb, Root<Task> task, Long userId) {
+        return cb.equal(task.get("user").get(ID), userId);
+    }
+
+    /**
+     * Owner scope plus the predicates of every given filter (mutable list, callers may add more).
+     */
+    private List<Predicate> filtered(CriteriaBuilder cb, Root<Task> task, Long userId, TaskFilter filter) {
+        List<Predicate> where = new ArrayList<>();
+        where.add(ownedBy(cb, task, userId));
+        Path<LocalDateTime> dueDate = task.get(DUE_DATE);
+
+        if (filter.completed() != null) {
+            where.add(cb.equal(task.get(COMPLETED), filter.completed()));
+        }
+        if (filter.hasPriorities()) {
+            where.add(task.get("priority").in(filter.priority()));
+        }
+        if (filter.dueBefore() != null) {
+            where.add(cb.lessThan(dueDate, filter.dueBefore()));
+        }
+        if (filter.dueAfter() != null) {
+            where.add(cb.greaterThanOrEqualTo(dueDate, filter.dueAfter()));
+        }
+        if (filter.isOverdue()) {
+            // Same shape as the partial index idx_tasks_open_due_date (PostgreSQL)
+            where.add(cb.isFalse(task.get(COMPLETED)));
+            where.add(cb.isNotNull(dueDate));
+            where.add(cb.lessThan(dueDate, LocalDateTime.now()));
+        }
+        if (filter.isNoDueDate()) {
+            where.add(cb.isNull(dueDate));
+        }
+        return where;
+    }
+
+    /**
+     * {@code (key, id) > (lastKey, lastId)} for ascending, {@code <} for descending order.
+     */
+    private Predicate isAfter(CriteriaBuilder cb, Path<LocalDateTime> key, Path<Long> id, TaskCursor after, boolean ascending) {
+        if (ascending) {
+            return cb.or(
+                    cb.greaterThan(key, after.value()),
+                    cb.and(cb.equal(key, after.value()), cb.greaterThan(id, after.id())));
+        }
+        return cb.or(
+                cb.lessThan(key, after.value()),
+                cb.and(cb.equal(key, after.value()), cb.lessThan(id, after.id())));
+    }
+
+    private Order order(CriteriaBuilder cb, Path<?> path, boolean ascending) {
+        return ascending ? cb.asc(path) : cb.desc(path);
+    }
+}
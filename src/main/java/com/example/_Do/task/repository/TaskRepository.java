@@ -1,13 +1,43 @@
 package com.example._Do.task.repository;
 
+import com.example._Do.task.dto.PriorityCount;
+import com.example._Do.task.dto.TaskCounterState;
+import com.example._Do.task.dto.TaskResponse;
+import com.example._Do.task.entity.Priority;
 import com.example._Do.task.entity.Task;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
-public interface TaskRepository extends JpaRepository<Task, Long> {
+public interface TaskRepository extends JpaRepository<Task, Long>, TaskQueryRepository, TaskSearchRepository {
+
+    /**
+     * JPQL constructor expression selecting the columns of a {@link TaskResponse}.
+     * <p>
+     * Read paths select straight into the DTO: no managed entity, no lazy user proxy
+     * and no dirty-checking snapshot is created for rows that are only serialized.
+     * </p>
+     */
+    String SELECT_TASK_RESPONSE = "select new com.example._Do.task.dto.TaskResponse(" +
+            "t.id, t.title, t.description, t.priority, t.completed, t.dueDate, t.createdAt, t.updatedAt, t.version) " +
+            "from Task t ";
+
+    /**
+     * JPQL condition that holds while the owner {@code :userId} has no task counters
+     * (statistics never requested), i.e. while task writes need not keep counters up to date.
+     */
+    String OWNER_UNCOUNTED = "not exists (select 1 from TaskCounter c where c.id.userId = :userId)";
 
     /**
      * Retrieves all tasks belonging to a specific user.
@@ -21,14 +51,251 @@ public interface TaskRepository extends JpaRepository<Task, Long> {
     Page<Task> findAllByUserId(Long userId, Pageable pageable);
 
     /**
-     * Retrieves tasks for a specific user filtered by completion status.
+     * Counts the tasks of a user.
+     *
+     * @param userId The ID of the user.
+     * @return The number of tasks owned by the user.
+     */
+    long countByUserId(Long userId);
+
+    /**
+     * Counts the open tasks of a user whose due date has passed, per priority.
+     * <p>
+     * Overdue changes with time, not only with writes, so it cannot be kept in a counter.
+     * The query reads only open, overdue tasks (partial index idx_tasks_open_due_date on PostgreSQL).
+     * </p>
+     *
+     * @param userId The ID of the user.
+     * @param now    The current time.
+     * @return One count per priority that has overdue tasks.
+     */
+    @Query("select new com.example._Do.task.dto.PriorityCount(" +
+            "coalesce(t.priority, com.example._Do.task.entity.Priority.MEDIUM), count(t)) from Task t " +
+            "where t.user.id = :userId and t.completed = false and t.dueDate is not null and t.dueDate < :now " +
+            "group by coalesce(t.priority, com.example._Do.task.entity.Priority.MEDIUM)")
+    List<PriorityCount> countOverdueByPriority(@Param("userId") Long userId, @Param("now") LocalDateTime now);
+
+    /**
+     * Retrieves a task only if it belongs to the given user.
+     * <p>
+     * Ownership is part of the WHERE clause, so a task of another user is simply not found.
+     * </p>
+     *
+     * @param id     The ID of the task.
+     * @param userId The ID of the owner.
+     * @return The task, or empty if it does not exist or belongs to someone else.
+     */
+    Optional<Task> findByIdAndUserId(Long id, Long userId);
+
+    /**
+     * Retrieves the projection of a task only if it belongs to the given user.
+     *
+     * @param id     The ID of the task.
+     * @param userId The ID of the owner.
+     * @return The task, or empty if it does not exist or belongs to someone else.
+     */
+    @Transactional(readOnly = true)
+    @Query(SELECT_TASK_RESPONSE + "where t.id = :id and t.user.id = :userId")
+    Optional<TaskResponse> findResponseByIdAndUserId(@Param("id") Long id, @Param("userId") Long userId);
+
+    /**
+     * Retrieves the given tasks that belong to the user, as managed entities (batch updates).
+     *
+     * @param ids    The IDs of the tasks.
+     * @param userId The ID of the owner.
+     * @return The owned tasks among the given IDs, in no particular order.
+     */
+    List<Task> findAllByIdInAndUserId(Collection<Long> ids, Long userId);
+
+    /**
+     * Filters the given task IDs down to those owned by the user and locks these tasks
+     * (SELECT ... FOR UPDATE) until the end of the transaction.
+     * <p>
+     * Concurrent writes to the same task are serialized from here on, so a write that waited for the
+     * lock reads the committed state of the previous one (see {@code TaskCounterService#uncount}).
+     * Rows are locked in id order, so overlapping batches cannot deadlock each other.
+     * </p>
+     *
+     * @param ids    The IDs of the tasks.
+     * @param userId The ID of the owner.
+     * @return The owned IDs, in ascending order.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select t.id from Task t where t.id in :ids and t.user.id = :userId order by t.id")
+    List<Long> lockIdsByIdInAndUserId(@Param("ids") Collection<Long> ids, @Param("userId") Long userId);
+
+    /**
+     * Locks a task of the user (SELECT ... FOR UPDATE) and reads its counted state in the same statement.
      * <p>
-     * Example: Get all "Pending" tasks for User X.
+     * Single-task writes only fall back to it when their guarded statement did not apply, i.e. when the
+     * task may move to another counter: knowing the old priority and completion state, and whether the
+     * owner has counters at all, they only touch the counters whose task count actually changes.
      * </p>
      *
-     * @param userId    The ID of the user.
-     * @param completed The completion status (true for done, false for pending).
-     * @return List of matching tasks.
+     * @param id     The ID of the task.
+     * @param userId The ID of the owner.
+     * @return The state of the task, or empty if it does not exist or belongs to someone else.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select new com.example._Do.task.dto.TaskCounterState(t.id, " +
+            "coalesce(t.priority, com.example._Do.task.entity.Priority.MEDIUM), t.completed, " +
+            "case when exists (select 1 from TaskCounter c where c.id.userId = :userId) then true else false end) " +
+            "from Task t where t.id = :id and t.user.id = :userId")
+    Optional<TaskCounterState> lockCounterStateByIdAndUserId(@Param("id") Long id, @Param("userId") Long userId);
+
+    /**
+     * Checks whether a task exists for the given owner.
+     * Used to tell a failed precondition apart from a missing task.
+     */
+    boolean existsByIdAndUserId(Long id, Long userId);
+
+    /**
+     * Overwrites the editable fields of a task in a single UPDATE statement, scoped to its owner.
+     * <p>
+     * Bulk updates bypass entity callbacks and versioning, so {@code updatedAt} is passed explicitly
+     * and the version is incremented in the statement.
+     * </p>
+     *
+     * @param expectedVersion The version the client last saw (If-Match), or {@code null} for an unconditional update.
+     * @return The number of updated rows (0 if the task does not exist, belongs to someone else
+     * or no longer has the expected version).
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("update Task t set t.title = :title, t.description = :description, t.priority = :priority, " +
+            "t.dueDate = :dueDate, t.completed = :completed, t.updatedAt = :updatedAt, t.version = t.version + 1 " +
+            "where t.id = :id and t.user.id = :userId " +
+            "and (:expectedVersion is null or t.version = :expectedVersion)")
+    int updateByIdAndUserId(@Param("id") Long id,
+                            @Param("userId") Long userId,
+                            @Param("expectedVersion") Long expectedVersion,
+                            @Param("title") String title,
+                            @Param("description") String description,
+                            @Param("priority") Priority priority,
+                            @Param("dueDate") LocalDateTime dueDate,
+                            @Param("completed") boolean completed,
+                            @Param("updatedAt") LocalDateTime updatedAt);
+
+    /**
+     * Same as {@link #updateByIdAndUserId}, but only applies if the task stays in its counter: the owner has
+     * no counters, or the task keeps its priority and completion state.
+     * <p>
+     * The guard is part of the WHERE clause, so the common case needs neither a lock nor a counter update.
+     * Otherwise no row is updated and the caller locks the task first.
+     * </p>
+     *
+     * @param countedPriority The priority the task will be counted under ({@code MEDIUM} if {@code priority} is null).
+     * @return The number of updated rows (0 if the task does not exist, belongs to someone else,
+     * no longer has the expected version or would move to another counter).
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("update Task t set t.title = :title, t.description = :description, t.priority = :priority, " +
+            "t.dueDate = :dueDate, t.completed = :completed, t.updatedAt = :updatedAt, t.version = t.version + 1 " +
+            "where t.id = :id and t.user.id = :userId " +
+            "and (:expectedVersion is null or t.version = :expectedVersion) " +
+            "and ((coalesce(t.priority, com.example._Do.task.entity.Priority.MEDIUM) = :countedPriority " +
+            "and t.completed = :completed) or " + OWNER_UNCOUNTED + ")")
+    int updateUncountedByIdAndUserId(@Param("id") Long id,
+                                     @Param("userId") Long userId,
+                                     @Param("expectedVersion") Long expectedVersion,
+                                     @Param("title") String title,
+                                     @Param("description") String description,
+                                     @Param("priority") Priority priority,
+                                     @Param("countedPriority") Priority countedPriority,
+                                     @Param("dueDate") LocalDateTime dueDate,
+                                     @Param("completed") boolean completed,
+                                     @Param("updatedAt") LocalDateTime updatedAt);
+
+    /**
+     * Sets only the completion flag of a task, scoped to its owner.
+     * <p>
+     * Fast path for completion toggles, the most frequent write: a fixed, narrow UPDATE
+     * that leaves every other column (notably the description TEXT) untouched.
+     * </p>
+     *
+     * @param expectedVersion The version the client last saw (If-Match), or {@code null}.
+     * @return The number of updated rows (0 if the task does not exist, belongs to someone else
+     * or no longer has the expected version).
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("update Task t set t.completed = :completed, t.updatedAt = :updatedAt, t.version = t.version + 1 " +
+            "where t.id = :id and t.user.id = :userId " +
+            "and (:expectedVersion is null or t.version = :expectedVersion)")
+    int updateCompletedByIdAndUserId(@Param("id") Long id,
+                                     @Param("userId") Long userId,
+                                     @Param("expectedVersion") Long expectedVersion,
+                                     @Param("completed") boolean completed,
+                                     @Param("updatedAt") LocalDateTime updatedAt);
+
+    /**
+     * Flips the completion flag of a task, scoped to its owner: only matches if the stored flag differs.
+     * <p>
+     * One updated row means the task moved from the other completion state to this one, so the caller
+     * knows the counter delta without reading the task; the row stays locked until the transaction ends.
+     * </p>
+     *
+     * @param expectedVersion The version the client last saw (If-Match), or {@code null}.
+     * @return The number of updated rows (0 if the task does not exist, belongs to someone else,
+     * no longer has the expected version or already has this completion state).
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("update Task t set t.completed = :completed, t.updatedAt = :updatedAt, t.version = t.version + 1 " +
+            "where t.id = :id and t.user.id = :userId and t.completed <> :completed " +
+            "and (:expectedVersion is null or t.version = :expectedVersion)")
+    int toggleCompletedByIdAndUserId(@Param("id") Long id,
+                                     @Param("userId") Long userId,
+                                     @Param("expectedVersion") Long expectedVersion,
+                                     @Param("completed") boolean completed,
+                                     @Param("updatedAt") LocalDateTime updatedAt);
+
+    /**
+     * Deletes a task in a single DELETE statement, scoped to its owner.
+     *
+     * @param id     The ID of the task.
+     * @param userId The ID of the owner.
+     * @return The number of deleted rows (0 if the task does not exist or belongs to someone else).
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("delete from Task t where t.id = :id and t.user.id = :userId")
+    int deleteByIdAndUserId(@Param("id") Long id, @Param("userId") Long userId);
+
+    /**
+     * Deletes a task only if it still has the expected version (If-Match), scoped to its owner.
+     *
+     * @param id              The ID of the task.
+     * @param userId          The ID of the owner.
+     * @param expectedVersion The version the client last saw.
+     * @return The number of deleted rows.
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("delete from Task t where t.id = :id and t.user.id = :userId and t.version = :expectedVersion")
+    int deleteByIdAndUserIdAndVersion(@Param("id") Long id,
+                                      @Param("userId") Long userId,
+                                      @Param("expectedVersion") long expectedVersion);
+
+    /**
+     * Deletes a task in a single DELETE statement if its owner has no counters to update.
+     * Otherwise no row is deleted and the caller locks the task first.
+     *
+     * @param id              The ID of the task.
+     * @param userId          The ID of the owner.
+     * @param expectedVersion The version the client last saw (If-Match), or {@code null} for an unconditional delete.
+     * @return The number of deleted rows.
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("delete from Task t where t.id = :id and t.user.id = :userId " +
+            "and (:expectedVersion is null or t.version = :expectedVersion) and " + OWNER_UNCOUNTED)
+    int deleteUncountedByIdAndUserId(@Param("id") Long id,
+                                     @Param("userId") Long userId,
+                                     @Param("expectedVersion") Long expectedVersion);
+
+    /**
+     * Deletes several tasks in a single DELETE statement, scoped to their owner.
+     *
+     * @param ids    The IDs of the tasks.
+     * @param userId The ID of the owner.
+     * @return The number of deleted rows.
      */
-    List<Task> findAllByUserIdAndCompleted(Long userId, boolean completed);
+    @Modifying(clearAutomatically = true)
+    @Query("delete from Task t where t.id in :ids and t.user.id = :userId")
+    int deleteAllByIdInAndUserId(@Param("ids") Collection<Long> ids, @Param("userId") Long userId);
 }
@@ -0,0 +1,30 @@
+package com.example._Do.task.repository;
+
+import com.example._Do.task.dto.TaskResponse;
+import com.example._Do.task.search.TaskSearchQuery;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+/**
+ * Custom repository fragment for full-text search over task title and description.
+ * <p>
+ * Implemented in {@link TaskSearchRepositoryImpl}: PostgreSQL uses the {@code search_vector}
+ * column (GIN index); other databases (H2 in tests) use an equivalent LIKE based query.
+ * </p>
+ */
+public interface TaskSearchRepository {
+
+    /**
+     * Searches the tasks of a user, best matches first.
+     * <p>
+     * Every term must match the start of a word in the title or description.
+     * Title matches rank above description matches; ties are ordered by newest ID first.
+     * </p>
+     *
+     * @param userId   The ID of the owner.
+     * @param query    The non-empty search query.
+     * @param pageable The page to return (its sort is ignored, results are ordered by rank).
+     * @return A slice of matching tasks.
+     */
+    Slice<TaskResponse> search(Long userId, TaskSearchQuery query, Pageable pageable);
+}
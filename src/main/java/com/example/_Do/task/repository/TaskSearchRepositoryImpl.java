@@ -0,0 +1,151 @@
+package com.example._Do.task.repository;
+
+import com.example._Do.task.dto.TaskResponse;
+import com.example._Do.task.entity.Priority;
+import com.example._Do.task.entity.Task;
+import com.example._Do.task.search.TaskSearchQuery;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Full-text search implementation of {@link TaskSearchRepository}, dispatching on the database dialect.
+ */
+class TaskSearchRepositoryImpl implements TaskSearchRepository {
+
+    /**
+     * Uses the generated {@code search_vector} column and its GIN index (see db/migration/postgresql).
+     * The 'simple' configuration only lower-cases words (no language specific stemming),
+     * because tasks are written in whatever language the user speaks.
+     */
+    private static final String POSTGRES_SEARCH = """
+            SELECT t.id, t.title, t.description, t.priority, t.completed, t.due_date, t.created_at, t.updated_at, t.version
+            FROM tasks t
+            WHERE t.user_id = :userId
+              AND t.search_vector @@ to_tsquery('simple', :query)
+            ORDER BY ts_rank(t.search_vector, to_tsquery('simple', :query)) DESC, t.id DESC
+            LIMIT :limit OFFSET :offset
+            """;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private volatile Boolean postgres;
+
+    @Override
+    public Slice<TaskResponse> search(Long userId, TaskSearchQuery query, Pageable pageable) {
+        // Fetch one extra row to know whether another slice follows
+        int limit = pageable.getPageSize() + 1;
+        List<TaskResponse> tasks = isPostgres()
+                ? searchPostgres(userId, query, limit, pageable.getOffset())
+                : searchPortable(userId, query, limit, pageable.getOffset());
+
+        boolean hasNext = tasks.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? tasks.subList(0, pageable.getPageSize()) : tasks, pageable, hasNext);
+    }
+
+    private List<TaskResponse> searchPostgres(Long userId, TaskSearchQuery query, int limit, long offset) {
+        @SuppressWarnings("unchecked")
+        List<Object[]> rows = entityManager.createNativeQuery(POSTGRES_SEARCH)
+                .setParameter("userId", userId)
+                .setParameter("query", query.toTsQuery())
+                .setParameter("limit", limit)
+                .setParameter("offset", offset)
+                .getResultList();
+        return rows.stream().map(TaskSearchRepositoryImpl::toResponse).toList();
+    }
+
+    /**
+     * Equivalent LIKE based search for databases without tsvector support (H2 in tests).
+     * The text is split into words on the same boundary as {@link TaskSearchQuery} (any run of
+     * characters that are not letters or digits), like the tsvector parser splits on punctuation and
+     * hyphens; a term matches when it starts one of these words. The rank is the number of terms
+     * found in the title.
+     */
+    private List<TaskResponse> searchPortable(Long userId, TaskSearchQuery query, int limit, long offset) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<TaskResponse> criteria = cb.createQuery(TaskResponse.class);
+        Root<Task> task = criteria.from(Task.class);
+        Expression<String> title = words(cb, task.get("title"));
+        Expression<String> description = words(cb, task.get("description"));
+
+        List<Predicate> where = new ArrayList<>();
+        where.add(cb.equal(task.get("user").get("id"), userId));
+        Expression<Integer> rank = cb.literal(0);
+        for (String term : query.terms()) {
+            Predicate inTitle = startsWord(cb, title, term);
+            where.add(cb.or(inTitle, startsWord(cb, description, term)));
+            rank = cb.sum(rank, cb.<Integer>selectCase().when(inTitle, 1).otherwise(0));
+        }
+
+        criteria.select(TaskQueryRepositoryImpl.taskResponse(cb, task))
+                .where(where.toArray(Predicate[]::new))
+                .orderBy(cb.desc(rank), cb.desc(task.get("id")));
+        return entityManager.createQuery(criteria)
+                .setFirstResult(Math.toIntExact(offset))
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    /**
+     * Lower-cases the text and replaces every word boundary with a single space, with a leading
+     * space so that every word, including the first, follows one. E.g. "(Java) e-mail" becomes
+     * " java e mail".
+     */
+    private Expression<String> words(CriteriaBuilder cb, Expression<String> text) {
+        return cb.concat(" ", cb.function("regexp_replace", String.class,
+                cb.lower(text), cb.literal(TaskSearchQuery.WORD_BOUNDARY), cb.literal(" ")));
+    }
+
+    private Predicate startsWord(CriteriaBuilder cb, Expression<String> words, String term) {
+        // Terms only contain letters and digits, so they never contain LIKE wildcards
+        return cb.like(words, "% " + term + "%");
+    }
+
+    private boolean isPostgres() {
+        Boolean result = postgres;
+        if (result == null) {
+            result = entityManager.getEntityManagerFactory()
+                    .unwrap(SessionFactoryImplementor.class)
+                    .getJdbcServices()
+                    .getDialect() instanceof PostgreSQLDialect;
+            postgres = result;
+        }
+        return result;
+    }
+
+    private static TaskResponse toResponse(Object[] row) {
+        return TaskResponse.builder()
+                .id(((Number) row[0]).longValue())
+                .title((String) row[1])
+                .description((String) row[2])
+                .priority(row[3] == null ? null : Priority.valueOf((String) row[3]))
+                .completed((Boolean) row[4])
+                .dueDate(toLocalDateTime(row[5]))
+                .createdAt(toLocalDateTime(row[6]))
+                .updatedAt(toLocalDateTime(row[7]))
+                .version(((Number) row[8]).longValue())
+                .build();
+    }
+
+    private static LocalDateTime toLocalDateTime(Object value) {
+        if (value instanceof Timestamp timestamp) {
+            return timestamp.toLocalDateTime();
+        }
+        return (LocalDateTime) value;
+    }
+}
@@ -0,0 +1,57 @@
+package com.example._Do.task.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * A normalized full-text search query: lower-cased word prefixes that must all match.
+ * <p>
+ * Only letters and digits survive tokenization, so the terms can be embedded in a PostgreSQL
+ * {@code tsquery} or a LIKE pattern without any escaping.
+ * </p>
+ *
+ * @param terms The search terms (at most {@link #MAX_TERMS}).
+ */
+public record TaskSearchQuery(List<String> terms) {
+
+    public static final int MAX_TERMS = 8;
+    private static final int MAX_TERM_LENGTH = 64;
+    /**
+     * Separator between words: any run of characters that are neither letters nor digits.
+     * Also used as a database regular expression by the portable search.
+     */
+    public static final String WORD_BOUNDARY = "[^\\p{L}\\p{N}]+";
+    private static final Pattern NON_WORD = Pattern.compile(WORD_BOUNDARY);
+
+    /**
+     * Tokenizes raw user input.
+     *
+     * @param query The raw query, e.g. {@code "rep jav"}.
+     * @return The parsed query; {@link #isEmpty()} if nothing searchable is left.
+     */
+    public static TaskSearchQuery parse(String query) {
+        List<String> terms = new ArrayList<>();
+        if (query != null) {
+            for (String token : NON_WORD.split(query.toLowerCase(Locale.ROOT))) {
+                if (!token.isEmpty() && !terms.contains(token) && terms.size() < MAX_TERMS) {
+                    terms.add(token.length() > MAX_TERM_LENGTH ? token.substring(0, MAX_TERM_LENGTH) : token);
+                }
+            }
+        }
+        return new TaskSearchQuery(List.copyOf(terms));
+    }
+
+    public boolean isEmpty() {
+        return terms.isEmpty();
+    }
+
+    /**
+     * Renders the query as a PostgreSQL {@code tsquery}: every term as a prefix, all required.
+     * Example: {@code rep:* & jav:*}.
+     */
+    public String toTsQuery() {
+        return String.join(" & ", terms.stream().map(term -> term + ":*").toList());
+    }
+}
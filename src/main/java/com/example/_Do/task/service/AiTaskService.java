@@ -1,22 +1,39 @@
 package com.example._Do.task.service;
 
 import com.example._Do.task.dto.AiTaskResponse;
+import com.example._Do.task.exception.AiServiceUnavailableException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestClient;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.util.Base64;
-import java.util.List;
-import java.util.Map;
-
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service that turns a voice recording into a task suggestion via Gemini.
+ * <p>
+ * At most {@code application.tasks.ai.max-concurrent-requests} recordings are processed at a time
+ * on this node (set it to the Gemini quota divided by the number of nodes); a request waits up to
+ * {@code acquire-timeout} for a free slot and is then rejected with 503. This also bounds the
+ * memory held by the in-flight recordings. The per-user share is limited by the size-weighted
+ * {@code ai-generate} rate limit policy.
+ * </p>
+ * <p>
+ * Metrics: {@code ai.gemini.requests.active} (gauge) and {@code ai.gemini.requests.rejected}.
+ * </p>
+ */
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class AiTaskService {
 
     @Value("${google.gemini.api-key}")
@@ -26,12 +43,59 @@ public class AiTaskService {
     private String geminiUrl;
 
     private final ObjectMapper objectMapper;
+    private final Semaphore geminiPermits;
+    private final long acquireTimeoutNanos;
+    private final Counter rejected;
+
+    public AiTaskService(
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${application.tasks.ai.max-concurrent-requests:4}") int maxConcurrentRequests,
+            @Value("${application.tasks.ai.acquire-timeout:2s}") Duration acquireTimeout
+    ) {
+        this.objectMapper = objectMapper;
+        this.geminiPermits = new Semaphore(maxConcurrentRequests, true);
+        this.acquireTimeoutNanos = acquireTimeout.toNanos();
+        this.rejected = Counter.builder("ai.gemini.requests.rejected")
+                .description("Voice task requests rejected because all Gemini slots were busy")
+                .register(meterRegistry);
+        Gauge.builder("ai.gemini.requests.active", geminiPermits, permits -> maxConcurrentRequests - permits.availablePermits())
+                .description("Voice task requests being processed right now")
+                .register(meterRegistry);
+    }
 
-    // TODO refactor
+    /**
+     * Generates a task suggestion from a voice recording.
+     *
+     * @param file The recording (WAV).
+     * @return The detected task.
+     * @throws AiServiceUnavailableException If no Gemini slot became free within the acquire timeout.
+     */
     public AiTaskResponse processVoiceTask(MultipartFile file) {
+        acquirePermit();
+        try {
+            return requestTask(file);
+        } finally {
+            geminiPermits.release();
+        }
+    }
+
+    private void acquirePermit() {
+        try {
+            if (geminiPermits.tryAcquire(acquireTimeoutNanos, TimeUnit.NANOSECONDS)) {
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        rejected.increment();
+        throw new AiServiceUnavailableException("The AI assistant is busy. Please try again shortly.");
+    }
+
+    // TODO refactor
+    private AiTaskResponse requestTask(MultipartFile file) {
         try {
             log.info("Processing voice file: {}, size: {}", file.getOriginalFilename(), file.getSize());
-            String base64Audio = Base64.getEncoder().encodeToString(file.getBytes());
             String today = java.time.LocalDate.now().toString();
             if (apiKey == null || apiKey.isEmpty()) {
                 throw new RuntimeException("Api-Key is not found.");
@@ -61,24 +125,16 @@ public class AiTaskService {
             }
             """.formatted(today);
 
-            Map<String, Object> textPart = Map.of(
-                    "text", englishPrompt
-            );
-
-            Map<String, Object> audioPart = Map.of(
-                    "inline_data", Map.of(
-                            "mime_type", "audio/wav",
-                            "data", base64Audio
-                    )
-            );
-
-            Map<String, Object> contentObject = Map.of("parts", List.of(textPart, audioPart));
-            Map<String, Object> requestBody = Map.of("contents", List.of(contentObject));
-
+            // The recording is Base64-encoded while it is sent (see GeminiRequestWriter)
             RestClient restClient = RestClient.create();
             String response = restClient.post()
                     .uri(geminiUrl + "?key=" + apiKey)
-                    .body(requestBody)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(body -> {
+                        try (InputStream audio = file.getInputStream()) {
+                            GeminiRequestWriter.write(objectMapper, englishPrompt, "audio/wav", audio, body);
+                        }
+                    })
                     .retrieve()
                     .body(String.class);
 
@@ -0,0 +1,64 @@
+package com.example._Do.task.service;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Writes the {@code generateContent} request for a prompt and an inline audio recording.
+ * <p>
+ * The recording is streamed from its {@link InputStream} and Base64-encoded block by block straight
+ * into the JSON output ({@link JsonGenerator#writeBinary(InputStream, int)}), so neither the raw
+ * audio, nor its Base64 string, nor the serialized request is ever held in memory as a whole:
+ * the heap used per request only depends on the (fixed) buffer sizes, not on the size of the recording.
+ * </p>
+ */
+final class GeminiRequestWriter {
+
+    private GeminiRequestWriter() {
+    }
+
+    /**
+     * Writes {@code {"contents":[{"parts":[{"text":...},{"inline_data":{"mime_type":...,"data":...}}]}]}}.
+     *
+     * @param objectMapper The mapper whose factory creates the generator.
+     * @param prompt       The text part.
+     * @param mimeType     The MIME type of the recording.
+     * @param audio        The recording; read to the end but not closed.
+     * @param output       The request body; flushed but not closed.
+     * @throws IOException If reading the recording or writing the body fails.
+     */
+    static void write(ObjectMapper objectMapper, String prompt, String mimeType, InputStream audio, OutputStream output)
+            throws IOException {
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(output, JsonEncoding.UTF8)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.writeStartObject();
+            generator.writeArrayFieldStart("contents");
+            generator.writeStartObject();
+            generator.writeArrayFieldStart("parts");
+
+            generator.writeStartObject();
+            generator.writeStringField("text", prompt);
+            generator.writeEndObject();
+
+            generator.writeStartObject();
+            generator.writeObjectFieldStart("inline_data");
+            generator.writeStringField("mime_type", mimeType);
+            generator.writeFieldName("data");
+            // Standard Base64 alphabet with padding and without line feeds (as Base64.getEncoder())
+            generator.writeBinary(audio, -1);
+            generator.writeEndObject();
+            generator.writeEndObject();
+
+            generator.writeEndArray();
+            generator.writeEndObject();
+            generator.writeEndArray();
+            generator.writeEndObject();
+        }
+        output.flush();
+    }
+}
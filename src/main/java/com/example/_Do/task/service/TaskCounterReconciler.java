@@ -0,0 +1,29 @@
+package com.example._Do.task.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Schedules the periodic recount of the task counters ({@link TaskCounterService#reconcileCounters}).
+ * <p>
+ * The recount reads every counted user, so it must not run on all nodes at once: it is opt-in per node
+ * ({@code application.tasks.stats.reconcile-enabled}) and meant to be enabled on exactly one of them.
+ * </p>
+ */
+@Component
+@ConditionalOnProperty(name = "application.tasks.stats.reconcile-enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class TaskCounterReconciler {
+
+    private final TaskCounterService taskCounterService;
+
+    @Scheduled(
+            initialDelayString = "${application.tasks.stats.reconcile-interval:PT1H}",
+            fixedDelayString = "${application.tasks.stats.reconcile-interval:PT1H}"
+    )
+    public void reconcileCounters() {
+        taskCounterService.reconcileCounters();
+    }
+}
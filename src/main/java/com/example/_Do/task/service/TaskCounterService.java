@@ -0,0 +1,240 @@
+package com.example._Do.task.service;
+
+import com.example._Do.task.dto.TaskCounterState;
+import com.example._Do.task.entity.Priority;
+import com.example._Do.task.entity.Task;
+import com.example._Do.task.entity.TaskCounter;
+import com.example._Do.task.entity.TaskCounterId;
+import com.example._Do.task.repository.TaskCounterRepository;
+import com.example._Do.task.repository.TaskRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * Service that maintains the per-user task counters behind the statistics endpoint.
+ * <p>
+ * The write methods join the caller's transaction, so the counters change atomically with
+ * the tasks and roll back with them. They are relative bulk updates on at most six small rows:
+ * the cost depends on the number of written tasks, not on the number of tasks of the user.
+ * </p>
+ * <p>
+ * The deltas are computed from the tasks as stored when the counter statement runs. Under READ
+ * COMMITTED, two transactions writing the same task would both subtract its old state, so
+ * {@link #lock} and {@link #uncount} first lock the tasks: a concurrent write waits for the lock
+ * and then sees the committed result of the other write.
+ * </p>
+ * <p>
+ * Single-task writes first try a guarded statement that only applies if no counter changes (the owner
+ * has no counters, or the task keeps its priority and completion state); it needs no lock at all.
+ * Completion toggles derive the delta from the UPDATE that flipped the flag ({@link #countToggled}).
+ * Only when the guard fails do they read the old state with {@link #lock} and move the task between counters.
+ * </p>
+ * <p>
+ * Counters are created from a full count on the first statistics request of a user; until then
+ * the write methods are no-ops for that user. A scheduled job ({@link TaskCounterReconciler}, on one node)
+ * recounts every user with counters and fixes drift (e.g. from direct SQL changes or a write racing with
+ * the initial count).
+ * </p>
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TaskCounterService {
+
+    /**
+     * Counter update order (same as the primary key), so concurrent writers lock rows in the same order.
+     */
+    private static final Comparator<TaskCounterId> KEY_ORDER = Comparator
+            .comparing((TaskCounterId id) -> id.getPriority().name())
+            .thenComparing(TaskCounterId::isCompleted);
+
+    private final TaskCounterRepository taskCounterRepository;
+    private final TaskRepository taskRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${application.tasks.stats.reconcile-batch-size:500}")
+    private int reconcileBatchSize;
+
+    /**
+     * Retrieves the counters of a user, creating them on first use.
+     *
+     * @param userId The ID of the user.
+     * @return One counter per priority and completion state.
+     */
+    public List<TaskCounter> getCounters(Long userId) {
+        List<TaskCounter> counters = taskCounterRepository.findAllByIdUserId(userId);
+        if (!counters.isEmpty()) {
+            return counters;
+        }
+        try {
+            taskCounterRepository.initialize(userId);
+            log.info("Task counters initialized for user: {}", userId);
+        } catch (DataIntegrityViolationException e) {
+            // Initialized concurrently by another request
+            log.debug("Task counters of user {} already initialized", userId);
+        }
+        return taskCounterRepository.findAllByIdUserId(userId);
+    }
+
+    /**
+     * Counts newly created tasks. Call after they were persisted (the priority default is applied on persist).
+     *
+     * @param userId The ID of the owner.
+     * @param tasks  The created tasks.
+     */
+    public void countCreated(Long userId, Collection<Task> tasks) {
+        Map<TaskCounterId, Long> deltas = new TreeMap<>(KEY_ORDER);
+        for (Task task : tasks) {
+            Priority priority = task.getPriority() == null ? Priority.MEDIUM : task.getPriority();
+            deltas.merge(new TaskCounterId(userId, priority, task.isCompleted()), 1L, Long::sum);
+        }
+        deltas.forEach((key, delta) -> taskCounterRepository.add(userId, key.getPriority(), key.isCompleted(), delta));
+    }
+
+    /**
+     * Locks an existing task and reads its counted state. Call before the task is updated or deleted.
+     * <p>
+     * The lock is held until the caller's transaction ends, so the state stays the one the
+     * write starts from; pass it to {@link #countChanged} or {@link #countDeleted} afterwards.
+     * </p>
+     *
+     * @param userId The ID of the owner.
+     * @param taskId The ID of the task.
+     * @return The state of the task, or empty if it does not exist or belongs to someone else.
+     */
+    public Optional<TaskCounterState> lock(Long userId, Long taskId) {
+        return taskRepository.lockCounterStateByIdAndUserId(taskId, userId);
+    }
+
+    /**
+     * Moves an updated task to the counter of its new state. No-op if the state did not change
+     * or the owner has no counters.
+     *
+     * @param userId    The ID of the owner.
+     * @param before    The state returned by {@link #lock}.
+     * @param priority  The new priority ({@code null} is counted as {@code MEDIUM}).
+     * @param completed The new completion state.
+     */
+    public void countChanged(Long userId, TaskCounterState before, Priority priority, boolean completed) {
+        TaskCounterId from = new TaskCounterId(userId, before.priority(), before.completed());
+        TaskCounterId to = new TaskCounterId(userId, priority == null ? Priority.MEDIUM : priority, completed);
+        if (!before.counted() || from.equals(to)) {
+            return;
+        }
+        Map<TaskCounterId, Long> deltas = new TreeMap<>(KEY_ORDER);
+        deltas.put(from, -1L);
+        deltas.put(to, 1L);
+        deltas.forEach((key, delta) -> taskCounterRepository.add(userId, key.getPriority(), key.isCompleted(), delta));
+    }
+
+    /**
+     * Moves a task whose completion flag was just flipped by a conditional UPDATE (one updated row)
+     * to the counter of its new state. The UPDATE holds the lock on the task, so no {@link #lock} is needed.
+     *
+     * @param userId    The ID of the owner.
+     * @param taskId    The ID of the task.
+     * @param completed The new completion state.
+     */
+    public void countToggled(Long userId, Long taskId, boolean completed) {
+        taskCounterRepository.moveCompleted(userId, taskId, completed);
+    }
+
+    /**
+     * Removes a deleted task from its counter. No-op if the owner has no counters.
+     *
+     * @param userId The ID of the owner.
+     * @param before The state returned by {@link #lock}.
+     */
+    public void countDeleted(Long userId, TaskCounterState before) {
+        if (before.counted()) {
+            taskCounterRepository.add(userId, before.priority(), before.completed(), -1);
+        }
+    }
+
+    /**
+     * Locks existing tasks and removes them from their counters. Call before the tasks are updated or deleted
+     * (batch writes; single-task writes use {@link #lock}).
+     * <p>
+     * The locks are held until the caller's transaction ends, so the later {@link #count} (or the
+     * deletion) and the counters of concurrent writers see the tasks in a consistent state.
+     * </p>
+     *
+     * @param userId  The ID of the owner.
+     * @param taskIds The IDs of the tasks (tasks of other users are ignored).
+     * @return The IDs of the owned tasks among them, in ascending order.
+     */
+    public List<Long> uncount(Long userId, Collection<Long> taskIds) {
+        List<Long> lockedIds = taskRepository.lockIdsByIdInAndUserId(taskIds, userId);
+        if (!lockedIds.isEmpty()) {
+            taskCounterRepository.addTasks(userId, lockedIds, -1);
+        }
+        return lockedIds;
+    }
+
+    /**
+     * Adds existing tasks to their counters. Call after the tasks were updated.
+     *
+     * @param userId  The ID of the owner.
+     * @param taskIds The IDs of the tasks (tasks of other users are ignored).
+     */
+    public void count(Long userId, Collection<Long> taskIds) {
+        taskCounterRepository.addTasks(userId, taskIds, 1);
+    }
+
+    /**
+     * Recounts the counters of one user and fixes those that drifted.
+     * <p>
+     * The counters are locked first. Writers update them in the same transaction as the tasks,
+     * so the lock waits for any writer holding them, and the recount then sees its committed tasks;
+     * writers that come later wait for the recount and apply their delta on top of it.
+     * </p>
+     *
+     * @param userId The ID of the user.
+     * @return The number of corrected counters.
+     */
+    public int reconcile(Long userId) {
+        Integer corrected = transactionTemplate.execute(status -> {
+            taskCounterRepository.lockAllByIdUserId(userId);
+            return taskCounterRepository.reconcile(userId);
+        });
+        return corrected == null ? 0 : corrected;
+    }
+
+    /**
+     * Recounts the counters of every user and fixes those that drifted.
+     * <p>
+     * Each user is recounted in its own short transaction.
+     * </p>
+     */
+    public void reconcileCounters() {
+        long users = 0;
+        long corrected = 0;
+        Long lastUserId = 0L;
+        List<Long> userIds;
+        do {
+            userIds = taskCounterRepository.findUserIdsAfter(lastUserId, Limit.of(reconcileBatchSize));
+            for (Long userId : userIds) {
+                int drifted = reconcile(userId);
+                if (drifted > 0) {
+                    log.warn("Corrected {} drifted task counters of user {}", drifted, userId);
+                    corrected += drifted;
+                }
+                lastUserId = userId;
+            }
+            users += userIds.size();
+        } while (userIds.size() == reconcileBatchSize);
+        log.info("Task counters reconciled for {} users ({} corrected)", users, corrected);
+    }
+}
@@ -1,23 +1,56 @@
 package com.example._Do.task.service;
 
+import com.example._Do.auth.principal.AuthenticatedUser;
+import com.example._Do.exception.PreconditionFailedException;
+import com.example._Do.task.cache.TaskResponseCache;
+import com.example._Do.task.dto.PriorityCount;
+import com.example._Do.task.dto.TaskBatchCreateRequest;
+import com.example._Do.task.dto.TaskBatchDeleteRequest;
+import com.example._Do.task.dto.TaskBatchResponse;
+import com.example._Do.task.dto.TaskBatchUpdateRequest;
+import com.example._Do.task.dto.TaskCounterState;
+import com.example._Do.task.dto.TaskFilter;
+import com.example._Do.task.dto.TaskPatch;
 import com.example._Do.task.dto.TaskRequest;
 import com.example._Do.task.dto.TaskResponse;
+import com.example._Do.task.dto.TaskSliceResponse;
+import com.example._Do.task.dto.TaskStatsResponse;
+import com.example._Do.task.entity.Priority;
 import com.example._Do.task.entity.Task;
+import com.example._Do.task.entity.TaskCounter;
+import com.example._Do.task.exception.InvalidPageException;
+import com.example._Do.task.exception.InvalidTaskBatchException;
 import com.example._Do.task.mapper.TaskMapper;
+import com.example._Do.task.pagination.TaskCursor;
+import com.example._Do.task.pagination.TaskCursorCodec;
+import com.example._Do.task.pagination.TaskCursorSort;
 import com.example._Do.task.repository.TaskRepository;
+import com.example._Do.task.search.TaskSearchQuery;
 import com.example._Do.user.entity.User;
 import com.example._Do.user.repository.UserRepository;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.security.authentication.AuthenticationCredentialsNotFoundException;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Service class for managing Task operations.
@@ -33,6 +66,13 @@ public class TaskService {
     private final TaskRepository taskRepository;
     private final TaskMapper taskMapper;
     private final UserRepository userRepository;
+    private final TaskCursorCodec taskCursorCodec;
+    private final TaskWriteMetrics taskWriteMetrics;
+    private final TaskCounterService taskCounterService;
+    private final TaskResponseCache taskResponseCache;
+
+    @Value("${application.tasks.batch.max-size:100}")
+    private int maxBatchSize;
 
     /**
      * Creates a new task for the currently authenticated user.
@@ -42,99 +82,480 @@ public class TaskService {
      */
     @Transactional
     public TaskResponse createTask(TaskRequest taskRequest) {
-        User currentUser = getCurrentUser();
-        log.info("Creating task for user: {}", currentUser);
+        AuthenticatedUser currentUser = getCurrentUser();
+        log.info("Creating task for user: {}", currentUser.id());
 
         // 1. DTO -> Entity
         Task task = taskMapper.toEntity(taskRequest);
 
         // 2. Set the owner (CRITICAL)
-        task.setUser(currentUser);
+        // A reference is enough to write the foreign key; it does not load the user row.
+        task.setUser(userRepository.getReferenceById(currentUser.id()));
 
-        // 3. Save and return
+        // 3. Save, count and return
         Task savedTask = taskRepository.save(task);
+        taskCounterService.countCreated(currentUser.id(), List.of(savedTask));
+        invalidateCache(currentUser.id());
         return taskMapper.toResponse(savedTask);
     }
 
 
     /**
-     * Retrieves all tasks belonging to the current user.
+     * Retrieves the tasks of the current user matching the filter, with the total count.
+     * First pages are served from the cache when it is enabled. Not transactional: a cache hit
+     * takes no database connection, a miss runs the queries in their own read-only transaction.
+     */
+    public Page<TaskResponse> getAllTasks(TaskFilter filter, Pageable pageable) {
+        Long userId = getCurrentUser().id();
+        log.info("Retrieving all tasks for user: {}", userId);
+        filter.validate();
+        checkOffset(pageable);
+
+        // Projection query: rows go straight into DTOs, no entities are loaded into the persistence context
+        return (Page<TaskResponse>) taskResponseCache.getFirstPage(userId, filter, pageable, true,
+                () -> taskRepository.findPage(userId, filter, pageable));
+    }
+
+    /**
+     * Retrieves a page of tasks matching the filter without the total count.
+     * Avoids the COUNT(*) query of {@link #getAllTasks(TaskFilter, Pageable)}.
+     * Not transactional, like {@link #getAllTasks(TaskFilter, Pageable)}.
+     */
+    public Slice<TaskResponse> getTaskSlice(TaskFilter filter, Pageable pageable) {
+        Long userId = getCurrentUser().id();
+        log.info("Retrieving task slice for user: {}", userId);
+        filter.validate();
+        checkOffset(pageable);
+
+        return taskResponseCache.getFirstPage(userId, filter, pageable, false,
+                () -> taskRepository.findSlice(userId, filter, pageable));
+    }
+
+    /**
+     * Searches the title and description of the current user's tasks, best matches first.
+     * Every word of the query is matched as a prefix, e.g. "rep jav" finds "Java report".
+     */
+    @Transactional(readOnly = true)
+    public Slice<TaskResponse> searchTasks(String query, Pageable pageable) {
+        Long userId = getCurrentUser().id();
+        checkOffset(pageable);
+        TaskSearchQuery searchQuery = TaskSearchQuery.parse(query);
+        if (searchQuery.isEmpty()) {
+            return new SliceImpl<>(List.of(), pageable, false);
+        }
+        log.info("Searching tasks for user: {} (terms: {})", userId, searchQuery.terms().size());
+
+        return taskRepository.search(userId, searchQuery, pageable);
+    }
+
+    /**
+     * Retrieves the next tasks of the current user using cursor (keyset) pagination.
+     *
+     * @param sort      The sort order.
+     * @param cursor    The cursor returned with the previous slice, or {@code null} for the first slice.
+     * @param size      The maximum number of tasks to return.
+     * @param withCount Whether to include the total number of matching tasks (costs an extra COUNT query).
+     * @param filter    The filters to apply; keep them unchanged while following the cursors of one listing.
+     * @return The slice with the cursor for the next one.
      */
     @Transactional(readOnly = true)
-    public Page<TaskResponse> getAllTasks(Pageable pageable) {
-        User currentUser = getCurrentUser();
-        log.info("Retrieving all tasks for user: {}", currentUser);
+    public TaskSliceResponse getTasksByCursor(TaskCursorSort sort, String cursor, int size, boolean withCount,
+                                              TaskFilter filter) {
+        Long userId = getCurrentUser().id();
+        filter.validate();
+        TaskCursor after = cursor == null || cursor.isBlank() ? null : taskCursorCodec.decode(cursor, userId, sort);
+        log.info("Retrieving tasks by cursor for user: {}", userId);
 
-        Page<Task> taskPage = taskRepository.findAllByUserId(currentUser.getId(), pageable);
+        // Fetch one extra task to know whether another slice follows
+        List<TaskResponse> tasks = taskRepository.findSliceAfter(userId, filter, sort, after, size + 1);
+        boolean hasNext = tasks.size() > size;
+        List<TaskResponse> content = hasNext ? tasks.subList(0, size) : tasks;
 
-        return taskPage.map(taskMapper::toResponse);
+        return TaskSliceResponse.builder()
+                .content(content)
+                .size(size)
+                .hasNext(hasNext)
+                .nextCursor(hasNext ? taskCursorCodec.encode(sort.cursorAfter(content.get(size - 1)), userId) : null)
+                .totalElements(withCount ? taskRepository.countFiltered(userId, filter) : null)
+                .build();
+    }
+
+    /**
+     * Retrieves the open, completed and overdue task counts of the current user.
+     * <p>
+     * Open and completed come from the per-user counters (at most six rows, whatever the number
+     * of tasks); overdue is counted on the open tasks whose due date has passed.
+     * Not transactional: the counters are created in their own transaction on first use.
+     * </p>
+     */
+    public TaskStatsResponse getTaskStats() {
+        Long userId = getCurrentUser().id();
+        log.info("Retrieving task statistics for user: {}", userId);
+
+        Map<Priority, long[]> counts = new EnumMap<>(Priority.class);
+        for (Priority priority : Priority.values()) {
+            counts.put(priority, new long[3]); // open, completed, overdue
+        }
+        for (TaskCounter counter : taskCounterService.getCounters(userId)) {
+            counts.get(counter.getId().getPriority())[counter.getId().isCompleted() ? 1 : 0] = counter.getTaskCount();
+        }
+        for (PriorityCount overdue : taskRepository.countOverdueByPriority(userId, LocalDateTime.now())) {
+            counts.get(overdue.priority())[2] = overdue.count();
+        }
+
+        Map<Priority, TaskStatsResponse.PriorityStats> byPriority = new EnumMap<>(Priority.class);
+        long open = 0;
+        long completed = 0;
+        long overdue = 0;
+        for (Map.Entry<Priority, long[]> entry : counts.entrySet()) {
+            long[] count = entry.getValue();
+            byPriority.put(entry.getKey(), new TaskStatsResponse.PriorityStats(count[0], count[1], count[2]));
+            open += count[0];
+            completed += count[1];
+            overdue += count[2];
+        }
+        return TaskStatsResponse.builder()
+                .total(open + completed)
+                .open(open)
+                .completed(completed)
+                .overdue(overdue)
+                .byPriority(byPriority)
+                .build();
     }
 
     /**
      * Retrieves a specific task by ID, strictly ensuring ownership.
+     * Ownership is checked by the query itself (one indexed SELECT into the response DTO);
+     * the result is cached per user when the cache is enabled. Not transactional, so a cache hit
+     * takes no database connection.
      */
-    @Transactional(readOnly = true)
     public TaskResponse getTaskById(Long taskId) {
-        Task task = getTaskOrThrow(taskId);
-        return taskMapper.toResponse(task);
+        Long userId = getCurrentUser().id();
+        return taskResponseCache.getTask(userId, taskId, () -> loadTask(taskId, userId));
+    }
+
+    /**
+     * Updates an existing task if it still has the expected version.
+     * A single owner-scoped UPDATE unless the task moves to another counter (see {@link TaskCounterService}).
+     *
+     * @param expectedVersion The version from the If-Match header, or {@code null} for an unconditional update.
+     * @throws PreconditionFailedException If the task was changed in the meantime.
+     */
+    @Transactional
+    public TaskResponse updateTask(Long taskId, TaskRequest taskRequest, Long expectedVersion) {
+        Long userId = getCurrentUser().id();
+        log.info("Updating task ID: {}", taskId);
+
+        LocalDateTime now = LocalDateTime.now();
+        int updatedRows = taskRepository.updateUncountedByIdAndUserId(
+                taskId,
+                userId,
+                expectedVersion,
+                taskRequest.getTitle(),
+                taskRequest.getDescription(),
+                taskRequest.getPriority(),
+                taskRequest.getPriority() == null ? Priority.MEDIUM : taskRequest.getPriority(),
+                taskRequest.getDueDate(),
+                taskRequest.isCompleted(),
+                now
+        );
+        if (updatedRows == 0) {
+            // Missing, stale, or moving to another counter: lock to read the state the counters hold
+            TaskCounterState before = taskCounterService.lock(userId, taskId)
+                    .orElseThrow(() -> taskNotFound(taskId, userId));
+            updatedRows = taskRepository.updateByIdAndUserId(
+                    taskId,
+                    userId,
+                    expectedVersion,
+                    taskRequest.getTitle(),
+                    taskRequest.getDescription(),
+                    taskRequest.getPriority(),
+                    taskRequest.getDueDate(),
+                    taskRequest.isCompleted(),
+                    now
+            );
+            if (updatedRows == 0) {
+                throw writeFailed(taskId, userId, expectedVersion);
+            }
+            taskCounterService.countChanged(userId, before, taskRequest.getPriority(), taskRequest.isCompleted());
+        }
+        invalidateCache(userId);
+        taskWriteMetrics.recordFullUpdate(taskRequest);
+
+        return loadTask(taskId, userId);
+    }
+
+    /**
+     * Partially updates a task (JSON Merge Patch) if it still has the expected version.
+     * Only the patched columns are written; a patch that only sets {@code completed}
+     * takes the dedicated completion fast path, which flips the flag and moves the task between counters.
+     *
+     * @param expectedVersion The version from the If-Match header, or {@code null} for an unconditional update.
+     * @throws PreconditionFailedException If the task was changed in the meantime.
+     */
+    @Transactional
+    public TaskResponse patchTask(Long taskId, TaskPatch patch, Long expectedVersion) {
+        Long userId = getCurrentUser().id();
+        if (patch.isEmpty()) {
+            TaskResponse current = loadTask(taskId, userId);
+            if (expectedVersion != null && current.getVersion() != expectedVersion) {
+                throw versionMismatch(taskId);
+            }
+            return current;
+        }
+        log.info("Patching task ID: {} (fields: {})", taskId, patch.getFields());
+
+        LocalDateTime now = LocalDateTime.now();
+        int updatedRows;
+        if (patch.isCompletionOnly()) {
+            updatedRows = taskRepository.toggleCompletedByIdAndUserId(taskId, userId, expectedVersion, patch.isCompleted(), now);
+            if (updatedRows == 1) {
+                taskCounterService.countToggled(userId, taskId, patch.isCompleted());
+            }
+        } else {
+            updatedRows = taskRepository.patch(taskId, userId, expectedVersion, patch, now, true);
+        }
+        if (updatedRows == 0) {
+            // Missing, stale, or moving to another counter: lock to read the state the counters hold
+            TaskCounterState before = taskCounterService.lock(userId, taskId)
+                    .orElseThrow(() -> taskNotFound(taskId, userId));
+            updatedRows = patch.isCompletionOnly()
+                    ? taskRepository.updateCompletedByIdAndUserId(taskId, userId, expectedVersion, patch.isCompleted(), now)
+                    : taskRepository.patch(taskId, userId, expectedVersion, patch, now, false);
+            if (updatedRows == 0) {
+                throw writeFailed(taskId, userId, expectedVersion);
+            }
+            taskCounterService.countChanged(userId, before,
+                    patch.contains(TaskPatch.Field.PRIORITY) ? patch.getPriority() : before.priority(),
+                    patch.contains(TaskPatch.Field.COMPLETED) ? patch.isCompleted() : before.completed());
+        }
+        invalidateCache(userId);
+        taskWriteMetrics.recordPatch(patch);
+
+        return loadTask(taskId, userId);
+    }
+
+    /**
+     * Deletes a task by ID if it still has the expected version.
+     * A single owner-scoped DELETE when the owner has no counters (see {@link TaskCounterService}).
+     *
+     * @param expectedVersion The version from the If-Match header, or {@code null} for an unconditional delete.
+     * @throws PreconditionFailedException If the task was changed in the meantime.
+     */
+    @Transactional
+    public void deleteTask(Long taskId, Long expectedVersion) {
+        Long userId = getCurrentUser().id();
+        log.info("Deleting task ID: {}", taskId);
+
+        if (taskRepository.deleteUncountedByIdAndUserId(taskId, userId, expectedVersion) == 0) {
+            // Missing, stale, or counted: lock to read the state the counters hold
+            TaskCounterState before = taskCounterService.lock(userId, taskId)
+                    .orElseThrow(() -> taskNotFound(taskId, userId));
+            int deletedRows = expectedVersion == null
+                    ? taskRepository.deleteByIdAndUserId(taskId, userId)
+                    : taskRepository.deleteByIdAndUserIdAndVersion(taskId, userId, expectedVersion);
+            if (deletedRows == 0) {
+                throw writeFailed(taskId, userId, expectedVersion);
+            }
+            taskCounterService.countDeleted(userId, before);
+        }
+        invalidateCache(userId);
     }
 
+    // --- BATCH OPERATIONS ---
+
     /**
-     * Updates an existing task.
-     * Uses MapStruct to merge changes onto the existing entity.
+     * Creates several tasks for the current user in one transaction.
+     * <p>
+     * Ids come from a pooled sequence, so the INSERTs are sent as JDBC batches.
+     * </p>
+     *
+     * @param request The tasks to create (already validated together).
+     * @return One CREATED result per task, in request order.
      */
     @Transactional
-    public TaskResponse updateTask(Long taskId,TaskRequest taskRequest) {
-        Task task = getTaskOrThrow(taskId);
+    public TaskBatchResponse createTasks(TaskBatchCreateRequest request) {
+        checkBatchSize(request.tasks().size());
+        AuthenticatedUser currentUser = getCurrentUser();
+        log.info("Creating {} tasks for user: {}", request.tasks().size(), currentUser.id());
+
+        User owner = userRepository.getReferenceById(currentUser.id());
+        List<Task> tasks = request.tasks().stream()
+                .map(taskRequest -> {
+                    Task task = taskMapper.toEntity(taskRequest);
+                    task.setUser(owner);
+                    return task;
+                })
+                .toList();
+        List<Task> savedTasks = taskRepository.saveAll(tasks);
+        taskCounterService.countCreated(currentUser.id(), savedTasks);
+        invalidateCache(currentUser.id());
+
+        List<TaskBatchResponse.ItemResult> results = new ArrayList<>(savedTasks.size());
+        for (int i = 0; i < savedTasks.size(); i++) {
+            Task task = savedTasks.get(i);
+            results.add(new TaskBatchResponse.ItemResult(i, task.getId(), TaskBatchResponse.Status.CREATED, taskMapper.toResponse(task)));
+        }
+        return TaskBatchResponse.of(results);
+    }
 
-        log.info("Updating task ID: {}", task);
+    /**
+     * Updates several tasks of the current user in one transaction.
+     * <p>
+     * The owned tasks are locked, then loaded with one SELECT; the changes are flushed as batched UPDATEs.
+     * Tasks that do not exist or belong to someone else are reported as NOT_FOUND.
+     * </p>
+     *
+     * @param request The task updates (already validated together).
+     * @return One result per item, in request order.
+     */
+    @Transactional
+    public TaskBatchResponse updateTasks(TaskBatchUpdateRequest request) {
+        checkBatchSize(request.tasks().size());
+        Long userId = getCurrentUser().id();
+        List<Long> ids = request.tasks().stream().map(TaskBatchUpdateRequest.Item::id).toList();
+        checkNoDuplicates(ids);
+        log.info("Updating {} tasks for user: {}", ids.size(), userId);
 
-        taskMapper.updateEntityFromRequest(taskRequest,task);
+        // Lock before loading, so the entities are not older than a concurrent write that held the lock
+        List<Long> ownedIds = taskCounterService.uncount(userId, ids);
+        Map<Long, Task> ownedTasks = ownedIds.isEmpty()
+                ? Map.of()
+                : taskRepository.findAllByIdInAndUserId(ownedIds, userId).stream()
+                        .collect(Collectors.toMap(Task::getId, Function.identity()));
+        request.tasks().forEach(item -> {
+            Task task = ownedTasks.get(item.id());
+            if (task != null) {
+                taskMapper.updateEntityFromRequest(item.task(), task);
+                taskWriteMetrics.recordBatchUpdate(item.task());
+            }
+        });
+        // Flush now so updatedAt is set (@PreUpdate) before the responses are built
+        taskRepository.flush();
+        if (!ownedTasks.isEmpty()) {
+            taskCounterService.count(userId, ownedTasks.keySet());
+            invalidateCache(userId);
+        }
 
-        Task updatedTask = taskRepository.save(task);
-        return taskMapper.toResponse(updatedTask);
+        List<TaskBatchResponse.ItemResult> results = new ArrayList<>(ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            Task task = ownedTasks.get(ids.get(i));
+            results.add(task == null
+                    ? new TaskBatchResponse.ItemResult(i, ids.get(i), TaskBatchResponse.Status.NOT_FOUND, null)
+                    : new TaskBatchResponse.ItemResult(i, task.getId(), TaskBatchResponse.Status.UPDATED, taskMapper.toResponse(task)));
+        }
+        return TaskBatchResponse.of(results);
     }
 
     /**
-     * Deletes a task by ID.
+     * Deletes several tasks of the current user in one transaction.
+     * <p>
+     * One SELECT finds and locks the owned ids, one DELETE removes them.
+     * Tasks that do not exist or belong to someone else are reported as NOT_FOUND.
+     * </p>
+     *
+     * @param request The IDs of the tasks to delete.
+     * @return One result per ID, in request order.
      */
     @Transactional
-    public void deleteTask(Long taskId) {
-        Task task = getTaskOrThrow(taskId);
-        log.info("Deleting task ID: {}", task);
-        taskRepository.delete(task);
+    public TaskBatchResponse deleteTasks(TaskBatchDeleteRequest request) {
+        checkBatchSize(request.ids().size());
+        Long userId = getCurrentUser().id();
+        List<Long> ids = request.ids();
+        checkNoDuplicates(ids);
+        log.info("Deleting {} tasks for user: {}", ids.size(), userId);
+
+        Set<Long> ownedIds = new HashSet<>(taskCounterService.uncount(userId, ids));
+        if (!ownedIds.isEmpty()) {
+            taskRepository.deleteAllByIdInAndUserId(ownedIds, userId);
+            invalidateCache(userId);
+        }
+
+        List<TaskBatchResponse.ItemResult> results = new ArrayList<>(ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            Long id = ids.get(i);
+            TaskBatchResponse.Status status = ownedIds.contains(id) ? TaskBatchResponse.Status.DELETED : TaskBatchResponse.Status.NOT_FOUND;
+            results.add(new TaskBatchResponse.ItemResult(i, id, status, null));
+        }
+        return TaskBatchResponse.of(results);
     }
 
     // --- HELPER METHODS ---
 
     /**
-     * Helper method to get the currently authenticated User from the SecurityContext.
-     * This avoids passing userId as a parameter in every method.
+     * Loads a task straight from the database (never from the cache).
+     * Used inside write transactions, whose uncommitted state must not be cached.
      */
-    private User getCurrentUser() {
-        String email = SecurityContextHolder.getContext().getAuthentication().getName();
-        return userRepository.findByEmail(email).
-                orElseThrow(() -> new UsernameNotFoundException("User not found"));
+    private TaskResponse loadTask(Long taskId, Long userId) {
+        // SECURITY CHECK: the owner is part of the query, so other users' tasks are never loaded
+        return taskRepository.findResponseByIdAndUserId(taskId, userId)
+                .orElseThrow(() -> taskNotFound(taskId, userId));
     }
 
     /**
-     * Helper method to find a task AND check ownership.
-     * If task doesn't exist OR belongs to another user, it throws exception.
+     * Invalidates the cached reads of a user once the current transaction commits.
      */
-    private Task getTaskOrThrow(Long taskId) {
-        User user = getCurrentUser();
+    private void invalidateCache(Long userId) {
+        taskResponseCache.invalidateAfterCommit(userId);
+    }
 
-        Task task = taskRepository.findById(taskId)
-                .orElseThrow(() -> new EntityNotFoundException("Task not found"));
+    /**
+     * Rejects pages whose offset does not fit the int of {@code setFirstResult}.
+     */
+    private void checkOffset(Pageable pageable) {
+        if (pageable.isPaged() && pageable.getOffset() > Integer.MAX_VALUE) {
+            throw new InvalidPageException("Page " + pageable.getPageNumber() + " is out of range; use cursor pagination");
+        }
+    }
 
-        // SECURITY CHECK: is this my task ?
-        if (!task.getUser().getId().equals(user.getId())) {
-            log.warn("User {} tried to access Task {} which belongs to User {}",
-                    user.getId(), taskId, task.getUser().getId());
-            throw new EntityNotFoundException("Task not found"); // Hide existence for security
+    private void checkBatchSize(int size) {
+        if (size > maxBatchSize) {
+            throw new InvalidTaskBatchException("A batch can contain at most " + maxBatchSize + " tasks");
         }
+    }
 
-        return task;
+    private void checkNoDuplicates(List<Long> ids) {
+        if (new HashSet<>(ids).size() != ids.size()) {
+            throw new InvalidTaskBatchException("A task can only appear once per batch");
+        }
+    }
+
+    /**
+     * Helper method to get the currently authenticated User from the SecurityContext.
+     * This avoids passing userId as a parameter in every method.
+     * The principal is built from the JWT claims, so no database lookup is needed.
+     */
+    private AuthenticatedUser getCurrentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof AuthenticatedUser user) {
+            return user;
+        }
+        throw new AuthenticationCredentialsNotFoundException("No authenticated user found");
+    }
+
+    /**
+     * Explains a conditional write that affected no row: a version mismatch if the owned task
+     * still exists (one extra SELECT, only on this failure path), not found otherwise.
+     */
+    private RuntimeException writeFailed(Long taskId, Long userId, Long expectedVersion) {
+        if (expectedVersion != null && taskRepository.existsByIdAndUserId(taskId, userId)) {
+            return versionMismatch(taskId);
+        }
+        return taskNotFound(taskId, userId);
+    }
+
+    private PreconditionFailedException versionMismatch(Long taskId) {
+        log.info("Task {} was modified concurrently, rejecting conditional write", taskId);
+        return new PreconditionFailedException("Task has been modified by another request");
+    }
+
+    /**
+     * Builds the not-found exception. The same message is used whether the task is missing
+     * or owned by someone else, to hide its existence.
+     */
+    private EntityNotFoundException taskNotFound(Long taskId, Long userId) {
+        log.warn("Task {} not found for user {}", taskId, userId);
+        return new EntityNotFoundException("Task not found");
     }
 
 }
@@ -0,0 +1,108 @@
+package com.example._Do.task.service;
+
+import com.example._Do.task.dto.TaskPatch;
+import com.example._Do.task.dto.TaskRequest;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+/**
+ * Records how many bytes each task update asks the database to write.
+ * <p>
+ * The size is an estimate of the values in the SET clause (UTF-8 length for text, 8 bytes for
+ * timestamps, 1 byte for booleans). It exposes the difference between full updates, which rewrite
+ * the description TEXT on every call, and partial updates that only write the changed columns.
+ * Published as {@code tasks.update.written.bytes}, tagged by {@code operation}.
+ * </p>
+ */
+@Component
+public class TaskWriteMetrics {
+
+    private static final String METRIC_NAME = "tasks.update.written.bytes";
+    private static final int TIMESTAMP_BYTES = 8;
+    private static final int BOOLEAN_BYTES = 1;
+
+    private final DistributionSummary fullUpdates;
+    private final DistributionSummary batchUpdates;
+    private final DistributionSummary patches;
+    private final DistributionSummary completionToggles;
+
+    public TaskWriteMetrics(MeterRegistry meterRegistry) {
+        this.fullUpdates = summary(meterRegistry, "put");
+        this.batchUpdates = summary(meterRegistry, "batch");
+        this.patches = summary(meterRegistry, "patch");
+        this.completionToggles = summary(meterRegistry, "completion");
+    }
+
+    /**
+     * Records a full update (PUT): every editable column is written.
+     */
+    public void recordFullUpdate(TaskRequest request) {
+        fullUpdates.record(fullUpdateSize(request));
+    }
+
+    /**
+     * Records one item of a batch update (also a full update).
+     */
+    public void recordBatchUpdate(TaskRequest request) {
+        batchUpdates.record(fullUpdateSize(request));
+    }
+
+    /**
+     * Records a partial update: only the patched columns (plus updated_at) are written.
+     */
+    public void recordPatch(TaskPatch patch) {
+        long bytes = TIMESTAMP_BYTES;
+        for (TaskPatch.Field field : patch.getFields()) {
+            bytes += switch (field) {
+                case TITLE -> utf8Length(patch.getTitle());
+                case DESCRIPTION -> utf8Length(patch.getDescription());
+                case PRIORITY -> patch.getPriority() == null ? 0 : patch.getPriority().name().length();
+                case DUE_DATE -> TIMESTAMP_BYTES;
+                case COMPLETED -> BOOLEAN_BYTES;
+            };
+        }
+        (patch.isCompletionOnly() ? completionToggles : patches).record(bytes);
+    }
+
+    private static long fullUpdateSize(TaskRequest request) {
+        return utf8Length(request.getTitle())
+                + utf8Length(request.getDescription())
+                + (request.getPriority() == null ? 0 : request.getPriority().name().length())
+                + TIMESTAMP_BYTES // due_date
+                + BOOLEAN_BYTES   // completed
+                + TIMESTAMP_BYTES; // updated_at
+    }
+
+    /**
+     * UTF-8 encoded length without allocating the encoded bytes.
+     */
+    static long utf8Length(CharSequence value) {
+        if (value == null) {
+            return 0;
+        }
+        long length = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                length += 1;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (Character.isHighSurrogate(c)) {
+                length += 4;
+                i++;
+            } else {
+                length += 3;
+            }
+        }
+        return length;
+    }
+
+    private static DistributionSummary summary(MeterRegistry meterRegistry, String operation) {
+        return DistributionSummary.builder(METRIC_NAME)
+                .description("Estimated bytes written per task update")
+                .baseUnit("bytes")
+                .tag("operation", operation)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,121 @@
+package com.example._Do.user.cache;
+
+import com.example._Do.user.entity.User;
+import com.example._Do.user.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded in-process near-cache of users for the authentication path.
+ * <p>
+ * Users are cached in a single cache keyed by id, so {@link #evict(Long)} always reaches the entry.
+ * Lookups by email (the username of {@code UserDetailsService} and login) go through an email to id
+ * index that is refreshed on every read; losing an index entry only costs a database lookup.
+ * There is no lookup by id: no auth path loads a user by id. Access tokens carry the id and role
+ * claims (the principal is built from them), and the per-request token version check reads its own
+ * narrower cache ({@code TokenVersionService}), whose 30s period bounds a lost revocation.
+ * Entries expire after a short TTL, which bounds staleness when an invalidation is missed; changes
+ * to role, password or token version are propagated to every node by {@link UserInvalidationService}.
+ * </p>
+ * <p>
+ * A load that an eviction overtook is not cached: evictions increment a global generation (the id
+ * of a user loaded by email is only known afterwards), and a loaded user is only stored if the
+ * generation did not change while the row was read.
+ * </p>
+ * <p>
+ * Callers receive a detached copy, so a cached user can never be modified or re-attached by accident.
+ * Hit rates are published as {@code cache.gets{cache=users}} (Micrometer Caffeine binder).
+ * </p>
+ */
+@Component
+public class UserCache {
+
+    private final UserRepository userRepository;
+    private final Cache<Long, User> usersById;
+    private final Cache<String, Long> idsByEmail;
+    private final AtomicLong evictions = new AtomicLong();
+
+    public UserCache(
+            UserRepository userRepository,
+            MeterRegistry meterRegistry,
+            @Value("${application.security.user-cache.ttl:5m}") Duration ttl,
+            @Value("${application.security.user-cache.maximum-size:10000}") long maximumSize
+    ) {
+        this.userRepository = userRepository;
+        this.usersById = CaffeineCacheMetrics.monitor(meterRegistry, Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .<Long, User>build(), "users");
+        this.idsByEmail = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    /**
+     * Retrieves a user by email, from the cache or the database. Unknown emails are not cached.
+     *
+     * @param email The email address (username).
+     * @return A detached copy of the user, or empty if no user has this email.
+     */
+    public Optional<User> findByEmail(String email) {
+        Long userId = idsByEmail.getIfPresent(email);
+        User cached = userId != null ? usersById.getIfPresent(userId) : null;
+        if (cached == null || !email.equals(cached.getEmail())) {
+            long generation = evictions.get();
+            return userRepository.findByEmail(email).map(user -> put(user, generation));
+        }
+        idsByEmail.put(email, userId);
+        return Optional.of(copyOf(cached));
+    }
+
+    /**
+     * Drops a user from this node's cache. Loads of the user that are still running are not cached.
+     *
+     * @param userId The ID of the user.
+     */
+    public void evict(Long userId) {
+        evictions.incrementAndGet();
+        usersById.invalidate(userId);
+    }
+
+    /**
+     * Caches a copy of a loaded user unless an eviction happened since the load started.
+     * <p>
+     * The check runs inside the entry's compute, which {@link #evict(Long)} also has to go through,
+     * so an eviction either sees the stored entry and removes it or makes the check fail.
+     * </p>
+     *
+     * @param user     The loaded user.
+     * @param loadedAt The eviction generation read before the load.
+     * @return Another detached copy for the caller.
+     */
+    private User put(User user, long loadedAt) {
+        User copy = copyOf(user);
+        usersById.asMap().compute(copy.getId(),
+                (id, current) -> evictions.get() == loadedAt ? copy : current);
+        idsByEmail.put(copy.getEmail(), copy.getId());
+        return copyOf(copy);
+    }
+
+    private static User copyOf(User user) {
+        return User.builder()
+                .id(user.getId())
+                .firstName(user.getFirstName())
+                .lastName(user.getLastName())
+                .email(user.getEmail())
+                .password(user.getPassword())
+                .role(user.getRole())
+                .tokenVersion(user.getTokenVersion())
+                .build();
+    }
+}
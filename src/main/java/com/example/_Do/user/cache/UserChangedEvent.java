@@ -0,0 +1,10 @@
+package com.example._Do.user.cache;
+
+/**
+ * Published when security-relevant user data (role, password, token version) changes.
+ * Handled by {@link UserInvalidationService} after the transaction commits.
+ *
+ * @param userId The ID of the changed user.
+ */
+public record UserChangedEvent(Long userId) {
+}
@@ -0,0 +1,108 @@
+package com.example._Do.user.cache;
+
+import com.example._Do.auth.service.TokenVersionService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+/**
+ * Propagates user changes (role, password, token version) to the in-process caches of every node.
+ * <p>
+ * Services publish a {@link UserChangedEvent}; once the transaction has committed, the change is
+ * applied locally and published on the Redis channel {@value #CHANNEL}, so no node can reload the
+ * old row after evicting it. Each node evicts
+ * the user from {@link UserCache} and {@link TokenVersionService} when the message arrives.
+ * Publishing and the subscription are switched by {@code application.security.user-cache.invalidation.enabled};
+ * without them (single node, tests) only the local node is invalidated and other nodes would only
+ * catch up when their entries expire.
+ * </p>
+ * <p>
+ * The time from publication to delivery is recorded as {@code users.cache.invalidation.lag}
+ * (based on the publisher's clock, so it includes clock skew between nodes).
+ * </p>
+ */
+@Service
+@Slf4j
+public class UserInvalidationService implements MessageListener {
+
+    public static final String CHANNEL = "user_invalidation";
+
+    private final UserCache userCache;
+    private final TokenVersionService tokenVersionService;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final boolean publish;
+    private final Timer invalidationLag;
+
+    public UserInvalidationService(
+            UserCache userCache,
+            TokenVersionService tokenVersionService,
+            StringRedisTemplate stringRedisTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${application.security.user-cache.invalidation.enabled:true}") boolean publish
+    ) {
+        this.userCache = userCache;
+        this.tokenVersionService = tokenVersionService;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.publish = publish;
+        this.invalidationLag = Timer.builder("users.cache.invalidation.lag")
+                .description("Time from publishing a user invalidation to its delivery on a node")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Invalidates the cached state of a changed user on every node once the publishing
+     * transaction has committed (immediately when published without a transaction).
+     *
+     * @param event The change.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        invalidate(event.userId());
+    }
+
+    /**
+     * Receives invalidations published by any node (including this one).
+     * The payload is {@code <userId>:<publishedAtMillis>}.
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String payload = new String(message.getBody(), StandardCharsets.UTF_8);
+        int separator = payload.indexOf(':');
+        try {
+            Long userId = Long.valueOf(payload.substring(0, separator));
+            long publishedAt = Long.parseLong(payload.substring(separator + 1));
+            evictLocally(userId);
+            invalidationLag.record(Duration.ofMillis(Math.max(System.currentTimeMillis() - publishedAt, 0)));
+        } catch (RuntimeException e) {
+            log.warn("Ignoring malformed user invalidation: {}", payload);
+        }
+    }
+
+    private void invalidate(Long userId) {
+        evictLocally(userId);
+        if (!publish) {
+            return;
+        }
+        try {
+            stringRedisTemplate.convertAndSend(CHANNEL, userId + ":" + System.currentTimeMillis());
+        } catch (DataAccessException e) {
+            // Other nodes catch up when their entries expire
+            log.warn("Could not publish invalidation of user {}: {}", userId, e.getMessage());
+        }
+    }
+
+    private void evictLocally(Long userId) {
+        userCache.evict(userId);
+        tokenVersionService.evict(userId);
+    }
+}
@@ -28,9 +28,14 @@ import java.util.List;
 @AllArgsConstructor
 @NoArgsConstructor
 @Builder
-@Table(name = "users")
+@Table(name = "users", uniqueConstraints = @UniqueConstraint(name = User.EMAIL_CONSTRAINT, columnNames = "email"))
 public class User implements UserDetails {
 
+    /**
+     * Unique constraint on the email column; its violation means the email is already registered.
+     */
+    public static final String EMAIL_CONSTRAINT = "uc_users_email";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -48,7 +53,7 @@ public class User implements UserDetails {
     /**
      * User's email address. Used as the unique username for authentication.
      */
-    @Column(name = "email", unique = true, nullable = false)
+    @Column(name = "email", nullable = false)
     @Size(max = 50, message = "Email is too long")
     @Email(message = "Invalid email format")
     @NotBlank(message = "Email is required")
@@ -71,6 +76,14 @@ public class User implements UserDetails {
     @NotNull(message = "Role is required")
     private Role role;
 
+    /**
+     * Version embedded into every JWT issued for this user.
+     * Incrementing it (e.g., after a role change or account removal) invalidates all tokens issued before.
+     */
+    @Column(name = "token_version", nullable = false)
+    @Builder.Default
+    private int tokenVersion = 0;
+
     // --- UserDetails Interface Implementation ---
 
     /**
@@ -0,0 +1,14 @@
+package com.example._Do.user.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when a refresh token is unknown, expired, revoked or has already been used.
+ */
+@ResponseStatus(HttpStatus.UNAUTHORIZED)
+public class InvalidRefreshTokenException extends UserDomainException {
+    public InvalidRefreshTokenException(String message) {
+        super(message);
+    }
+}
@@ -2,6 +2,9 @@ package com.example._Do.user.repository;
 
 import com.example._Do.user.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -39,4 +42,37 @@ public interface UserRepository extends JpaRepository<User, Long> {
      * @return True if a user with this email exists, False otherwise.
      */
     boolean existsByEmail(String email);
-}
\ No newline at end of file
+
+    /**
+     * Reads only the token version of a user.
+     * <p>
+     * Used to validate the version claim of a JWT without loading the full user entity.
+     * </p>
+     *
+     * @param id The ID of the user.
+     * @return The current token version, or empty if the user no longer exists.
+     */
+    @Query("select u.tokenVersion from User u where u.id = :id")
+    Optional<Integer> findTokenVersionById(@Param("id") Long id);
+
+    /**
+     * Increments the token version of a user, invalidating every JWT issued before.
+     *
+     * @param id The ID of the user.
+     * @return The number of updated rows (0 if the user does not exist).
+     */
+    @Modifying
+    @Query("update User u set u.tokenVersion = u.tokenVersion + 1 where u.id = :id")
+    int incrementTokenVersion(@Param("id") Long id);
+
+    /**
+     * Replaces the password hash of a user without loading the entity.
+     *
+     * @param id       The ID of the user.
+     * @param password The new password hash.
+     * @return The number of updated rows (0 if the user does not exist).
+     */
+    @Modifying
+    @Query("update User u set u.password = :password where u.id = :id")
+    int updatePassword(@Param("id") Long id, @Param("password") String password);
+}
@@ -1,5 +1,6 @@
 package com.example._Do.user.service;
 
+import com.example._Do.user.cache.UserChangedEvent;
 import com.example._Do.user.dto.UserCreateRequest;
 import com.example._Do.user.dto.UserResponse;
 import com.example._Do.user.entity.User;
@@ -8,6 +9,9 @@ import com.example._Do.user.mapper.UserMapper;
 import com.example._Do.user.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -20,16 +24,18 @@ import java.util.stream.Collectors;
  * <p>
  * This service handles administrative tasks such as listing all users and
  * manually creating users (e.g., by an Admin) without generating a login token.
+ * It also stores rehashed passwords after a login with an outdated hash.
  * </p>
  */
 @Service
 @RequiredArgsConstructor
 @Slf4j
-public class UserService {
+public class UserService implements UserDetailsPasswordService {
 
     private final UserRepository userRepository;
     private final UserMapper userMapper;
     private final PasswordEncoder passwordEncoder;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Retrieves all users. Typically used by Admin Dashboards.
@@ -46,13 +52,14 @@ public class UserService {
     /**
      * Creates a new user manually (Admin feature).
      * <p>
-     * It creates the record in the database.
+     * It creates the record in the database. Not transactional, like registration: the password
+     * is hashed before the insert takes a connection, and the lookup and the insert each run in
+     * their own repository transaction.
      * </p>
      *
      * @param request The user details.
      * @return The created UserResponse DTO.
      */
-    @Transactional
     public UserResponse createUser(UserCreateRequest request) {
         log.info("Admin creating a new user with email: {}", request.email());
 
@@ -74,4 +81,27 @@ public class UserService {
         // 4. Return DTO (No Token)
         return userMapper.toResponse(savedUser);
     }
-}
\ No newline at end of file
+
+    /**
+     * Stores a password rehashed with the current cost factor.
+     * <p>
+     * Called by Spring Security after a successful login when the stored hash is outdated.
+     * The cached copies of the user are evicted on every node.
+     * </p>
+     *
+     * @param user        The authenticated user.
+     * @param newPassword The new hash of the presented password.
+     * @return The user with the new hash.
+     */
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        if (!(user instanceof User entity) || userRepository.updatePassword(entity.getId(), newPassword) == 0) {
+            return user;
+        }
+        entity.setPassword(newPassword);
+        eventPublisher.publishEvent(new UserChangedEvent(entity.getId()));
+        log.info("Password hash upgraded for user: {}", entity.getId());
+        return entity;
+    }
+}
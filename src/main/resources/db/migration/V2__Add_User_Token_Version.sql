@@ -0,0 +1,4 @@
+-- Per-user token version. Every JWT carries the version it was issued with;
+-- incrementing the column invalidates all tokens issued before (role change, account lock, logout everywhere).
+ALTER TABLE users
+    ADD COLUMN token_version INTEGER DEFAULT 0 NOT NULL;
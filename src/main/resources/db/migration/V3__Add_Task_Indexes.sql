@@ -0,0 +1,12 @@
+-- Composite indexes for every task access path. All task queries are scoped to the owner,
+-- so user_id always leads; the trailing columns match the ORDER BY of the query they serve.
+
+-- findAllByUserId (default sort createdAt DESC), countByUserId, cursor pagination by createdAt
+-- (both directions, the ascending order walks the index backwards).
+CREATE INDEX idx_tasks_user_created_at ON tasks (user_id, created_at DESC, id DESC);
+
+-- findAllByUserIdAndCompleted (pending / done lists), newest first.
+CREATE INDEX idx_tasks_user_completed_created_at ON tasks (user_id, completed, created_at DESC, id DESC);
+
+-- Cursor pagination by dueDate: (due_date, id) keyset, then the undated tasks by id (due_date IS NULL).
+CREATE INDEX idx_tasks_user_due_date ON tasks (user_id, due_date, id);
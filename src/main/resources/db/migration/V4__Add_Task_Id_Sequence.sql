@@ -0,0 +1,4 @@
+-- Sequence for task IDs (Hibernate pooled optimizer). INCREMENT BY must match the
+-- allocationSize of Task.id: one sequence call reserves 50 IDs, which lets Hibernate assign IDs
+-- before the INSERT and send inserts as JDBC batches (impossible with IDENTITY columns).
+CREATE SEQUENCE tasks_seq START WITH 1 INCREMENT BY 50;
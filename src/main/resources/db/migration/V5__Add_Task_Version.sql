@@ -0,0 +1,4 @@
+-- Optimistic locking version of a task. Incremented by every update (including bulk updates),
+-- exposed to clients as the ETag and checked against If-Match on conditional writes.
+ALTER TABLE tasks
+    ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
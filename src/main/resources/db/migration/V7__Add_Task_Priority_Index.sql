@@ -0,0 +1,7 @@
+-- Task listing filters (TaskFilter). The existing indexes already cover:
+--   completed            -> idx_tasks_user_completed_created_at
+--   dueBefore / dueAfter -> idx_tasks_user_due_date (range on due_date)
+--   noDueDate            -> idx_tasks_user_due_date (due_date IS NULL)
+--   overdue              -> idx_tasks_open_due_date (PostgreSQL partial index)
+-- Priority filters (IN list) get their own index in the default newest-first order.
+CREATE INDEX idx_tasks_user_priority_created_at ON tasks (user_id, priority, created_at DESC, id DESC);
@@ -0,0 +1,23 @@
+-- Per-user task counters for GET /api/v1/tasks/stats: one row per user, priority and completion state.
+-- Maintained by relative updates in the same transaction as the task writes (TaskCounterService)
+-- and recounted periodically. Tasks without a priority are counted as MEDIUM.
+CREATE TABLE task_counters
+(
+    user_id    BIGINT      NOT NULL,
+    priority   VARCHAR(20) NOT NULL,
+    completed  BOOLEAN     NOT NULL,
+    task_count BIGINT      NOT NULL,
+    CONSTRAINT pk_task_counters PRIMARY KEY (user_id, priority, completed)
+);
+
+ALTER TABLE task_counters
+    ADD CONSTRAINT FK_TASK_COUNTERS_ON_USER FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE CASCADE;
+
+-- Backfill every existing user (all six rows, so later relative updates always find their row).
+INSERT INTO task_counters (user_id, priority, completed, task_count)
+SELECT u.id, p.priority, s.completed,
+       (SELECT count(*) FROM tasks t
+        WHERE t.user_id = u.id AND COALESCE(t.priority, 'MEDIUM') = p.priority AND t.completed = s.completed)
+FROM users u
+         CROSS JOIN (SELECT 'LOW' AS priority UNION ALL SELECT 'MEDIUM' UNION ALL SELECT 'HIGH') p
+         CROSS JOIN (SELECT TRUE AS completed UNION ALL SELECT FALSE) s;
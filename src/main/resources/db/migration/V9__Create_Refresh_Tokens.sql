@@ -0,0 +1,26 @@
+-- Server-side refresh tokens (POST /api/v1/auth/refresh). Only the SHA-256 hash of a token is stored.
+-- Every login starts a family (session); each refresh marks the presented token as used and adds its
+-- successor to the family. Presenting a used token again revokes the whole family (reuse detection).
+CREATE TABLE refresh_tokens
+(
+    id            BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    user_id       BIGINT                                  NOT NULL,
+    family_id     VARCHAR(32)                             NOT NULL,
+    token_hash    VARCHAR(64)                             NOT NULL,
+    token_version INTEGER                                 NOT NULL,
+    expires_at    TIMESTAMP WITHOUT TIME ZONE             NOT NULL,
+    used_at       TIMESTAMP WITHOUT TIME ZONE,
+    CONSTRAINT pk_refresh_tokens PRIMARY KEY (id)
+);
+
+ALTER TABLE refresh_tokens
+    ADD CONSTRAINT uc_refresh_tokens_token_hash UNIQUE (token_hash);
+
+ALTER TABLE refresh_tokens
+    ADD CONSTRAINT FK_REFRESH_TOKENS_ON_USER FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE CASCADE;
+
+-- Revoking a session (logout, reuse detection)
+CREATE INDEX idx_refresh_tokens_family_id ON refresh_tokens (family_id);
+
+-- Periodic purge of expired tokens
+CREATE INDEX idx_refresh_tokens_expires_at ON refresh_tokens (expires_at);
@@ -0,0 +1,5 @@
+-- PostgreSQL only (partial indexes are not portable): open tasks with a due date,
+-- the working set of upcoming / overdue queries. Completed and undated tasks are not indexed,
+-- which keeps the index small for users with a long history.
+CREATE INDEX idx_tasks_open_due_date ON tasks (user_id, due_date, id)
+    WHERE completed = FALSE AND due_date IS NOT NULL;
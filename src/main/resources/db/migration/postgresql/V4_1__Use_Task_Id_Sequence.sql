@@ -0,0 +1,9 @@
+-- Move existing data onto the new sequence. The pooled optimizer treats a sequence value as the
+-- upper end of a 50 ID block, so the next value is placed one full block above the current maximum.
+SELECT setval('tasks_seq', (SELECT COALESCE(MAX(id), 0) FROM tasks) + 50);
+
+-- The identity column would keep its own, now unused, counter: replace it with the shared sequence
+-- so inserts that do not go through Hibernate can never collide with pooled IDs.
+ALTER TABLE tasks ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE tasks ALTER COLUMN id SET DEFAULT nextval('tasks_seq');
+ALTER SEQUENCE tasks_seq OWNED BY tasks.id;
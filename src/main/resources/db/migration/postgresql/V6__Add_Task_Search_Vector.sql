@@ -0,0 +1,11 @@
+-- Full-text search over title (weight A) and description (weight B).
+-- 'simple' only lower-cases words: tasks are written in any language, so no English stemming.
+-- PostgreSQL only; other databases use the LIKE fallback of TaskSearchRepositoryImpl.
+ALTER TABLE tasks
+    ADD COLUMN search_vector tsvector
+        GENERATED ALWAYS AS (
+            setweight(to_tsvector('simple', coalesce(title, '')), 'A') ||
+            setweight(to_tsvector('simple', coalesce(description, '')), 'B')
+        ) STORED;
+
+CREATE INDEX idx_tasks_search_vector ON tasks USING GIN (search_vector);
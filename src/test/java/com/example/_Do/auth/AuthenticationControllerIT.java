@@ -1,18 +1,29 @@
 package com.example._Do.auth;
 
+import com.example._Do.auth.dto.AuthenticationResponse;
+import com.example._Do.auth.dto.RefreshTokenRequest;
 import com.example._Do.user.dto.RegisterRequest;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
 import lombok.RequiredArgsConstructor;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.TestConstructor;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Date;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
@@ -31,6 +42,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 public class AuthenticationControllerIT {
     private final MockMvc mockMvc;
     private final ObjectMapper objectMapper;
+    private final Environment environment;
 
     @Test
     @DisplayName("Should successfully register a new user")
@@ -50,4 +62,48 @@ public class AuthenticationControllerIT {
 
     }
 
+    @Test
+    @DisplayName("Should refresh with a stale expired Bearer header and reject it on protected routes with 401")
+    void refreshWithExpiredAccessTokenTest() throws Exception {
+        RegisterRequest registerRequest = RegisterRequest.builder()
+                .firstName("Test")
+                .lastName("User")
+                .email("expired@user.com")
+                .password("test123")
+                .build();
+        String registerBody = mockMvc.perform(post("/api/v1/auth/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(registerRequest)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        String refreshToken = objectMapper.readValue(registerBody, AuthenticationResponse.class).refreshToken();
+        String expiredHeader = "Bearer " + expiredAccessToken("expired@user.com");
+
+        mockMvc.perform(post("/api/v1/auth/refresh")
+                        .header(HttpHeaders.AUTHORIZATION, expiredHeader)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new RefreshTokenRequest(refreshToken))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.token").exists())
+                .andExpect(jsonPath("$.refreshToken").exists());
+
+        mockMvc.perform(get("/api/v1/tasks")
+                        .header(HttpHeaders.AUTHORIZATION, expiredHeader))
+                .andExpect(status().isUnauthorized());
+    }
+
+    /**
+     * Signs a token with the application key that expired a minute ago.
+     */
+    private String expiredAccessToken(String email) {
+        long now = System.currentTimeMillis();
+        return Jwts.builder()
+                .setSubject(email)
+                .setIssuedAt(new Date(now - 16 * 60_000))
+                .setExpiration(new Date(now - 60_000))
+                .signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(
+                        environment.getRequiredProperty("application.security.jwt.secret-key"))), SignatureAlgorithm.HS256)
+                .compact();
+    }
+
 }
@@ -2,12 +2,16 @@ package com.example._Do.auth;
 
 import com.example._Do.auth.dto.AuthenticationRequest;
 import com.example._Do.auth.dto.AuthenticationResponse;
+import com.example._Do.auth.dto.RefreshTokenRequest;
 import com.example._Do.auth.service.AuthenticationService;
+import com.example._Do.auth.service.RefreshTokenService;
+import com.example._Do.auth.service.TokenVersionService;
 import com.example._Do.config.JwtService;
 import com.example._Do.user.dto.RegisterRequest;
 import com.example._Do.user.entity.Role;
 import com.example._Do.user.entity.User;
 import com.example._Do.user.exception.InvalidCredentialsException;
+import com.example._Do.user.exception.InvalidRefreshTokenException;
 import com.example._Do.user.exception.UserAlreadyExistsException;
 import com.example._Do.user.mapper.UserMapper;
 import com.example._Do.user.repository.UserRepository;
@@ -20,11 +24,14 @@ import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.crypto.password.PasswordEncoder;
-import java.util.Optional;
+import java.sql.SQLException;
+import java.util.List;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
@@ -48,6 +55,8 @@ public class AuthenticationServiceTest {
     @Mock private JwtService jwtService;
     @Mock private AuthenticationManager authenticationManager;
     @Mock private UserMapper userMapper;
+    @Mock private TokenVersionService tokenVersionService;
+    @Mock private RefreshTokenService refreshTokenService;
 
     @Captor
     private ArgumentCaptor<User> userArgumentCaptor;
@@ -63,10 +72,11 @@ public class AuthenticationServiceTest {
             RegisterRequest registerRequest = createSampleRegisterRequest();
             User mappedUser = new User();
 
-            when(userRepository.existsByEmail(registerRequest.email())).thenReturn(false);
             when(userMapper.toEntity(registerRequest)).thenReturn(mappedUser);
             when(passwordEncoder.encode(registerRequest.password())).thenReturn("hashedPassword");
-            when(jwtService.generateToken(any())).thenReturn("validToken");
+            when(refreshTokenService.create(mappedUser))
+                    .thenReturn(new RefreshTokenService.IssuedRefreshToken("refreshToken", "session", mappedUser));
+            when(jwtService.generateToken(mappedUser, "session")).thenReturn("validToken");
 
             // ACT
             AuthenticationResponse authenticationResponse = authenticationService.register(registerRequest);
@@ -74,8 +84,10 @@ public class AuthenticationServiceTest {
             // ASSERT & VERIFY
             assertNotNull(authenticationResponse);
             assertEquals("validToken", authenticationResponse.token());
+            assertEquals("refreshToken", authenticationResponse.refreshToken());
 
-            verify(userRepository).save(userArgumentCaptor.capture());
+            verify(userRepository).saveAndFlush(userArgumentCaptor.capture());
+            verify(userRepository, never()).existsByEmail(anyString());
             User savedUser = userArgumentCaptor.getValue();
 
             assertAll("Final User Object",
@@ -87,18 +99,33 @@ public class AuthenticationServiceTest {
         }
 
         @Test
-        @DisplayName("Fail: Should throw UserAlreadyExistsException and stop execution")
+        @DisplayName("Fail: Should map the email constraint violation to UserAlreadyExistsException")
         void register_ShouldFail_WhenUserAlreadyExists() {
             // GIVEN
             RegisterRequest registerRequest = createSampleRegisterRequest();
-            when(userRepository.existsByEmail(registerRequest.email())).thenReturn(true);
+            when(userMapper.toEntity(registerRequest)).thenReturn(new User());
+            when(userRepository.saveAndFlush(any())).thenThrow(new DataIntegrityViolationException("duplicate",
+                    new ConstraintViolationException("duplicate", new SQLException(), User.EMAIL_CONSTRAINT)));
 
             // ACT
             assertThrows(UserAlreadyExistsException.class, () -> authenticationService.register(registerRequest));
 
             // Verify Fail
-            verifyNoInteractions(userMapper, passwordEncoder, jwtService);
-            verify(userRepository, never()).save(any());
+            verifyNoInteractions(jwtService, refreshTokenService);
+            verify(userRepository, never()).existsByEmail(anyString());
+        }
+
+        @Test
+        @DisplayName("Fail: Should not hide other integrity violations")
+        void register_ShouldRethrow_WhenOtherConstraintIsViolated() {
+            // GIVEN
+            RegisterRequest registerRequest = createSampleRegisterRequest();
+            when(userMapper.toEntity(registerRequest)).thenReturn(new User());
+            when(userRepository.saveAndFlush(any())).thenThrow(new DataIntegrityViolationException("not null"));
+
+            // ACT & ASSERT
+            assertThrows(DataIntegrityViolationException.class, () -> authenticationService.register(registerRequest));
+            verifyNoInteractions(jwtService, refreshTokenService);
         }
 
     }
@@ -117,8 +144,11 @@ public class AuthenticationServiceTest {
                     .password(authenticationRequest.password())
                     .build();
 
-            when(userRepository.findByEmail(authenticationRequest.email())).thenReturn(Optional.of(mockUser));
-            when(jwtService.generateToken(mockUser)).thenReturn("validToken");
+            when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class)))
+                    .thenReturn(new UsernamePasswordAuthenticationToken(mockUser, null, List.of()));
+            when(refreshTokenService.create(mockUser))
+                    .thenReturn(new RefreshTokenService.IssuedRefreshToken("refreshToken", "session", mockUser));
+            when(jwtService.generateToken(mockUser, "session")).thenReturn("validToken");
 
             // ACT
             AuthenticationResponse authenticationResponse = authenticationService.authenticate(authenticationRequest);
@@ -126,8 +156,11 @@ public class AuthenticationServiceTest {
             // ASSERT & VERIFY
             assertNotNull(authenticationResponse);
             assertEquals("validToken", authenticationResponse.token());
+            assertEquals("refreshToken", authenticationResponse.refreshToken());
 
             verify(authenticationManager).authenticate(any(UsernamePasswordAuthenticationToken.class));
+            // The principal of the authentication is reused; the user is not loaded again
+            verifyNoInteractions(userRepository);
 
         }
 
@@ -140,9 +173,61 @@ public class AuthenticationServiceTest {
 
             // ACT & ASSERT
             assertThrows(InvalidCredentialsException.class, () -> authenticationService.authenticate(authenticationRequest));
-            verifyNoInteractions(jwtService, userRepository);
+            verifyNoInteractions(jwtService, userRepository, refreshTokenService);
+        }
+
+    }
+
+    @Nested
+    @DisplayName("Refresh Tests")
+    class RefreshTests {
+
+        @Test
+        @DisplayName("Success: Should issue a new access token for the rotated session")
+        void refresh_ShouldSucceed_WhenRefreshTokenIsValid() {
+            // GIVEN
+            User user = User.builder().id(1L).email("kaan@test.com").role(Role.USER).build();
+            when(refreshTokenService.rotate("currentRefreshToken"))
+                    .thenReturn(new RefreshTokenService.IssuedRefreshToken("nextRefreshToken", "session", user));
+            when(jwtService.generateToken(user, "session")).thenReturn("newToken");
+
+            // ACT
+            AuthenticationResponse authenticationResponse = authenticationService.refresh(new RefreshTokenRequest("currentRefreshToken"));
+
+            // ASSERT & VERIFY
+            assertEquals("newToken", authenticationResponse.token());
+            assertEquals("nextRefreshToken", authenticationResponse.refreshToken());
+            verifyNoInteractions(authenticationManager, userRepository);
         }
 
+        @Test
+        @DisplayName("Fail: Should not issue an access token for a rejected refresh token")
+        void refresh_ShouldFail_WhenRefreshTokenIsRejected() {
+            // GIVEN
+            when(refreshTokenService.rotate("reusedRefreshToken"))
+                    .thenThrow(new InvalidRefreshTokenException("Invalid refresh token."));
+
+            // ACT & ASSERT
+            assertThrows(InvalidRefreshTokenException.class,
+                    () -> authenticationService.refresh(new RefreshTokenRequest("reusedRefreshToken")));
+            verifyNoInteractions(jwtService);
+        }
+    }
+
+    @Nested
+    @DisplayName("Logout Tests")
+    class LogoutTests {
+
+        @Test
+        @DisplayName("Success: Logging out everywhere should revoke all tokens of the user")
+        void logoutAllSessions_ShouldRevokeAllTokens() {
+            // ACT
+            authenticationService.logoutAllSessions(1L);
+
+            // VERIFY
+            verify(tokenVersionService).revokeAllTokens(1L);
+            verifyNoInteractions(jwtService, userRepository);
+        }
     }
 
     // --- Helper Methods ---
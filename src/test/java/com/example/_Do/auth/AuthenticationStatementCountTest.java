@@ -0,0 +1,93 @@
+package com.example._Do.auth;
+
+import com.example._Do.auth.dto.AuthenticationRequest;
+import com.example._Do.auth.dto.AuthenticationResponse;
+import com.example._Do.auth.service.AuthenticationService;
+import com.example._Do.support.StatementCounter;
+import com.example._Do.user.dto.RegisterRequest;
+import com.example._Do.user.exception.UserAlreadyExistsException;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Integration tests that count the SQL statements issued by {@link AuthenticationService}.
+ * <p>
+ * <strong>Goal:</strong> Login must load the user once (the principal of the authentication is
+ * reused) and registration must not run an existence check before the insert.
+ * </p>
+ * <p>
+ * <strong>Technique:</strong> Uses Hibernate statistics (enabled in the test profile) to count
+ * prepared JDBC statements around a single service call.
+ * </p>
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class AuthenticationStatementCountTest {
+
+    private static final String PASSWORD = "Secret@123";
+
+    @Autowired
+    private AuthenticationService authenticationService;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private StatementCounter statementCounter;
+    private String email;
+
+    @BeforeEach
+    void setUp() {
+        statementCounter = new StatementCounter(entityManagerFactory);
+        email = UUID.randomUUID().toString().substring(0, 8) + "@test.com";
+    }
+
+    @Test
+    @DisplayName("Registration issues the user INSERT and the refresh token INSERT only")
+    void register_ShouldIssueTwoStatements() {
+        long statements = statementCounter.count(() -> {
+            AuthenticationResponse response = authenticationService.register(registerRequest());
+            assertThat(response.token()).isNotBlank();
+        });
+
+        assertThat(statements).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("A duplicate registration fails on the unique constraint with a single statement")
+    void register_WhenEmailExists_ShouldFailOnInsert() {
+        authenticationService.register(registerRequest());
+
+        long statements = statementCounter.count(() ->
+                assertThatThrownBy(() -> authenticationService.register(registerRequest()))
+                        .isInstanceOf(UserAlreadyExistsException.class));
+
+        assertThat(statements).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Login loads the user once and inserts the refresh token")
+    void authenticate_ShouldLoadUserOnce() {
+        authenticationService.register(registerRequest());
+
+        long statements = statementCounter.count(() -> {
+            AuthenticationResponse response = authenticationService.authenticate(new AuthenticationRequest(email, PASSWORD));
+            assertThat(response.token()).isNotBlank();
+        });
+
+        // SELECT of the user (user cache is cold) and INSERT of the refresh token
+        assertThat(statements).isEqualTo(2);
+    }
+
+    private RegisterRequest registerRequest() {
+        return new RegisterRequest("Test", "User", email, PASSWORD);
+    }
+}
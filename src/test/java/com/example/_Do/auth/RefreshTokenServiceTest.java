@@ -0,0 +1,109 @@
+package com.example._Do.auth;
+
+import com.example._Do.auth.repository.RefreshTokenRepository;
+import com.example._Do.auth.service.RefreshTokenService;
+import com.example._Do.auth.service.RefreshTokenService.IssuedRefreshToken;
+import com.example._Do.auth.service.TokenVersionService;
+import com.example._Do.support.TestUsers;
+import com.example._Do.user.entity.User;
+import com.example._Do.user.exception.InvalidRefreshTokenException;
+import com.example._Do.user.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Integration tests for {@link RefreshTokenService}.
+ * <p>
+ * <strong>Goal:</strong> A refresh token can be exchanged exactly once; presenting a used token
+ * ends the whole session, and ended sessions (logout, logout everywhere) cannot be refreshed.
+ * </p>
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class RefreshTokenServiceTest {
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+    @Autowired
+    private TokenVersionService tokenVersionService;
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+    @Autowired
+    private UserRepository userRepository;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.save(TestUsers.newUser());
+    }
+
+    @AfterEach
+    void tearDown() {
+        refreshTokenRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Rotation issues a new token of the same session")
+    void rotate_ShouldIssueSuccessor() {
+        IssuedRefreshToken first = refreshTokenService.create(user);
+
+        IssuedRefreshToken second = refreshTokenService.rotate(first.token());
+
+        assertThat(second.token()).isNotEqualTo(first.token());
+        assertThat(second.sessionId()).isEqualTo(first.sessionId());
+        assertThat(second.user().getId()).isEqualTo(user.getId());
+    }
+
+    @Test
+    @DisplayName("Reusing a rotated token revokes the whole session")
+    void rotate_WhenTokenIsReused_ShouldRevokeSession() {
+        IssuedRefreshToken first = refreshTokenService.create(user);
+        IssuedRefreshToken second = refreshTokenService.rotate(first.token());
+
+        assertThatThrownBy(() -> refreshTokenService.rotate(first.token()))
+                .isInstanceOf(InvalidRefreshTokenException.class);
+        assertThatThrownBy(() -> refreshTokenService.rotate(second.token()))
+                .isInstanceOf(InvalidRefreshTokenException.class);
+    }
+
+    @Test
+    @DisplayName("Other sessions are not affected by a revoked session")
+    void revokeSession_ShouldOnlyEndThatSession() {
+        IssuedRefreshToken loggedOut = refreshTokenService.create(user);
+        IssuedRefreshToken other = refreshTokenService.create(user);
+
+        refreshTokenService.revokeSession(loggedOut.sessionId());
+
+        assertThatThrownBy(() -> refreshTokenService.rotate(loggedOut.token()))
+                .isInstanceOf(InvalidRefreshTokenException.class);
+        assertThat(refreshTokenService.rotate(other.token()).sessionId()).isEqualTo(other.sessionId());
+    }
+
+    @Test
+    @DisplayName("Logging out everywhere ends every session")
+    void rotate_AfterLogoutEverywhere_ShouldFail() {
+        IssuedRefreshToken token = refreshTokenService.create(user);
+
+        tokenVersionService.revokeAllTokens(user.getId());
+
+        assertThatThrownBy(() -> refreshTokenService.rotate(token.token()))
+                .isInstanceOf(InvalidRefreshTokenException.class);
+    }
+
+    @Test
+    @DisplayName("Unknown tokens are rejected")
+    void rotate_WhenTokenIsUnknown_ShouldFail() {
+        assertThatThrownBy(() -> refreshTokenService.rotate("unknown"))
+                .isInstanceOf(InvalidRefreshTokenException.class);
+    }
+}
@@ -0,0 +1,82 @@
+package com.example._Do.auth.blacklist;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link RevokedTokenFilter}.
+ * <p>
+ * <strong>Goal:</strong> The filter must never report a live revoked token as unknown, must keep
+ * its false positive rate below the configured bound (also when more tokens are revoked than
+ * expected) and must forget tokens once they have expired.
+ * </p>
+ */
+class RevokedTokenFilterTest {
+
+    private static final long HOUR = 3_600_000L;
+    private static final long LIFETIME = 24 * HOUR;
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+
+    private final AtomicLong now = new AtomicLong(1_000 * HOUR);
+    private RevokedTokenFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        filter = new RevokedTokenFilter(LIFETIME, HOUR, 1_000, FALSE_POSITIVE_RATE, now::get);
+    }
+
+    @Test
+    @DisplayName("Added tokens are always reported")
+    void mightContain_ShouldReportEveryAddedToken() {
+        String[] tokens = IntStream.range(0, 5_000).mapToObj(i -> UUID.randomUUID().toString()).toArray(String[]::new);
+        for (int i = 0; i < tokens.length; i++) {
+            filter.put(tokens[i], now.get() + (i % 24 + 1) * HOUR);
+        }
+
+        assertThat(tokens).allMatch(filter::mightContain);
+    }
+
+    @Test
+    @DisplayName("The false positive rate stays below the bound beyond the expected insertions")
+    void mightContain_ShouldBoundFalsePositives() {
+        // 10x the expected insertions in one partition forces it to grow
+        IntStream.range(0, 10_000).forEach(i -> filter.put("revoked-" + i, now.get() + HOUR));
+
+        long falsePositives = IntStream.range(0, 100_000)
+                .filter(i -> filter.mightContain("valid-" + i))
+                .count();
+
+        assertThat(falsePositives / 100_000.0).isLessThan(FALSE_POSITIVE_RATE);
+    }
+
+    @Test
+    @DisplayName("Tokens are dropped with their partition once they have expired")
+    void mightContain_ShouldForgetExpiredTokens() {
+        filter.put("short-lived", now.get() + HOUR);
+        filter.put("long-lived", now.get() + LIFETIME);
+        filter.put("already-expired", now.get() - 1);
+
+        now.addAndGet(2 * HOUR);
+
+        assertThat(filter.mightContain("short-lived")).isFalse();
+        assertThat(filter.mightContain("long-lived")).isTrue();
+        assertThat(filter.mightContain("already-expired")).isFalse();
+        assertThat(filter.size()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Adding a token twice does not use up capacity")
+    void put_ShouldIgnoreDuplicates() {
+        filter.put("token", now.get() + HOUR);
+        filter.put("token", now.get() + HOUR);
+
+        assertThat(filter.size()).isEqualTo(1);
+    }
+}
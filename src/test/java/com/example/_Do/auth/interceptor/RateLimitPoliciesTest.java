@@ -0,0 +1,156 @@
+package com.example._Do.auth.interceptor;
+
+import com.example._Do.config.RateLimitProperties;
+import com.example._Do.config.RateLimitProperties.KeyType;
+import com.example._Do.config.RateLimitProperties.Policy;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.http.server.PathContainer;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for {@link RateLimitPolicies}.
+ * <p>
+ * <strong>Goal:</strong> Policies are compiled once and matched by path in declaration order, and
+ * limits changed on any node replace older limits (never newer ones) on every node.
+ * </p>
+ */
+@ExtendWith(MockitoExtension.class)
+class RateLimitPoliciesTest {
+
+    private static final String OVERRIDES_KEY = "rate_limit:policies";
+
+    @Mock
+    private StringRedisTemplate stringRedisTemplate;
+    @Mock
+    private HashOperations<String, Object, Object> hashOperations;
+
+    private RateLimitPolicies rateLimitPolicies;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(stringRedisTemplate.<Object, Object>opsForHash()).thenReturn(hashOperations);
+        lenient().when(hashOperations.entries(OVERRIDES_KEY)).thenReturn(Map.of());
+        rateLimitPolicies = new RateLimitPolicies(properties(), stringRedisTemplate);
+    }
+
+    @Test
+    @DisplayName("Requests are matched against every policy covering their path, in order")
+    void matching_ShouldReturnPoliciesForPath() {
+        assertThat(rateLimitPolicies.matching(PathContainer.parsePath("/api/v1/tasks/5")))
+                .extracting(RateLimitPolicy::name)
+                .containsExactly("global", "tasks");
+        assertThat(rateLimitPolicies.matching(PathContainer.parsePath("/api/v1/auth/login")))
+                .extracting(RateLimitPolicy::name)
+                .containsExactly("global");
+        assertThat(rateLimitPolicies.matching(PathContainer.parsePath("/swagger-ui.html"))).isEmpty();
+    }
+
+    @Test
+    @DisplayName("The bucket configuration is built once per policy version")
+    void configuration_ShouldBePrebuilt() {
+        RateLimitPolicy tasks = rateLimitPolicies.find("tasks").orElseThrow();
+
+        assertThat(rateLimitPolicies.find("tasks").orElseThrow().configuration()).isSameAs(tasks.configuration());
+        assertThat(tasks.configuration().getBandwidths()[0].getCapacity()).isEqualTo(300);
+    }
+
+    @Test
+    @DisplayName("Updated limits are stored, applied with a higher version and announced")
+    void update_ShouldStoreApplyAndPublish() {
+        RateLimitPolicy updated = rateLimitPolicies.update("tasks", 50, Duration.ofSeconds(30));
+
+        assertThat(updated.version()).isPositive();
+        assertThat(rateLimitPolicies.find("tasks").orElseThrow().capacity()).isEqualTo(50);
+        assertThat(rateLimitPolicies.find("tasks").orElseThrow().configuration().getBandwidths()[0].getCapacity())
+                .isEqualTo(50);
+        verify(hashOperations).put(OVERRIDES_KEY, "tasks", updated.version() + ":50:30000");
+        verify(stringRedisTemplate).convertAndSend(RateLimitPolicies.CHANNEL, "tasks");
+    }
+
+    @Test
+    @DisplayName("Unknown policies and invalid limits are rejected")
+    void update_WhenInvalid_ShouldThrow() {
+        assertThatThrownBy(() -> rateLimitPolicies.update("unknown", 10, Duration.ofMinutes(1)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> rateLimitPolicies.update("tasks", 0, Duration.ofMinutes(1)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("A change announced by another node is read from Redis and applied")
+    void onMessage_ShouldApplyNewerLimits() {
+        when(hashOperations.get(OVERRIDES_KEY, "tasks")).thenReturn("42:20:60000");
+
+        rateLimitPolicies.onMessage(message("tasks"), null);
+
+        RateLimitPolicy tasks = rateLimitPolicies.find("tasks").orElseThrow();
+        assertThat(tasks.version()).isEqualTo(42);
+        assertThat(tasks.capacity()).isEqualTo(20);
+    }
+
+    @Test
+    @DisplayName("Outdated or malformed limits are ignored")
+    void onMessage_WhenOutdatedOrMalformed_ShouldIgnore() {
+        RateLimitPolicy updated = rateLimitPolicies.update("tasks", 50, Duration.ofSeconds(30));
+        when(hashOperations.get(eq(OVERRIDES_KEY), anyString())).thenReturn("1:20:60000", "garbage");
+
+        rateLimitPolicies.onMessage(message("tasks"), null);
+        rateLimitPolicies.onMessage(message("tasks"), null);
+
+        assertThat(rateLimitPolicies.find("tasks").orElseThrow()).isEqualTo(updated);
+    }
+
+    @Test
+    @DisplayName("Limits stored in Redis are applied at startup")
+    void constructor_ShouldLoadOverrides() {
+        when(hashOperations.entries(OVERRIDES_KEY)).thenReturn(Map.of("global", "7:1000:1000"));
+
+        RateLimitPolicies loaded = new RateLimitPolicies(properties(), stringRedisTemplate);
+
+        assertThat(loaded.find("global").orElseThrow().capacity()).isEqualTo(1000);
+        assertThat(loaded.find("tasks").orElseThrow().version()).isZero();
+    }
+
+    @Test
+    @DisplayName("Duplicate policy names are rejected at startup")
+    void constructor_WhenDuplicateNames_ShouldThrow() {
+        RateLimitProperties duplicate = new RateLimitProperties(List.of(
+                new Policy("auth", List.of("/a/**"), KeyType.IP, "X-API-Key", 1, Duration.ofMinutes(1), null),
+                new Policy("auth", List.of("/b/**"), KeyType.IP, "X-API-Key", 1, Duration.ofMinutes(1), null)));
+
+        assertThatThrownBy(() -> new RateLimitPolicies(duplicate, stringRedisTemplate))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static RateLimitProperties properties() {
+        return new RateLimitProperties(List.of(
+                new Policy("global", List.of("/api/**"), KeyType.IP, "X-API-Key", 100, Duration.ofMinutes(1), null),
+                new Policy("tasks", List.of("/api/v1/tasks/**"), KeyType.USER, "X-API-Key", 300, Duration.ofMinutes(1), null)));
+    }
+
+    private static DefaultMessage message(String policy) {
+        return new DefaultMessage(
+                RateLimitPolicies.CHANNEL.getBytes(StandardCharsets.UTF_8),
+                policy.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,209 @@
+package com.example._Do.auth.interceptor;
+
+import com.example._Do.auth.interceptor.RateLimitingInterceptor.FailurePolicy;
+import com.example._Do.config.RateLimitProperties.KeyType;
+import com.example._Do.config.RateLimitProperties.Policy;
+import com.example._Do.exception.RateLimitExceededException;
+import com.example._Do.exception.RateLimitUnavailableException;
+import io.github.bucket4j.ConsumptionProbe;
+import io.github.bucket4j.distributed.AsyncBucketProxy;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for {@link RateLimitingInterceptor}.
+ * <p>
+ * <strong>Goal:</strong> Requests are decided by the asynchronous buckets, a request rejected by one
+ * policy is not charged by the others, and a Redis that is slow or failing delays a request by at
+ * most the configured timeout before the failure policy applies.
+ * </p>
+ */
+@ExtendWith(MockitoExtension.class)
+class RateLimitingInterceptorTest {
+
+    private static final Duration TIMEOUT = Duration.ofMillis(50);
+
+    @Mock
+    private RateLimitPolicies rateLimitPolicies;
+    @Mock
+    private RateLimitBuckets rateLimitBuckets;
+    @Mock
+    private AsyncBucketProxy bucket;
+    @Mock
+    private AsyncBucketProxy otherBucket;
+
+    private SimpleMeterRegistry meterRegistry;
+    private MockHttpServletRequest request;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        request = new MockHttpServletRequest("POST", "/api/v1/auth/login");
+        request.setRemoteAddr("10.0.0.1");
+        lenient().when(rateLimitPolicies.matching(any())).thenReturn(List.of(auth()));
+        lenient().when(rateLimitBuckets.resolve(eq("rate_limit:auth:ip:10.0.0.1"), any(), anyLong())).thenReturn(bucket);
+    }
+
+    @Test
+    @DisplayName("Requests within the limit pass and the decision time is recorded")
+    void preHandle_WhenTokensLeft_ShouldAllow() throws Exception {
+        when(bucket.tryConsumeAndReturnRemaining(1))
+                .thenReturn(CompletableFuture.completedFuture(ConsumptionProbe.consumed(7, 0)));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertThat(interceptor(FailurePolicy.CLOSED).preHandle(request, response, null)).isTrue();
+        assertThat(response.getHeader(RateLimitingInterceptor.LIMIT_HEADER)).isEqualTo("10");
+        assertThat(response.getHeader(RateLimitingInterceptor.REMAINING_HEADER)).isEqualTo("7");
+        assertThat(meterRegistry.get("rate_limit.decision").tag("result", "allowed").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Requests over the limit are rejected with 429 and the exact wait time")
+    void preHandle_WhenNoTokensLeft_ShouldReject() {
+        when(bucket.tryConsumeAndReturnRemaining(1)).thenReturn(CompletableFuture.completedFuture(
+                ConsumptionProbe.rejected(0, Duration.ofMillis(5_500).toNanos(), Duration.ofMinutes(1).toNanos())));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertThatThrownBy(() -> interceptor(FailurePolicy.OPEN).preHandle(request, response, null))
+                .isInstanceOfSatisfying(RateLimitExceededException.class,
+                        e -> assertThat(e.getRetryAfterSeconds()).isEqualTo(6));
+        assertThat(response.getHeader(RateLimitingInterceptor.REMAINING_HEADER)).isEqualTo("0");
+        assertThat(meterRegistry.get("rate_limit.decision").tag("result", "rejected").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Size-weighted policies charge one token per started block of the body, at most the capacity")
+    void preHandle_WhenSizeWeighted_ShouldConsumeBySize() throws Exception {
+        RateLimitPolicy ai = RateLimitPolicy.from(new Policy("ai", List.of("/api/v1/tasks/ai-generate"),
+                KeyType.IP, "X-API-Key", 40, Duration.ofHours(1), DataSize.ofKilobytes(256)));
+        when(rateLimitPolicies.matching(any())).thenReturn(List.of(ai));
+        when(rateLimitBuckets.resolve(eq("rate_limit:ai:ip:10.0.0.1"), any(), anyLong())).thenReturn(bucket);
+        when(bucket.tryConsumeAndReturnRemaining(3))
+                .thenReturn(CompletableFuture.completedFuture(ConsumptionProbe.consumed(37, 0)));
+        request.setContent(new byte[600 * 1024]);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertThat(interceptor(FailurePolicy.CLOSED).preHandle(request, response, null)).isTrue();
+        assertThat(response.getHeader(RateLimitingInterceptor.REMAINING_HEADER)).isEqualTo("37");
+        assertThat(ai.cost(DataSize.ofMegabytes(100).toBytes())).isEqualTo(40);
+    }
+
+    @Test
+    @DisplayName("A request rejected by one policy gets its token back from the policies that allowed it")
+    void preHandle_WhenOnePolicyRejects_ShouldRefundTheOthers() {
+        RateLimitPolicy login = RateLimitPolicy.from(
+                new Policy("login", List.of("/api/v1/auth/login"), KeyType.IP, "X-API-Key", 3, Duration.ofMinutes(1), null));
+        when(rateLimitPolicies.matching(any())).thenReturn(List.of(auth(), login));
+        when(rateLimitBuckets.resolve(eq("rate_limit:login:ip:10.0.0.1"), any(), anyLong())).thenReturn(otherBucket);
+        when(bucket.tryConsumeAndReturnRemaining(1))
+                .thenReturn(CompletableFuture.completedFuture(ConsumptionProbe.consumed(9, 0)));
+        when(otherBucket.tryConsumeAndReturnRemaining(1)).thenReturn(CompletableFuture.completedFuture(
+                ConsumptionProbe.rejected(0, Duration.ofSeconds(20).toNanos(), Duration.ofSeconds(20).toNanos())));
+        when(bucket.addTokens(1)).thenReturn(CompletableFuture.completedFuture(null));
+
+        assertThatThrownBy(() -> interceptor(FailurePolicy.OPEN).preHandle(request, new MockHttpServletResponse(), null))
+                .isInstanceOf(RateLimitExceededException.class);
+
+        verify(bucket).addTokens(1);
+        verify(otherBucket, never()).addTokens(anyLong());
+    }
+
+    @Test
+    @DisplayName("An upload rejected by the request policy gets its size-weighted tokens back, and vice versa")
+    void preHandle_WhenSizeWeightedRequestIsRejected_ShouldRefundBySize() {
+        RateLimitPolicy tasks = RateLimitPolicy.from(new Policy("tasks", List.of("/api/v1/tasks/**"),
+                KeyType.IP, "X-API-Key", 300, Duration.ofMinutes(1), null));
+        RateLimitPolicy ai = RateLimitPolicy.from(new Policy("ai", List.of("/api/v1/tasks/ai-generate"),
+                KeyType.IP, "X-API-Key", 40, Duration.ofHours(1), DataSize.ofKilobytes(256)));
+        when(rateLimitPolicies.matching(any())).thenReturn(List.of(tasks, ai));
+        when(rateLimitBuckets.resolve(eq("rate_limit:tasks:ip:10.0.0.1"), any(), anyLong())).thenReturn(bucket);
+        when(rateLimitBuckets.resolve(eq("rate_limit:ai:ip:10.0.0.1"), any(), anyLong())).thenReturn(otherBucket);
+        ConsumptionProbe exhausted = ConsumptionProbe.rejected(
+                0, Duration.ofSeconds(1).toNanos(), Duration.ofSeconds(1).toNanos());
+        when(bucket.tryConsumeAndReturnRemaining(1))
+                .thenReturn(CompletableFuture.completedFuture(exhausted))
+                .thenReturn(CompletableFuture.completedFuture(ConsumptionProbe.consumed(299, 0)));
+        when(otherBucket.tryConsumeAndReturnRemaining(3))
+                .thenReturn(CompletableFuture.completedFuture(ConsumptionProbe.consumed(37, 0)))
+                .thenReturn(CompletableFuture.completedFuture(exhausted));
+        when(bucket.addTokens(1)).thenReturn(CompletableFuture.completedFuture(null));
+        when(otherBucket.addTokens(3)).thenReturn(CompletableFuture.completedFuture(null));
+        request.setRequestURI("/api/v1/tasks/ai-generate");
+        request.setContent(new byte[600 * 1024]);
+        RateLimitingInterceptor interceptor = interceptor(FailurePolicy.OPEN);
+
+        // Rejected by 'tasks': the three audio tokens are given back
+        assertThatThrownBy(() -> interceptor.preHandle(request, new MockHttpServletResponse(), null))
+                .isInstanceOf(RateLimitExceededException.class);
+        verify(otherBucket).addTokens(3);
+
+        // Rejected by 'ai': the request token is given back
+        assertThatThrownBy(() -> interceptor.preHandle(request, new MockHttpServletResponse(), null))
+                .isInstanceOf(RateLimitExceededException.class);
+        verify(bucket).addTokens(1);
+    }
+
+    @Test
+    @DisplayName("Fail-open lets the request through once Redis has not answered within the timeout")
+    void preHandle_WhenRedisSlowAndFailOpen_ShouldAllowAfterTimeout() throws Exception {
+        when(bucket.tryConsumeAndReturnRemaining(1)).thenReturn(new CompletableFuture<>());
+
+        long start = System.nanoTime();
+        boolean allowed = interceptor(FailurePolicy.OPEN).preHandle(request, new MockHttpServletResponse(), null);
+
+        assertThat(allowed).isTrue();
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(1));
+        assertThat(meterRegistry.get("rate_limit.decision").tag("result", "timeout").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("rate_limit.failed_open").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Fail-closed rejects the request with 503 when Redis fails")
+    void preHandle_WhenRedisFailsAndFailClosed_ShouldReject() {
+        when(bucket.tryConsumeAndReturnRemaining(1))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("Redis down")));
+
+        assertThatThrownBy(() -> interceptor(FailurePolicy.CLOSED).preHandle(request, new MockHttpServletResponse(), null))
+                .isInstanceOf(RateLimitUnavailableException.class);
+        assertThat(meterRegistry.get("rate_limit.decision").tag("result", "error").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Paths without a policy are not checked")
+    void preHandle_WhenNoPolicyMatches_ShouldAllow() throws Exception {
+        when(rateLimitPolicies.matching(any())).thenReturn(List.of());
+
+        assertThat(interceptor(FailurePolicy.CLOSED).preHandle(request, new MockHttpServletResponse(), null)).isTrue();
+    }
+
+    private static RateLimitPolicy auth() {
+        return RateLimitPolicy.from(
+                new Policy("auth", List.of("/api/v1/auth/**"), KeyType.IP, "X-API-Key", 10, Duration.ofMinutes(1), null));
+    }
+
+    private RateLimitingInterceptor interceptor(FailurePolicy failurePolicy) {
+        return new RateLimitingInterceptor(rateLimitPolicies, rateLimitBuckets, meterRegistry, TIMEOUT, failurePolicy);
+    }
+}
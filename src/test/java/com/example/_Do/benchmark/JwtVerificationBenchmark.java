@@ -0,0 +1,102 @@
+package com.example._Do.benchmark;
+
+import com.example._Do.config.JwtService;
+import com.example._Do.user.entity.Role;
+import com.example._Do.user.entity.User;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark for the per-request cost of JWT verification in {@code JwtAuthenticationFilter}.
+ * <p>
+ * <strong>legacyTripleParse</strong> reproduces the old filter: three full parses
+ * (extractUsername, then extractUsername and extractExpiration inside isTokenValid),
+ * each decoding the secret and building a new parser.<br>
+ * <strong>singleVerification</strong> is one verification pass with the prebuilt key and parser
+ * (claims cache disabled).<br>
+ * <strong>cachedVerification</strong> is the steady state for a client that reuses its token.
+ * </p>
+ * <p>
+ * Run with: {@code ./mvnw test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.example._Do.benchmark.JwtVerificationBenchmark}
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class JwtVerificationBenchmark {
+
+    private static final String SECRET_KEY = "404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970";
+    private static final long EXPIRATION = 86_400_000L;
+
+    private JwtService uncachedJwtService;
+    private JwtService cachedJwtService;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        uncachedJwtService = new JwtService(SECRET_KEY, EXPIRATION, 0);
+        cachedJwtService = new JwtService(SECRET_KEY, EXPIRATION, 10_000);
+
+        User user = User.builder()
+                .id(1L)
+                .email("bench@user.com")
+                .firstName("Bench")
+                .lastName("User")
+                .role(Role.USER)
+                .build();
+        token = cachedJwtService.generateToken(user, "bench-session");
+    }
+
+    @Benchmark
+    public boolean legacyTripleParse() {
+        String username = legacyParse(token).getSubject();
+        return username.equals(legacyParse(token).getSubject())
+                && !legacyParse(token).getExpiration().before(new Date());
+    }
+
+    @Benchmark
+    public Claims singleVerification() {
+        return uncachedJwtService.verifyToken(token);
+    }
+
+    @Benchmark
+    public Claims cachedVerification() {
+        return cachedJwtService.verifyToken(token);
+    }
+
+    private static Claims legacyParse(String jwt) {
+        return Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET_KEY)))
+                .build()
+                .parseClaimsJws(jwt)
+                .getBody();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtVerificationBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
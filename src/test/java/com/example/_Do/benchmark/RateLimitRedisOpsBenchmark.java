@@ -0,0 +1,146 @@
+package com.example._Do.benchmark;
+
+import com.example._Do.auth.interceptor.RateLimitBuckets;
+import io.github.bucket4j.BucketConfiguration;
+import io.github.bucket4j.distributed.proxy.ProxyManager;
+import io.github.bucket4j.redis.lettuce.cas.LettuceBasedProxyManager;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.codec.ByteArrayCodec;
+import io.lettuce.core.codec.RedisCodec;
+import io.lettuce.core.codec.StringCodec;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.testcontainers.containers.GenericContainer;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * JMH benchmark for the Redis load of the rate limiter of {@code /api/v1/auth/**}.
+ * <p>
+ * <strong>REDIS</strong> is the previous interceptor: a new proxy per request, one Redis call per
+ * consumption.<br>
+ * <strong>HYBRID</strong> reuses one delaying proxy per key and synchronizes with Redis in batches
+ * (2 unsynchronized tokens, 1 s).
+ * </p>
+ * <p>
+ * 8 threads consume from 1000 client keys against a Redis container (Testcontainers, Docker required).
+ * Besides the request throughput, every iteration prints the commands Redis processed per second
+ * and per request ({@code INFO stats}).
+ * </p>
+ * <p>
+ * Run with: {@code ./mvnw test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.example._Do.benchmark.RateLimitRedisOpsBenchmark}
+ * </p>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Threads(8)
+@Fork(1)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class RateLimitRedisOpsBenchmark {
+
+    private static final int KEYS = 1000;
+    // Large enough that no client runs out of tokens: measures the cost of an allowed request
+    private static final BucketConfiguration CONFIGURATION = BucketConfiguration.builder()
+            .addLimit(limit -> limit.capacity(1_000_000).refillGreedy(1_000_000, Duration.ofMinutes(1)))
+            .build();
+
+    @Param({"REDIS", "HYBRID"})
+    private RateLimitBuckets.Mode mode;
+
+    private GenericContainer<?> redis;
+    private RedisClient redisClient;
+    private StatefulRedisConnection<String, byte[]> bucketConnection;
+    private StatefulRedisConnection<String, String> statsConnection;
+    private RateLimitBuckets rateLimitBuckets;
+    private String[] keys;
+
+    private final LongAdder requests = new LongAdder();
+    private long iterationStartNanos;
+    private long iterationStartCommands;
+
+    @Setup
+    public void setUp() {
+        redis = new GenericContainer<>("redis:7-alpine").withExposedPorts(6379);
+        redis.start();
+        redisClient = RedisClient.create("redis://" + redis.getHost() + ":" + redis.getMappedPort(6379));
+        bucketConnection = redisClient.connect(RedisCodec.of(StringCodec.UTF8, ByteArrayCodec.INSTANCE));
+        statsConnection = redisClient.connect();
+
+        ProxyManager<String> proxyManager = LettuceBasedProxyManager.builderFor(bucketConnection).build();
+        rateLimitBuckets = new RateLimitBuckets(
+                proxyManager, new SimpleMeterRegistry(), mode, 2, Duration.ofSeconds(1), 100_000, Duration.ofMinutes(5));
+
+        keys = new String[KEYS];
+        for (int i = 0; i < KEYS; i++) {
+            keys[i] = "10.0." + (i / 256) + "." + (i % 256);
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void startIteration() {
+        requests.reset();
+        iterationStartCommands = commandsProcessed();
+        iterationStartNanos = System.nanoTime();
+    }
+
+    @TearDown(Level.Iteration)
+    public void reportIteration() {
+        double seconds = (System.nanoTime() - iterationStartNanos) / 1e9;
+        long commands = commandsProcessed() - iterationStartCommands;
+        System.out.printf("%n%s: %.0f Redis commands/s, %.3f per request%n",
+                mode, commands / seconds, (double) commands / Math.max(1, requests.sum()));
+    }
+
+    @TearDown
+    public void tearDown() {
+        bucketConnection.close();
+        statsConnection.close();
+        redisClient.shutdown();
+        redis.stop();
+    }
+
+    @Benchmark
+    public boolean consume() {
+        requests.increment();
+        String key = keys[ThreadLocalRandom.current().nextInt(KEYS)];
+        return rateLimitBuckets.resolve(key, CONFIGURATION, 0).tryConsume(1).join();
+    }
+
+    private long commandsProcessed() {
+        for (String line : statsConnection.sync().info("stats").split("\r?\n")) {
+            if (line.startsWith("total_commands_processed:")) {
+                return Long.parseLong(line.substring(line.indexOf(':') + 1).trim());
+            }
+        }
+        throw new IllegalStateException("total_commands_processed missing from INFO stats");
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(RateLimitRedisOpsBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,132 @@
+package com.example._Do.benchmark;
+
+import com.example._Do.Application;
+import com.example._Do.task.dto.TaskFilter;
+import com.example._Do.task.dto.TaskResponse;
+import com.example._Do.task.entity.Priority;
+import com.example._Do.task.entity.Task;
+import com.example._Do.task.mapper.TaskMapper;
+import com.example._Do.task.repository.TaskRepository;
+import com.example._Do.user.entity.Role;
+import com.example._Do.user.entity.User;
+import com.example._Do.user.repository.UserRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark for the heap allocated to read one page of 100 tasks.
+ * <p>
+ * <strong>entityPath</strong> is the old listing: managed {@code Task} entities (with a lazy
+ * {@code User} proxy and persistence-context entries) mapped through {@link TaskMapper}.<br>
+ * <strong>projectionPath</strong> selects straight into {@link TaskResponse} with a constructor expression.
+ * </p>
+ * <p>
+ * Both run in a read-only transaction against the in-memory H2 database of the test profile,
+ * including the COUNT query of the page. Compare the {@code gc.alloc.rate.norm} column (bytes per operation).
+ * </p>
+ * <p>
+ * Run with: {@code ./mvnw test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.example._Do.benchmark.TaskReadAllocationBenchmark}
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class TaskReadAllocationBenchmark {
+
+    private static final int PAGE_SIZE = 100;
+    private static final Pageable FIRST_PAGE = PageRequest.of(0, PAGE_SIZE, Sort.by(Sort.Direction.DESC, "createdAt"));
+
+    private ConfigurableApplicationContext context;
+    private TaskRepository taskRepository;
+    private TaskMapper taskMapper;
+    private TransactionTemplate readOnlyTransaction;
+    private Long userId;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(Application.class)
+                .profiles("test")
+                .properties("spring.jpa.show-sql=false",
+                        "spring.jpa.properties.hibernate.generate_statistics=false")
+                .run();
+        taskRepository = context.getBean(TaskRepository.class);
+        taskMapper = context.getBean(TaskMapper.class);
+        readOnlyTransaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnlyTransaction.setReadOnly(true);
+
+        User user = context.getBean(UserRepository.class).save(User.builder()
+                .firstName("Bench")
+                .lastName("User")
+                .email("bench@user.com")
+                .password("hashedPassword")
+                .role(Role.USER)
+                .build());
+        userId = user.getId();
+
+        List<Task> tasks = new ArrayList<>(PAGE_SIZE);
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            tasks.add(Task.builder()
+                    .title("Task " + i)
+                    .description("Description of task " + i)
+                    .priority(Priority.values()[i % Priority.values().length])
+                    .dueDate(LocalDateTime.now().plusDays(i))
+                    .user(user)
+                    .build());
+        }
+        taskRepository.saveAll(tasks);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Page<TaskResponse> entityPath() {
+        return readOnlyTransaction.execute(status ->
+                taskRepository.findAllByUserId(userId, FIRST_PAGE).map(taskMapper::toResponse));
+    }
+
+    @Benchmark
+    public Page<TaskResponse> projectionPath() {
+        return readOnlyTransaction.execute(status ->
+                taskRepository.findPage(userId, TaskFilter.none(), FIRST_PAGE));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(TaskReadAllocationBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
@@ -0,0 +1,110 @@
+package com.example._Do.config;
+
+import com.example._Do.exception.PasswordHashingUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for {@link BoundedPasswordEncoder}.
+ * <p>
+ * <strong>Goal:</strong> Hashing must stay within the configured number of threads and queue
+ * slots (rejecting the rest immediately), the configured cost factor must be used whatever the
+ * machine, and hashes with an older cost factor must be reported for an upgrade.
+ * </p>
+ */
+class BoundedPasswordEncoderTest {
+
+    @Test
+    @DisplayName("Encoded passwords match and use the configured strength")
+    void encode_ShouldProduceMatchingHash() {
+        try (BoundedPasswordEncoder encoder = encoder(2, 10, 4)) {
+            String hash = encoder.encode("Secret@123");
+
+            assertThat(hash).startsWith("$2a$04$");
+            assertThat(encoder.matches("Secret@123", hash)).isTrue();
+            assertThat(encoder.matches("wrong", hash)).isFalse();
+        }
+    }
+
+    @Test
+    @DisplayName("The recommended strength is only a hint; the configured strength is kept")
+    void recommendStrength_ShouldNotChangeStrength() {
+        try (BoundedPasswordEncoder encoder = encoder(1, 1, 6)) {
+            assertThat(encoder.recommendStrength(Duration.ofNanos(1))).isEqualTo(4);
+            assertThat(encoder.recommendStrength(Duration.ofDays(1))).isGreaterThan(6);
+            assertThat(encoder.getStrength()).isEqualTo(6);
+            assertThat(encoder.encode("Secret@123")).startsWith("$2a$06$");
+        }
+    }
+
+    @Test
+    @DisplayName("Hashes with a lower strength are upgraded")
+    void upgradeEncoding_ShouldReportWeakerHashes() {
+        try (BoundedPasswordEncoder encoder = encoder(1, 1, 6)) {
+            assertThat(encoder.upgradeEncoding(new BCryptPasswordEncoder(4).encode("Secret@123"))).isTrue();
+            assertThat(encoder.upgradeEncoding(encoder.encode("Secret@123"))).isFalse();
+        }
+    }
+
+    @Test
+    @DisplayName("Requests beyond the threads and the queue are rejected immediately")
+    void encode_WhenSaturated_ShouldReject() throws Exception {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ExecutorService callers = Executors.newFixedThreadPool(8);
+        try (BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(1, 1, 12, meterRegistry)) {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(callers.submit(() -> {
+                    start.await();
+                    return encoder.encode("Secret@123");
+                }));
+            }
+            start.countDown();
+
+            int rejected = 0;
+            for (Future<String> result : results) {
+                try {
+                    result.get();
+                } catch (ExecutionException e) {
+                    assertThat(e.getCause()).isInstanceOf(PasswordHashingUnavailableException.class);
+                    rejected++;
+                }
+            }
+
+            // One hash running and one queued; every other caller is turned away
+            assertThat(rejected).isGreaterThanOrEqualTo(6);
+            assertThat(meterRegistry.get("auth.password.hashing.rejected").counter().count()).isEqualTo(rejected);
+        } finally {
+            callers.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Rejection surfaces as PasswordHashingUnavailableException")
+    void encode_WhenClosed_ShouldReject() {
+        BoundedPasswordEncoder encoder = encoder(1, 1, 4);
+        encoder.close();
+
+        assertThatThrownBy(() -> encoder.encode("Secret@123"))
+                .isInstanceOf(PasswordHashingUnavailableException.class);
+    }
+
+    private static BoundedPasswordEncoder encoder(int threads, int queueCapacity, int strength) {
+        return new BoundedPasswordEncoder(threads, queueCapacity, strength, new SimpleMeterRegistry());
+    }
+}
@@ -10,6 +10,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
@@ -99,4 +100,27 @@ class GlobalExceptionHandlerTest {
         assertEquals(requestUri, body.getPath());
         assertNotNull(body.getTimestamp(), "Timestamp should be generated");
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Should return 429 with the exact Retry-After when a rate limit is exceeded")
+    void shouldReturn429WithRetryAfter_WhenRateLimitExceeded() {
+        // Arrange
+        String requestUri = "/api/v1/auth/login";
+        RateLimitExceededException exception =
+                new RateLimitExceededException("Too many requests. Please try again in 17 seconds.", 17);
+
+        when(request.getRequestURI()).thenReturn(requestUri);
+
+        // Act
+        ResponseEntity<ErrorResponse> response = globalExceptionHandler.handleRateLimitExceeded(exception, request);
+
+        // Assert
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, response.getStatusCode(), "HTTP Status should be 429");
+        assertEquals("17", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+
+        ErrorResponse body = response.getBody();
+        assertNotNull(body, "Response body should not be null");
+        assertEquals(exception.getMessage(), body.getMessage());
+        assertEquals(requestUri, body.getPath());
+    }
+}
@@ -0,0 +1,44 @@
+package com.example._Do.support;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+
+/**
+ * Counts the JDBC statements Hibernate prepares around an operation.
+ * <p>
+ * Relies on Hibernate statistics, which the test profile enables. The statistics are global to
+ * the session factory, so statement counts are only meaningful in tests that do not run
+ * concurrently with other database work.
+ * </p>
+ */
+public final class StatementCounter {
+
+    private final Statistics statistics;
+
+    public StatementCounter(EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    /**
+     * Runs the operation and returns the number of statements prepared while it ran.
+     * <p>
+     * The statistics are reset first, so {@link #statistics()} afterwards describes this operation only.
+     * </p>
+     *
+     * @param operation The operation to measure.
+     * @return The number of prepared JDBC statements.
+     */
+    public long count(Runnable operation) {
+        statistics.clear();
+        operation.run();
+        return statistics.getPrepareStatementCount();
+    }
+
+    /**
+     * @return The underlying Hibernate statistics (e.g. for entity insert or load counts).
+     */
+    public Statistics statistics() {
+        return statistics;
+    }
+}
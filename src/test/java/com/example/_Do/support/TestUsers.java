@@ -0,0 +1,30 @@
+package com.example._Do.support;
+
+import com.example._Do.user.entity.Role;
+import com.example._Do.user.entity.User;
+
+import java.util.UUID;
+
+/**
+ * Users for integration tests.
+ */
+public final class TestUsers {
+
+    private TestUsers() {
+    }
+
+    /**
+     * Builds a new, unsaved user with the {@link Role#USER} role and a unique email address.
+     *
+     * @return The user, ready to be saved.
+     */
+    public static User newUser() {
+        return User.builder()
+                .firstName("Test")
+                .lastName("User")
+                .email(UUID.randomUUID() + "@test.com")
+                .password("hashedPassword")
+                .role(Role.USER)
+                .build();
+    }
+}
@@ -0,0 +1,208 @@
+package com.example._Do.task.cache;
+
+import com.example._Do.task.dto.TaskFilter;
+import com.example._Do.task.dto.TaskResponse;
+import com.example._Do.task.entity.Priority;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for {@link TaskResponseCache}.
+ * <p>
+ * <strong>Goal:</strong> Verify the read-through behavior (hits skip the loader, misses are written
+ * tagged with the current generation, stale generations are misses), that a Redis outage never fails a read, and that invalidation
+ * is a single INCR of the user's generation.
+ * </p>
+ */
+@ExtendWith(MockitoExtension.class)
+class TaskResponseCacheTest {
+
+    private static final Long USER_ID = 42L;
+    private static final Duration TTL = Duration.ofMinutes(10);
+
+    @Mock
+    private StringRedisTemplate stringRedisTemplate;
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private SimpleMeterRegistry meterRegistry;
+    private TaskResponseCache cache;
+    private TaskResponse task;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new TaskResponseCache(stringRedisTemplate, objectMapper, meterRegistry, TTL, true);
+        task = TaskResponse.builder()
+                .id(7L)
+                .title("Cached")
+                .priority(Priority.HIGH)
+                .createdAt(LocalDateTime.of(2025, 1, 1, 12, 0))
+                .version(3)
+                .build();
+    }
+
+    @Test
+    @DisplayName("A hit is served from Redis without calling the loader")
+    void getTask_WhenCached_ShouldNotLoad() throws Exception {
+        stubLookup("5", "5:" + objectMapper.writeValueAsString(task));
+        AtomicInteger loads = new AtomicInteger();
+
+        TaskResponse result = cache.getTask(USER_ID, 7L, () -> {
+            loads.incrementAndGet();
+            return task;
+        });
+
+        assertThat(result).isEqualTo(task);
+        assertThat(loads).hasValue(0);
+        assertThat(count("task", "hit")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("A miss loads the task and writes it under the current generation")
+    void getTask_WhenMissing_ShouldLoadAndStore() throws Exception {
+        stubLookup("5", null);
+
+        TaskResponse result = cache.getTask(USER_ID, 7L, () -> task);
+
+        assertThat(result).isEqualTo(task);
+        verify(valueOperations).set("task_cache:{42}:task:7", "5:" + objectMapper.writeValueAsString(task), TTL);
+        assertThat(count("task", "miss")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("An entry written under an older generation is a miss and is overwritten")
+    void getTask_WhenInvalidated_ShouldReload() throws Exception {
+        stubLookup("6", "5:" + objectMapper.writeValueAsString(task));
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.getTask(USER_ID, 7L, () -> {
+            loads.incrementAndGet();
+            return task;
+        });
+
+        assertThat(loads).hasValue(1);
+        verify(valueOperations).set("task_cache:{42}:task:7", "6:" + objectMapper.writeValueAsString(task), TTL);
+        assertThat(count("task", "miss")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("A Redis failure falls back to the loader")
+    void getTask_WhenRedisDown_ShouldLoad() {
+        when(stringRedisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.multiGet(anyList())).thenThrow(new RedisConnectionFailureException("down"));
+
+        assertThat(cache.getTask(USER_ID, 7L, () -> task)).isEqualTo(task);
+        verify(valueOperations, never()).set(anyString(), anyString(), any(Duration.class));
+        assertThat(count("task", "error")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("A cached first page is rebuilt with its total count; later pages bypass the cache")
+    void getFirstPage_ShouldOnlyCacheFirstPage() throws Exception {
+        PageRequest firstPage = PageRequest.of(0, 10);
+        stubLookup(null, "0:" + objectMapper.writeValueAsString(new TaskResponseCache.CachedPage(List.of(task), 25, true)));
+        TaskFilter filter = new TaskFilter(false, Set.of(Priority.HIGH, Priority.LOW), null, null, null, null);
+
+        Slice<TaskResponse> cached = cache.getFirstPage(USER_ID, filter, firstPage, true, () -> Page.empty());
+        Slice<TaskResponse> secondPage = cache.getFirstPage(USER_ID, filter, PageRequest.of(1, 10), true,
+                () -> new PageImpl<>(List.of(), PageRequest.of(1, 10), 25));
+
+        assertThat(cached).isInstanceOf(Page.class);
+        assertThat(((Page<TaskResponse>) cached).getTotalElements()).isEqualTo(25);
+        assertThat(cached.getContent()).containsExactly(task);
+        assertThat(secondPage.getNumber()).isEqualTo(1);
+        assertThat(count("page", "hit")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Invalidation increments the user's generation")
+    void invalidate_ShouldIncrementGeneration() {
+        when(stringRedisTemplate.opsForValue()).thenReturn(valueOperations);
+
+        cache.invalidateAfterCommit(USER_ID);
+
+        verify(valueOperations).increment("task_cache:{42}:gen");
+    }
+
+    @Test
+    @DisplayName("Filters that only differ in parameter order share an entry")
+    void getFirstPage_ShouldNormalizeFilter() throws Exception {
+        PageRequest firstPage = PageRequest.of(0, 10);
+        String json = objectMapper.writeValueAsString(new TaskResponseCache.CachedPage(List.of(task), -1, false));
+        when(stringRedisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.multiGet(List.of("task_cache:{42}:gen",
+                "task_cache:{42}:page:slice:10:UNSORTED:null|HIGH,LOW|null|null|false|false")))
+                .thenReturn(Arrays.asList("1", "1:" + json));
+
+        cache.getFirstPage(USER_ID, new TaskFilter(null, Set.of(Priority.LOW, Priority.HIGH), null, null, null, null),
+                firstPage, false, () -> Page.empty());
+
+        assertThat(count("page", "hit")).isEqualTo(1);
+        verify(valueOperations, never()).set(anyString(), anyString(), any(Duration.class));
+    }
+
+    @Test
+    @DisplayName("Overdue listings depend on the clock and are never cached")
+    void getFirstPage_WhenOverdue_ShouldBypassCache() {
+        TaskFilter overdue = new TaskFilter(null, null, null, null, true, null);
+        Page<TaskResponse> loaded = new PageImpl<>(List.of(task));
+
+        Slice<TaskResponse> result = cache.getFirstPage(USER_ID, overdue, PageRequest.of(0, 10), true, () -> loaded);
+
+        assertThat(result).isSameAs(loaded);
+        verifyNoInteractions(stringRedisTemplate);
+    }
+
+    @Test
+    @DisplayName("A disabled cache always loads and never touches Redis")
+    void whenDisabled_ShouldOnlyCallLoader() {
+        TaskResponseCache disabled = new TaskResponseCache(stringRedisTemplate, objectMapper, meterRegistry, TTL, false);
+
+        assertThat(disabled.getTask(USER_ID, 7L, () -> task)).isEqualTo(task);
+        disabled.invalidateAfterCommit(USER_ID);
+
+        verifyNoInteractions(stringRedisTemplate);
+    }
+
+    // --- Helper Methods ---
+
+    private void stubLookup(String generation, String entry) {
+        when(stringRedisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.multiGet(anyList())).thenReturn(Arrays.asList(generation, entry));
+    }
+
+    private double count(String type, String result) {
+        return meterRegistry.get("tasks.cache.requests").tag("type", type).tag("result", result).counter().count();
+    }
+}
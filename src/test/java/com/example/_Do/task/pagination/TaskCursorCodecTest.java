@@ -0,0 +1,84 @@
+package com.example._Do.task.pagination;
+
+import com.example._Do.task.exception.InvalidCursorException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit Tests for {@link TaskCursorCodec}.
+ * <p>
+ * <strong>Goal:</strong> Ensure pagination cursors round-trip and cannot be forged, modified,
+ * or replayed by another user or with another sort order.
+ * </p>
+ */
+class TaskCursorCodecTest {
+
+    private static final Long USER_ID = 1L;
+
+    private final TaskCursorCodec codec = new TaskCursorCodec("test-cursor-secret");
+
+    @Test
+    @DisplayName("Encoded cursor should decode to the same position")
+    void encodeDecode_ShouldRoundTrip() {
+        TaskCursor cursor = new TaskCursor(TaskCursorSort.CREATED_AT_DESC, LocalDateTime.of(2025, 1, 2, 3, 4, 5, 6000), 42L);
+
+        TaskCursor decoded = codec.decode(codec.encode(cursor, USER_ID), USER_ID, TaskCursorSort.CREATED_AT_DESC);
+
+        assertThat(decoded).isEqualTo(cursor);
+    }
+
+    @Test
+    @DisplayName("Cursor without a sort value (task without due date) should round-trip")
+    void encodeDecode_WithNullValue_ShouldRoundTrip() {
+        TaskCursor cursor = new TaskCursor(TaskCursorSort.DUE_DATE_ASC, null, 7L);
+
+        TaskCursor decoded = codec.decode(codec.encode(cursor, USER_ID), USER_ID, TaskCursorSort.DUE_DATE_ASC);
+
+        assertThat(decoded).isEqualTo(cursor);
+    }
+
+    @Test
+    @DisplayName("Tampered cursor should be rejected")
+    void decode_WhenTampered_ShouldThrowException() {
+        String encoded = codec.encode(new TaskCursor(TaskCursorSort.CREATED_AT_ASC, LocalDateTime.now(), 5L), USER_ID);
+        String forgedPayload = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString("CREATED_AT_ASC~2020-01-01T00:00~1".getBytes());
+        String tampered = forgedPayload + encoded.substring(encoded.indexOf('.'));
+
+        assertThatThrownBy(() -> codec.decode(tampered, USER_ID, TaskCursorSort.CREATED_AT_ASC))
+                .isInstanceOf(InvalidCursorException.class);
+    }
+
+    @Test
+    @DisplayName("Cursor issued to another user should be rejected")
+    void decode_WhenOtherUser_ShouldThrowException() {
+        String encoded = codec.encode(new TaskCursor(TaskCursorSort.CREATED_AT_DESC, LocalDateTime.now(), 5L), USER_ID);
+
+        assertThatThrownBy(() -> codec.decode(encoded, 2L, TaskCursorSort.CREATED_AT_DESC))
+                .isInstanceOf(InvalidCursorException.class);
+    }
+
+    @Test
+    @DisplayName("Cursor used with another sort order should be rejected")
+    void decode_WhenSortDiffers_ShouldThrowException() {
+        String encoded = codec.encode(new TaskCursor(TaskCursorSort.CREATED_AT_DESC, LocalDateTime.now(), 5L), USER_ID);
+
+        assertThatThrownBy(() -> codec.decode(encoded, USER_ID, TaskCursorSort.DUE_DATE_ASC))
+                .isInstanceOf(InvalidCursorException.class);
+    }
+
+    @Test
+    @DisplayName("Garbage input should be rejected as invalid cursor")
+    void decode_WhenMalformed_ShouldThrowException() {
+        assertThatThrownBy(() -> codec.decode("not-a-cursor", USER_ID, TaskCursorSort.CREATED_AT_DESC))
+                .isInstanceOf(InvalidCursorException.class);
+        assertThatThrownBy(() -> codec.decode("!!!.???", USER_ID, TaskCursorSort.CREATED_AT_DESC))
+                .isInstanceOf(InvalidCursorException.class);
+    }
+}
@@ -0,0 +1,282 @@
+package com.example._Do.task.repository;
+
+import com.example._Do.task.dto.TaskFilter;
+import com.example._Do.task.dto.TaskPatch;
+import com.example._Do.task.entity.Priority;
+import com.example._Do.task.pagination.TaskCursor;
+import com.example._Do.task.pagination.TaskCursorSort;
+import com.example._Do.task.search.TaskSearchQuery;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Plan regression tests for the {@link TaskRepository} queries.
+ * <p>
+ * <strong>Goal:</strong> Guarantee that every task access path is served by an index. A query
+ * that falls back to a sequential scan on {@code tasks} gets slower with every task ever created.
+ * </p>
+ * <p>
+ * <strong>Technique:</strong> Runs the application against a real PostgreSQL (Testcontainers)
+ * migrated with the production Flyway scripts and filled with many users that each own hundreds of
+ * tasks, then calls each repository method and captures the SQL Hibernate actually sends with a
+ * {@link StatementInspector}. Every captured statement is explained with the default planner
+ * settings, and the test fails if {@code EXPLAIN (GENERIC_PLAN, FORMAT JSON)} reports a Seq Scan on
+ * {@code tasks}. The generic plan is the one PostgreSQL reuses for server-side prepared statements,
+ * so it must be index-backed whatever values are bound. Writes are rolled back.
+ * Skipped when Docker is not available.
+ * </p>
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Testcontainers(disabledWithoutDocker = true)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class TaskQueryPlanTest {
+
+    private static final int USERS = 200;
+    private static final int TASKS_PER_USER = 500;
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    @Autowired
+    private TaskRepository taskRepository;
+    @Autowired
+    private TaskCounterRepository taskCounterRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Long userId;
+    private Long taskId;
+    private LocalDateTime now;
+
+    @DynamicPropertySource
+    static void postgres(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+        registry.add("spring.datasource.driver-class-name", () -> "org.postgresql.Driver");
+        registry.add("spring.jpa.database-platform", () -> "org.hibernate.dialect.PostgreSQLDialect");
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "validate");
+        registry.add("spring.jpa.properties.hibernate.session_factory.statement_inspector",
+                CapturingStatementInspector.class::getName);
+    }
+
+    @BeforeAll
+    void seed() {
+        jdbcTemplate.update("INSERT INTO users (first_name, last_name, email, password, role) "
+                + "SELECT 'Plan', 'User', 'plan' || i || '@test.com', 'hashedPassword', 'USER' "
+                + "FROM generate_series(1, ?) i", USERS);
+        // A quarter of the tasks have no due date, the others are spread over four months around now;
+        // most tasks are done, as in any long-lived list
+        jdbcTemplate.update("INSERT INTO tasks (title, description, due_date, priority, completed, user_id, created_at) "
+                + "SELECT 'Task ' || i, 'Description of task ' || i, "
+                + "CASE WHEN i % 4 = 0 THEN NULL ELSE now() + (i % 120 - 60) * interval '1 day' END, "
+                + "(ARRAY['LOW', 'MEDIUM', 'HIGH'])[i % 3 + 1], i % 5 <> 0, u.id, now() - i * interval '1 hour' "
+                + "FROM users u CROSS JOIN generate_series(1, ?) i", TASKS_PER_USER);
+        jdbcTemplate.execute("ANALYZE");
+
+        userId = jdbcTemplate.queryForObject("SELECT id FROM users ORDER BY id OFFSET ? LIMIT 1", Long.class, USERS / 2);
+        taskId = jdbcTemplate.queryForObject("SELECT max(id) FROM tasks WHERE user_id = ?", Long.class, userId);
+        now = LocalDateTime.now();
+        taskCounterRepository.initialize(userId);
+    }
+
+    Stream<Arguments> repositoryQueries() {
+        LocalDateTime position = now.minusDays(3);
+        PageRequest newestFirst = PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "createdAt", "id"));
+        return Stream.of(
+                Arguments.of("findAllByUserId (createdAt DESC)", (Runnable) () ->
+                        taskRepository.findAllByUserId(userId, PageRequest.of(10, 10, Sort.by(Sort.Direction.DESC, "createdAt")))),
+                Arguments.of("findSlice (dueDate ASC)", (Runnable) () ->
+                        taskRepository.findSlice(userId, TaskFilter.none(), PageRequest.of(10, 10, Sort.by("dueDate")))),
+                Arguments.of("countByUserId", (Runnable) () ->
+                        taskRepository.countByUserId(userId)),
+                Arguments.of("findByIdAndUserId", (Runnable) () ->
+                        taskRepository.findByIdAndUserId(taskId, userId)),
+                Arguments.of("findResponseByIdAndUserId", (Runnable) () ->
+                        taskRepository.findResponseByIdAndUserId(taskId, userId)),
+                Arguments.of("findAllByIdInAndUserId", (Runnable) () ->
+                        taskRepository.findAllByIdInAndUserId(List.of(taskId, taskId - 1), userId)),
+                Arguments.of("updateByIdAndUserId", (Runnable) () ->
+                        taskRepository.updateByIdAndUserId(taskId, userId, 0L, "x", null, Priority.HIGH, null, true, now)),
+                Arguments.of("updateUncountedByIdAndUserId", (Runnable) () ->
+                        taskRepository.updateUncountedByIdAndUserId(taskId, userId, 0L, "x", null, Priority.HIGH,
+                                Priority.HIGH, null, true, now)),
+                Arguments.of("updateCompletedByIdAndUserId", (Runnable) () ->
+                        taskRepository.updateCompletedByIdAndUserId(taskId, userId, null, true, now)),
+                Arguments.of("toggleCompletedByIdAndUserId", (Runnable) () ->
+                        taskRepository.toggleCompletedByIdAndUserId(taskId, userId, null, true, now)),
+                Arguments.of("patch", (Runnable) () ->
+                        taskRepository.patch(taskId, userId, null,
+                                TaskPatch.fromJson(JsonNodeFactory.instance.objectNode().put("completed", true)), now, true)),
+                Arguments.of("deleteByIdAndUserId", (Runnable) () ->
+                        taskRepository.deleteByIdAndUserId(taskId, userId)),
+                Arguments.of("deleteUncountedByIdAndUserId", (Runnable) () ->
+                        taskRepository.deleteUncountedByIdAndUserId(taskId, userId, null)),
+                Arguments.of("deleteAllByIdInAndUserId", (Runnable) () ->
+                        taskRepository.deleteAllByIdInAndUserId(List.of(taskId, taskId - 1), userId)),
+                Arguments.of("findSliceAfter CREATED_AT_DESC", (Runnable) () ->
+                        taskRepository.findSliceAfter(userId, TaskFilter.none(), TaskCursorSort.CREATED_AT_DESC,
+                                new TaskCursor(TaskCursorSort.CREATED_AT_DESC, position, taskId), 21)),
+                Arguments.of("findSliceAfter CREATED_AT_ASC", (Runnable) () ->
+                        taskRepository.findSliceAfter(userId, TaskFilter.none(), TaskCursorSort.CREATED_AT_ASC,
+                                new TaskCursor(TaskCursorSort.CREATED_AT_ASC, position, taskId), 21)),
+                Arguments.of("findSliceAfter DUE_DATE_ASC (dated)", (Runnable) () ->
+                        taskRepository.findSliceAfter(userId, TaskFilter.none(), TaskCursorSort.DUE_DATE_ASC,
+                                new TaskCursor(TaskCursorSort.DUE_DATE_ASC, position, taskId), 21)),
+                Arguments.of("findSliceAfter DUE_DATE_ASC (undated)", (Runnable) () ->
+                        taskRepository.findSliceAfter(userId, TaskFilter.none(), TaskCursorSort.DUE_DATE_ASC,
+                                new TaskCursor(TaskCursorSort.DUE_DATE_ASC, null, taskId), 21)),
+                Arguments.of("findPage completed=false", (Runnable) () ->
+                        taskRepository.findPage(userId, new TaskFilter(false, null, null, null, null, null), newestFirst)),
+                Arguments.of("findPage priority IN", (Runnable) () ->
+                        taskRepository.findPage(userId,
+                                new TaskFilter(null, Set.of(Priority.HIGH, Priority.MEDIUM), null, null, null, null), newestFirst)),
+                Arguments.of("findPage priority IN + completed", (Runnable) () ->
+                        taskRepository.findPage(userId,
+                                new TaskFilter(false, Set.of(Priority.HIGH), null, null, null, null), newestFirst)),
+                Arguments.of("findPage due range", (Runnable) () ->
+                        taskRepository.findPage(userId, new TaskFilter(null, null, now.plusDays(7), now, null, null), newestFirst)),
+                Arguments.of("findPage due range + completed", (Runnable) () ->
+                        taskRepository.findPage(userId, new TaskFilter(true, null, now.plusDays(7), now, null, null), newestFirst)),
+                Arguments.of("findPage overdue", (Runnable) () ->
+                        taskRepository.findPage(userId, new TaskFilter(null, null, null, null, true, null), newestFirst)),
+                Arguments.of("findPage noDueDate", (Runnable) () ->
+                        taskRepository.findPage(userId, new TaskFilter(null, null, null, null, null, true), newestFirst)),
+                Arguments.of("countFiltered priority IN", (Runnable) () ->
+                        taskRepository.countFiltered(userId,
+                                new TaskFilter(null, Set.of(Priority.HIGH, Priority.LOW), null, null, null, null))),
+                Arguments.of("findSliceAfter DUE_DATE_ASC overdue", (Runnable) () ->
+                        taskRepository.findSliceAfter(userId, new TaskFilter(null, null, null, null, true, null),
+                                TaskCursorSort.DUE_DATE_ASC, new TaskCursor(TaskCursorSort.DUE_DATE_ASC, position, taskId), 21)),
+                Arguments.of("search (tsvector)", (Runnable) () ->
+                        taskRepository.search(userId, TaskSearchQuery.parse("rep jav"), PageRequest.of(0, 20))),
+                Arguments.of("countOverdueByPriority", (Runnable) () ->
+                        taskRepository.countOverdueByPriority(userId, now)),
+                Arguments.of("lockIdsByIdInAndUserId", (Runnable) () ->
+                        taskRepository.lockIdsByIdInAndUserId(List.of(taskId, taskId - 1), userId)),
+                Arguments.of("lockCounterStateByIdAndUserId", (Runnable) () ->
+                        taskRepository.lockCounterStateByIdAndUserId(taskId, userId)),
+                Arguments.of("TaskCounterRepository.moveCompleted", (Runnable) () ->
+                        taskCounterRepository.moveCompleted(userId, taskId, true)),
+                Arguments.of("TaskCounterRepository.addTasks", (Runnable) () ->
+                        taskCounterRepository.addTasks(userId, List.of(taskId, taskId - 1), -1))
+        );
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("repositoryQueries")
+    @DisplayName("Repository query should not sequentially scan tasks")
+    void query_ShouldUseIndex(String name, Runnable repositoryCall) throws Exception {
+        List<String> statements = capture(repositoryCall);
+
+        assertThat(statements).as("SQL of %s", name).anyMatch(sql -> sql.contains("tasks"));
+        for (String sql : statements) {
+            JsonNode plan = explain(sql);
+            assertThat(sequentialScansOnTasks(plan))
+                    .as("Plan of %s:%n%s%n%s", name, sql, plan.toPrettyString())
+                    .isEmpty();
+        }
+    }
+
+    // --- Helper Methods ---
+
+    /**
+     * Runs the repository call in a transaction that is rolled back and returns the SQL it sent.
+     */
+    private List<String> capture(Runnable repositoryCall) {
+        CapturingStatementInspector.STATEMENTS.clear();
+        transactionTemplate.executeWithoutResult(status -> {
+            repositoryCall.run();
+            status.setRollbackOnly();
+        });
+        return List.copyOf(CapturingStatementInspector.STATEMENTS);
+    }
+
+    private JsonNode explain(String sql) throws Exception {
+        String plan = jdbcTemplate.queryForObject(
+                "EXPLAIN (GENERIC_PLAN, FORMAT JSON) " + numberParameters(sql), String.class);
+        return OBJECT_MAPPER.readTree(plan).get(0).get("Plan");
+    }
+
+    /**
+     * Replaces the JDBC placeholders with PostgreSQL's numbered parameters ($1, $2, ...), which
+     * {@code EXPLAIN (GENERIC_PLAN)} accepts without values.
+     */
+    private static String numberParameters(String sql) {
+        StringBuilder numbered = new StringBuilder(sql.length() + 16);
+        int parameter = 0;
+        for (int i = 0; i < sql.length(); i++) {
+            char c = sql.charAt(i);
+            if (c == '?') {
+                numbered.append('$').append(++parameter);
+            } else {
+                numbered.append(c);
+            }
+        }
+        return numbered.toString();
+    }
+
+    private List<JsonNode> sequentialScansOnTasks(JsonNode plan) {
+        List<JsonNode> scans = new ArrayList<>();
+        collectSequentialScans(plan, scans);
+        return scans;
+    }
+
+    private void collectSequentialScans(JsonNode node, List<JsonNode> scans) {
+        if ("Seq Scan".equals(node.path("Node Type").asText()) && "tasks".equals(node.path("Relation Name").asText())) {
+            scans.add(node);
+        }
+        for (JsonNode child : node.path("Plans")) {
+            collectSequentialScans(child, scans);
+        }
+    }
+
+    /**
+     * Records every SQL statement Hibernate prepares (registered via
+     * {@code hibernate.session_factory.statement_inspector}, which instantiates it by class name).
+     */
+    public static class CapturingStatementInspector implements StatementInspector {
+
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
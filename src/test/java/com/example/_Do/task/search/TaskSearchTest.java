@@ -0,0 +1,129 @@
+package com.example._Do.task.search;
+
+import com.example._Do.auth.principal.AuthenticatedUser;
+import com.example._Do.support.TestUsers;
+import com.example._Do.task.dto.TaskResponse;
+import com.example._Do.task.entity.Task;
+import com.example._Do.task.repository.TaskRepository;
+import com.example._Do.task.service.TaskService;
+import com.example._Do.user.entity.User;
+import com.example._Do.user.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for task full-text search.
+ * <p>
+ * <strong>Goal:</strong> Verify the search semantics (word prefixes, all terms required, title
+ * matches first, owner scoping) on the portable H2 implementation used by the test profile,
+ * and the tokenization shared with the PostgreSQL tsquery.
+ * </p>
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class TaskSearchTest {
+
+    @Autowired
+    private TaskService taskService;
+    @Autowired
+    private TaskRepository taskRepository;
+    @Autowired
+    private UserRepository userRepository;
+
+    private User owner;
+
+    @BeforeEach
+    void setUp() {
+        owner = userRepository.save(TestUsers.newUser());
+        User otherUser = userRepository.save(TestUsers.newUser());
+
+        saveTask(owner, "Write Java report", "Quarterly numbers");
+        saveTask(owner, "Groceries", "Buy milk, then write the java report outline");
+        saveTask(owner, "Reporting dashboard", "Python only");
+        saveTask(otherUser, "Java report of someone else", null);
+
+        AuthenticatedUser principal = AuthenticatedUser.from(owner);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        taskRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("All terms must match as word prefixes; title matches rank first; other users are excluded")
+    void searchTasks_ShouldMatchPrefixesAndRankTitleFirst() {
+        assertThat(taskService.searchTasks("rep JAV", PageRequest.of(0, 10)).getContent())
+                .extracting(TaskResponse::getTitle)
+                .containsExactly("Write Java report", "Groceries");
+    }
+
+    @Test
+    @DisplayName("A term only matches the start of a word")
+    void searchTasks_ShouldNotMatchInsideWords() {
+        assertThat(taskService.searchTasks("port", PageRequest.of(0, 10)).getContent()).isEmpty();
+        assertThat(taskService.searchTasks("report", PageRequest.of(0, 10)).getContent())
+                .extracting(TaskResponse::getTitle)
+                .containsExactlyInAnyOrder("Write Java report", "Groceries", "Reporting dashboard");
+    }
+
+    @Test
+    @DisplayName("Words are split on punctuation and hyphens, like the tsvector parser")
+    void searchTasks_ShouldMatchTermsNextToPunctuation() {
+        saveTask(owner, "Learn (Kotlin)", "foo,bar");
+        saveTask(owner, "Answer e-mail", null);
+
+        assertThat(taskService.searchTasks("kotlin", PageRequest.of(0, 10)).getContent())
+                .extracting(TaskResponse::getTitle)
+                .containsExactly("Learn (Kotlin)");
+        assertThat(taskService.searchTasks("bar", PageRequest.of(0, 10)).getContent())
+                .extracting(TaskResponse::getTitle)
+                .containsExactly("Learn (Kotlin)");
+        assertThat(taskService.searchTasks("mail", PageRequest.of(0, 10)).getContent())
+                .extracting(TaskResponse::getTitle)
+                .containsExactly("Answer e-mail");
+        assertThat(taskService.searchTasks("e-mail", PageRequest.of(0, 10)).getContent())
+                .extracting(TaskResponse::getTitle)
+                .containsExactly("Answer e-mail");
+    }
+
+    @Test
+    @DisplayName("Results are sliced without a count query")
+    void searchTasks_ShouldSlice() {
+        var firstSlice = taskService.searchTasks("report", PageRequest.of(0, 2));
+
+        assertThat(firstSlice.getContent()).hasSize(2);
+        assertThat(firstSlice.hasNext()).isTrue();
+        assertThat(taskService.searchTasks("report", PageRequest.of(1, 2)).hasNext()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Input is reduced to lower-cased letter/digit terms and rendered as a prefix tsquery")
+    void parse_ShouldNormalizeTerms() {
+        TaskSearchQuery query = TaskSearchQuery.parse("  Rep & jav:* | 'x' rep ");
+
+        assertThat(query.terms()).containsExactly("rep", "jav", "x");
+        assertThat(query.toTsQuery()).isEqualTo("rep:* & jav:* & x:*");
+        assertThat(TaskSearchQuery.parse(" !!! ").isEmpty()).isTrue();
+    }
+
+    // --- Helper Methods ---
+
+    private void saveTask(User user, String title, String description) {
+        taskRepository.save(Task.builder().title(title).description(description).user(user).build());
+    }
+}
@@ -0,0 +1,99 @@
+package com.example._Do.task.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link GeminiRequestWriter}.
+ * <p>
+ * <strong>Goal:</strong> The request body is the JSON Gemini expects, and writing it allocates a
+ * bounded amount of heap no matter how large the recording is.
+ * </p>
+ */
+class GeminiRequestWriterTest {
+
+    private static final int MEGABYTE = 1024 * 1024;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    @DisplayName("The body carries the prompt and the recording as standard Base64")
+    void write_ShouldProduceGenerateContentRequest() throws IOException {
+        byte[] recording = new byte[10_001];
+        new Random(42).nextBytes(recording);
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+
+        GeminiRequestWriter.write(objectMapper, "Analyze \"this\"", "audio/wav", new ByteArrayInputStream(recording), body);
+
+        JsonNode request = objectMapper.readTree(body.toByteArray());
+        assertThat(request.at("/contents/0/parts/0/text").asText()).isEqualTo("Analyze \"this\"");
+        assertThat(request.at("/contents/0/parts/1/inline_data/mime_type").asText()).isEqualTo("audio/wav");
+        assertThat(request.at("/contents/0/parts/1/inline_data/data").asText())
+                .isEqualTo(Base64.getEncoder().encodeToString(recording));
+    }
+
+    @Test
+    @DisplayName("Heap allocated per request does not grow with the size of the recording")
+    void write_ShouldAllocateIndependentlyOfRecordingSize() throws IOException {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        // Warm-up: class loading and Jackson's recycled buffers
+        allocatedBytes(threads, MEGABYTE);
+
+        long small = allocatedBytes(threads, MEGABYTE);
+        long large = allocatedBytes(threads, 32 * MEGABYTE);
+
+        // Buffering the recording, its Base64 string or the body would cost well over 32 MB
+        assertThat(large).isLessThan(MEGABYTE);
+        assertThat(large).isLessThan(small + 256 * 1024);
+    }
+
+    private long allocatedBytes(com.sun.management.ThreadMXBean threads, long recordingSize) throws IOException {
+        InputStream recording = new SilentRecording(recordingSize);
+        long before = threads.getCurrentThreadAllocatedBytes();
+        GeminiRequestWriter.write(objectMapper, "prompt", "audio/wav", recording, OutputStream.nullOutputStream());
+        return threads.getCurrentThreadAllocatedBytes() - before;
+    }
+
+    /**
+     * A recording of the given size that is generated while it is read, so the test itself does
+     * not allocate it.
+     */
+    private static final class SilentRecording extends InputStream {
+
+        private long remaining;
+
+        SilentRecording(long size) {
+            this.remaining = size;
+        }
+
+        @Override
+        public int read() {
+            return remaining-- > 0 ? 0 : -1;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int count = (int) Math.min(length, remaining);
+            Arrays.fill(buffer, offset, offset + count, (byte) 0);
+            remaining -= count;
+            return count;
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package com.example._Do.task.service;
+
+import com.example._Do.auth.principal.AuthenticatedUser;
+import com.example._Do.support.StatementCounter;
+import com.example._Do.support.TestUsers;
+import com.example._Do.task.dto.TaskBatchDeleteRequest;
+import com.example._Do.task.dto.TaskPatch;
+import com.example._Do.task.dto.TaskRequest;
+import com.example._Do.task.dto.TaskResponse;
+import com.example._Do.task.dto.TaskStatsResponse;
+import com.example._Do.task.entity.Priority;
+import com.example._Do.task.entity.Task;
+import com.example._Do.task.repository.TaskCounterRepository;
+import com.example._Do.task.repository.TaskRepository;
+import com.example._Do.user.entity.User;
+import com.example._Do.user.repository.UserRepository;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for the per-user task counters behind {@link TaskService#getTaskStats()}.
+ * <p>
+ * <strong>Goal:</strong> The counters must always equal a full recount of the tasks, whatever
+ * write path changed them, and reading them must not depend on the number of tasks.
+ * </p>
+ * <p>
+ * <strong>Technique:</strong> Runs every write path against H2 and compares the statistics with
+ * the expected counts; Hibernate statistics count the statements of a statistics request. A second
+ * thread keeps a write transaction open to check that reconciliation waits for it.
+ * </p>
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class TaskCounterServiceTest {
+
+    @Autowired
+    private TaskService taskService;
+    @Autowired
+    private TaskCounterService taskCounterService;
+    @Autowired
+    private TaskRepository taskRepository;
+    @Autowired
+    private TaskCounterRepository taskCounterRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private User owner;
+    private Task existingTask;
+
+    @BeforeEach
+    void setUp() {
+        owner = userRepository.save(TestUsers.newUser());
+        // Created before the counters exist: picked up by the initial count
+        existingTask = taskRepository.save(Task.builder()
+                .title("Existing")
+                .dueDate(LocalDateTime.now().minusDays(1))
+                .user(owner)
+                .build());
+
+        AuthenticatedUser principal = AuthenticatedUser.from(owner);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        taskCounterRepository.deleteAll();
+        taskRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Counters are created from a full count, then follow every write path")
+    void counters_ShouldFollowWrites() {
+        TaskStatsResponse initial = taskService.getTaskStats();
+        assertThat(initial.total()).isEqualTo(1);
+        assertThat(initial.overdue()).isEqualTo(1);
+        assertThat(initial.byPriority().get(Priority.MEDIUM).open()).isEqualTo(1);
+
+        TaskResponse created = taskService.createTask(TaskRequest.builder().title("New").priority(Priority.HIGH).build());
+        taskService.patchTask(created.getId(),
+                TaskPatch.fromJson(JsonNodeFactory.instance.objectNode().put("completed", true)), null);
+        taskService.updateTask(existingTask.getId(), TaskRequest.builder().title("Existing").priority(Priority.LOW).build(), null);
+
+        TaskStatsResponse stats = taskService.getTaskStats();
+        assertThat(stats.total()).isEqualTo(2);
+        assertThat(stats.open()).isEqualTo(1);
+        assertThat(stats.completed()).isEqualTo(1);
+        assertThat(stats.overdue()).isZero(); // the update cleared the due date
+        assertThat(stats.byPriority().get(Priority.HIGH).completed()).isEqualTo(1);
+        assertThat(stats.byPriority().get(Priority.LOW).open()).isEqualTo(1);
+        assertThat(stats.byPriority().get(Priority.MEDIUM).open()).isZero();
+
+        taskService.deleteTask(created.getId(), null);
+        taskService.deleteTasks(new TaskBatchDeleteRequest(List.of(existingTask.getId())));
+
+        assertThat(taskService.getTaskStats().total()).isZero();
+    }
+
+    @Test
+    @DisplayName("Statistics are read with two statements once the counters exist")
+    void stats_ShouldNotScanTasks() {
+        taskService.getTaskStats();
+
+        long statements = new StatementCounter(entityManagerFactory).count(() -> taskService.getTaskStats());
+
+        // Counter rows plus the overdue count
+        assertThat(statements).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Reconciliation fixes drifted counters")
+    void reconcile_ShouldFixDrift() {
+        taskService.getTaskStats();
+        transactionTemplate.executeWithoutResult(status ->
+                taskCounterRepository.add(owner.getId(), Priority.MEDIUM, false, 5));
+        assertThat(taskService.getTaskStats().total()).isEqualTo(6);
+
+        taskCounterService.reconcileCounters();
+
+        assertThat(taskService.getTaskStats().total()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Reconciliation waits for a concurrent writer and keeps its delta")
+    void reconcile_WithConcurrentWriter_ShouldNotLoseDelta() throws Exception {
+        taskService.getTaskStats();
+        CountDownLatch counted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            // The writer holds the MEDIUM/open counter row until it commits
+            Future<?> writer = executor.submit(() -> transactionTemplate.executeWithoutResult(status -> {
+                Task task = taskRepository.save(Task.builder().title("Concurrent").user(owner).build());
+                taskCounterService.countCreated(owner.getId(), List.of(task));
+                counted.countDown();
+                await(release);
+            }));
+            assertThat(counted.await(10, TimeUnit.SECONDS)).isTrue();
+
+            Future<Integer> reconcile = executor.submit(() -> taskCounterService.reconcile(owner.getId()));
+            Thread.sleep(200);
+            assertThat(reconcile).isNotDone();
+
+            release.countDown();
+            writer.get(10, TimeUnit.SECONDS);
+            assertThat(reconcile.get(10, TimeUnit.SECONDS)).isZero();
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+
+        assertThat(taskService.getTaskStats().total()).isEqualTo(2);
+        assertThat(taskCounterService.reconcile(owner.getId())).isZero();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertThat(latch.await(10, TimeUnit.SECONDS)).isTrue();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
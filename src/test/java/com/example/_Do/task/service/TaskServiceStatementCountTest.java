@@ -0,0 +1,351 @@
+package com.example._Do.task.service;
+
+import com.example._Do.auth.principal.AuthenticatedUser;
+import com.example._Do.exception.PreconditionFailedException;
+import com.example._Do.support.StatementCounter;
+import com.example._Do.support.TestUsers;
+import com.example._Do.task.dto.TaskBatchCreateRequest;
+import com.example._Do.task.dto.TaskBatchDeleteRequest;
+import com.example._Do.task.dto.TaskBatchResponse;
+import com.example._Do.task.dto.TaskBatchUpdateRequest;
+import com.example._Do.task.dto.TaskFilter;
+import com.example._Do.task.dto.TaskPatch;
+import com.example._Do.task.dto.TaskRequest;
+import com.example._Do.task.dto.TaskResponse;
+import com.example._Do.task.entity.Priority;
+import com.example._Do.task.entity.Task;
+import com.example._Do.task.exception.InvalidTaskFilterException;
+import com.example._Do.task.pagination.TaskCursorSort;
+import com.example._Do.task.repository.TaskCounterRepository;
+import com.example._Do.task.repository.TaskRepository;
+import com.example._Do.user.entity.User;
+import com.example._Do.user.repository.UserRepository;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.EntityNotFoundException;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Integration tests that count the SQL statements issued by {@link TaskService}.
+ * <p>
+ * <strong>Goal:</strong> Guard the owner-scoped query path: every read, update and delete must
+ * run without a user lookup and without a separate ownership check, and reads must not load entities.
+ * </p>
+ * <p>
+ * <strong>Technique:</strong> Uses Hibernate statistics (enabled in the test profile) to count
+ * prepared JDBC statements around a single service call.
+ * </p>
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class TaskServiceStatementCountTest {
+
+    @Autowired
+    private TaskService taskService;
+    @Autowired
+    private TaskRepository taskRepository;
+    @Autowired
+    private TaskCounterRepository taskCounterRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private StatementCounter statementCounter;
+    private Statistics statistics;
+    private User owner;
+    private User otherUser;
+    private Task ownedTask;
+
+    @BeforeEach
+    void setUp() {
+        statementCounter = new StatementCounter(entityManagerFactory);
+        statistics = statementCounter.statistics();
+
+        owner = userRepository.save(TestUsers.newUser());
+        otherUser = userRepository.save(TestUsers.newUser());
+        ownedTask = taskRepository.save(Task.builder()
+                .title("Owned Task")
+                .priority(Priority.HIGH)
+                .user(owner)
+                .build());
+
+        authenticateAs(owner);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        taskCounterRepository.deleteAll();
+        taskRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Create issues a single INSERT plus one counter UPDATE and no user lookup")
+    void createTask_ShouldIssueTwoStatements() {
+        TaskRequest request = TaskRequest.builder().title("New Task").priority(Priority.LOW).build();
+
+        long statements = statementCounter.count(() -> taskService.createTask(request));
+
+        // INSERT and counter UPDATE, plus a sequence call only when the pooled block of 50 IDs is exhausted
+        assertThat(statements).isBetween(2L, 3L);
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Batch create sends the INSERTs as one JDBC batch")
+    void createTasks_ShouldBatchInserts() {
+        List<TaskRequest> tasks = IntStream.range(0, 20)
+                .mapToObj(i -> TaskRequest.builder().title("Batch " + i).build())
+                .toList();
+
+        long statements = statementCounter.count(() -> {
+            TaskBatchResponse response = taskService.createTasks(new TaskBatchCreateRequest(tasks));
+            assertThat(response.succeeded()).isEqualTo(20);
+        });
+
+        // One batched INSERT and one counter UPDATE (all tasks share priority and state),
+        // plus at most two sequence calls (20 IDs can span two pooled blocks)
+        assertThat(statements).isLessThanOrEqualTo(4);
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(20);
+    }
+
+    @Test
+    @DisplayName("Batch update locks and loads owned tasks once, batches the UPDATEs and adjusts the counters twice; foreign tasks are NOT_FOUND")
+    void updateTasks_ShouldBatchUpdates() {
+        Task secondTask = taskRepository.save(Task.builder().title("Second").user(owner).build());
+        Task foreignTask = taskRepository.save(Task.builder().title("Foreign").user(otherUser).build());
+        TaskBatchUpdateRequest request = new TaskBatchUpdateRequest(List.of(
+                new TaskBatchUpdateRequest.Item(ownedTask.getId(), TaskRequest.builder().title("First updated").build()),
+                new TaskBatchUpdateRequest.Item(foreignTask.getId(), TaskRequest.builder().title("Hijacked").build()),
+                new TaskBatchUpdateRequest.Item(secondTask.getId(), TaskRequest.builder().title("Second updated").completed(true).build())));
+
+        TaskBatchResponse[] response = new TaskBatchResponse[1];
+        long statements = statementCounter.count(() -> response[0] = taskService.updateTasks(request));
+
+        assertThat(statements).isEqualTo(5);
+        assertThat(response[0].results())
+                .extracting(TaskBatchResponse.ItemResult::status)
+                .containsExactly(TaskBatchResponse.Status.UPDATED, TaskBatchResponse.Status.NOT_FOUND, TaskBatchResponse.Status.UPDATED);
+        assertThat(taskRepository.findById(foreignTask.getId())).get()
+                .extracting(Task::getTitle)
+                .isEqualTo("Foreign");
+    }
+
+    @Test
+    @DisplayName("Batch delete issues one locking SELECT, one counter UPDATE and one DELETE; foreign tasks are NOT_FOUND")
+    void deleteTasks_ShouldIssueThreeStatements() {
+        Task foreignTask = taskRepository.save(Task.builder().title("Foreign").user(otherUser).build());
+        TaskBatchDeleteRequest request = new TaskBatchDeleteRequest(List.of(ownedTask.getId(), foreignTask.getId()));
+
+        TaskBatchResponse[] response = new TaskBatchResponse[1];
+        long statements = statementCounter.count(() -> response[0] = taskService.deleteTasks(request));
+
+        assertThat(statements).isEqualTo(3);
+        assertThat(response[0].succeeded()).isEqualTo(1);
+        assertThat(response[0].failed()).isEqualTo(1);
+        assertThat(taskRepository.existsById(ownedTask.getId())).isFalse();
+        assertThat(taskRepository.existsById(foreignTask.getId())).isTrue();
+    }
+
+    @Test
+    @DisplayName("Get by ID issues a single owner-scoped SELECT")
+    void getTaskById_ShouldIssueOneStatement() {
+        long statements = statementCounter.count(() -> {
+            TaskResponse response = taskService.getTaskById(ownedTask.getId());
+            assertThat(response.getTitle()).isEqualTo("Owned Task");
+        });
+
+        assertThat(statements).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("List and get reads select projections without loading any entity")
+    void reads_ShouldNotLoadEntities() {
+        statistics.clear();
+
+        assertThat(taskService.getAllTasks(TaskFilter.none(), PageRequest.of(0, 10, Sort.by("createdAt"))).getContent())
+                .extracting(TaskResponse::getTitle)
+                .containsExactly("Owned Task");
+        assertThat(taskService.getTaskSlice(TaskFilter.none(), PageRequest.of(0, 10)).getContent()).hasSize(1);
+        assertThat(taskService.getTasksByCursor(TaskCursorSort.DUE_DATE_ASC, null, 10, false, TaskFilter.none())
+                .content()).hasSize(1);
+        taskService.getTaskById(ownedTask.getId());
+
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Filters are applied in the query for both pagination modes")
+    void filteredReads_ShouldOnlyReturnMatchingTasks() {
+        LocalDateTime now = LocalDateTime.now();
+        taskRepository.save(Task.builder().title("Overdue").priority(Priority.LOW).dueDate(now.minusDays(1))
+                .user(owner).build());
+        taskRepository.save(Task.builder().title("Upcoming").priority(Priority.HIGH).dueDate(now.plusDays(1))
+                .user(owner).build());
+        taskRepository.save(Task.builder().title("Done").priority(Priority.HIGH).completed(true)
+                .dueDate(now.minusDays(2)).user(owner).build());
+        taskRepository.save(Task.builder().title("Other").priority(Priority.HIGH).user(otherUser).build());
+        TaskFilter overdue = new TaskFilter(null, null, null, null, true, null);
+        TaskFilter highAndOpen = new TaskFilter(false, Set.of(Priority.HIGH), null, null, null, null);
+        TaskFilter undated = new TaskFilter(null, null, null, null, null, true);
+
+        assertThat(taskService.getAllTasks(overdue, PageRequest.of(0, 10)))
+                .extracting(TaskResponse::getTitle)
+                .containsExactly("Overdue");
+        assertThat(taskService.getAllTasks(highAndOpen, PageRequest.of(0, 10, Sort.by("title"))).getTotalElements())
+                .isEqualTo(2);
+        assertThat(taskService.getTaskSlice(undated, PageRequest.of(0, 10)))
+                .extracting(TaskResponse::getTitle)
+                .containsExactly("Owned Task");
+        assertThat(taskService.getTasksByCursor(TaskCursorSort.DUE_DATE_ASC, null, 10, true, highAndOpen))
+                .satisfies(slice -> {
+                    assertThat(slice.content()).extracting(TaskResponse::getTitle)
+                            .containsExactly("Upcoming", "Owned Task");
+                    assertThat(slice.totalElements()).isEqualTo(2);
+                });
+    }
+
+    @Test
+    @DisplayName("Contradictory filters are rejected before any query")
+    void filteredReads_ShouldRejectContradictoryFilters() {
+        TaskFilter filter = new TaskFilter(null, null, LocalDateTime.now(), null, null, true);
+
+        long statements = statementCounter.count(() -> assertThatThrownBy(() ->
+                taskService.getAllTasks(filter, PageRequest.of(0, 10)))
+                .isInstanceOf(InvalidTaskFilterException.class));
+
+        assertThat(statements).isZero();
+    }
+
+    @Test
+    @DisplayName("Update issues one UPDATE and one SELECT for the response when the user has no counters")
+    void updateTask_ShouldIssueTwoStatements() {
+        TaskRequest request = TaskRequest.builder().title("Updated").priority(Priority.LOW).completed(true).build();
+
+        long statements = statementCounter.count(() -> {
+            TaskResponse response = taskService.updateTask(ownedTask.getId(), request, null);
+            assertThat(response.getTitle()).isEqualTo("Updated");
+            assertThat(response.isCompleted()).isTrue();
+        });
+
+        assertThat(statements).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Patch issues one narrow UPDATE and one SELECT for the response without locking; a toggle also moves the counters")
+    void patchTask_ShouldNotLock() {
+        TaskPatch completion = TaskPatch.fromJson(JsonNodeFactory.instance.objectNode().put("completed", true));
+        TaskPatch rename = TaskPatch.fromJson(JsonNodeFactory.instance.objectNode()
+                .put("title", "Renamed")
+                .putNull("description"));
+
+        // Flipping UPDATE, counter UPDATE (no rows without counters), SELECT for the response
+        assertThat(statementCounter.count(() -> assertThat(taskService.patchTask(ownedTask.getId(), completion, null).isCompleted())
+                .isTrue())).isEqualTo(3);
+        assertThat(statementCounter.count(() -> assertThat(taskService.patchTask(ownedTask.getId(), rename, null).getTitle())
+                .isEqualTo("Renamed"))).isEqualTo(2);
+
+        TaskResponse patched = taskService.getTaskById(ownedTask.getId());
+        assertThat(patched.isCompleted()).isTrue();
+        assertThat(patched.getPriority()).isEqualTo(Priority.HIGH);
+    }
+
+    @Test
+    @DisplayName("With counters, a write only locks the task when it moves between counters")
+    void writes_WithCounters_ShouldOnlyLockWhenCounterChanges() {
+        taskService.getTaskStats();
+        TaskPatch completion = TaskPatch.fromJson(JsonNodeFactory.instance.objectNode().put("completed", true));
+        TaskPatch rename = TaskPatch.fromJson(JsonNodeFactory.instance.objectNode().put("title", "Renamed"));
+        TaskRequest samePriorityAndState = TaskRequest.builder().title("Updated").priority(Priority.HIGH).completed(true).build();
+        TaskRequest newPriority = TaskRequest.builder().title("Updated").priority(Priority.LOW).completed(true).build();
+
+        // Flipping UPDATE, one counter UPDATE for both completion states, SELECT for the response
+        assertThat(statementCounter.count(() -> taskService.patchTask(ownedTask.getId(), completion, null))).isEqualTo(3);
+        // Priority and completion unchanged: the guarded UPDATE applies, no lock and no counter UPDATE
+        assertThat(statementCounter.count(() -> taskService.patchTask(ownedTask.getId(), rename, null))).isEqualTo(2);
+        assertThat(statementCounter.count(() -> taskService.updateTask(ownedTask.getId(), samePriorityAndState, null))).isEqualTo(2);
+        // Guarded UPDATE misses, lock, UPDATE, counter -1, counter +1, SELECT for the response
+        assertThat(statementCounter.count(() -> taskService.updateTask(ownedTask.getId(), newPriority, null))).isEqualTo(6);
+        // Guarded DELETE misses, lock, DELETE, counter -1
+        assertThat(statementCounter.count(() -> taskService.deleteTask(ownedTask.getId(), null))).isEqualTo(4);
+
+        assertThat(taskService.getTaskStats().total()).isZero();
+    }
+
+    @Test
+    @DisplayName("Every write increments the version; a stale If-Match version is rejected")
+    void conditionalWrites_ShouldCheckVersion() {
+        long initialVersion = taskService.getTaskById(ownedTask.getId()).getVersion();
+        TaskRequest request = TaskRequest.builder().title("Updated").priority(Priority.LOW).build();
+
+        TaskResponse updated = taskService.updateTask(ownedTask.getId(), request, initialVersion);
+        TaskResponse patched = taskService.patchTask(ownedTask.getId(),
+                TaskPatch.fromJson(JsonNodeFactory.instance.objectNode().put("completed", true)), updated.getVersion());
+
+        assertThat(updated.getVersion()).isEqualTo(initialVersion + 1);
+        assertThat(patched.getVersion()).isEqualTo(initialVersion + 2);
+        assertThatThrownBy(() -> taskService.updateTask(ownedTask.getId(), request, initialVersion))
+                .isInstanceOf(PreconditionFailedException.class);
+        assertThatThrownBy(() -> taskService.deleteTask(ownedTask.getId(), updated.getVersion()))
+                .isInstanceOf(PreconditionFailedException.class);
+        assertThat(taskRepository.existsById(ownedTask.getId())).isTrue();
+    }
+
+    @Test
+    @DisplayName("Delete issues a single owner-scoped DELETE when the user has no counters")
+    void deleteTask_ShouldIssueOneStatement() {
+        long statements = statementCounter.count(() -> taskService.deleteTask(ownedTask.getId(), null));
+
+        assertThat(statements).isEqualTo(1);
+        assertThat(taskRepository.existsById(ownedTask.getId())).isFalse();
+    }
+
+    @Test
+    @DisplayName("Someone else's task is reported as not found without any extra lookup")
+    void foreignTask_ShouldBeNotFound() {
+        authenticateAs(otherUser);
+        Long taskId = ownedTask.getId();
+        TaskRequest request = TaskRequest.builder().title("Hijacked").build();
+
+        assertThat(statementCounter.count(() -> assertThatThrownBy(() -> taskService.getTaskById(taskId))
+                .isInstanceOf(EntityNotFoundException.class))).isEqualTo(1);
+        // The owner-scoped write matches nothing, and the locking SELECT finds no owned task either
+        assertThat(statementCounter.count(() -> assertThatThrownBy(() -> taskService.updateTask(taskId, request, null))
+                .isInstanceOf(EntityNotFoundException.class))).isEqualTo(2);
+        assertThat(statementCounter.count(() -> assertThatThrownBy(() -> taskService.deleteTask(taskId, null))
+                .isInstanceOf(EntityNotFoundException.class))).isEqualTo(2);
+
+        assertThat(taskRepository.findById(taskId)).get()
+                .extracting(Task::getTitle)
+                .isEqualTo("Owned Task");
+    }
+
+    // --- Helper Methods ---
+
+    private void authenticateAs(User user) {
+        AuthenticatedUser principal = AuthenticatedUser.from(user);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+}
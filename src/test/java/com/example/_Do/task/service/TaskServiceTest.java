@@ -1,13 +1,23 @@
 package com.example._Do.task.service;
 
+import com.example._Do.auth.principal.AuthenticatedUser;
+import com.example._Do.exception.PreconditionFailedException;
+import com.example._Do.task.cache.TaskResponseCache;
+import com.example._Do.task.dto.TaskCounterState;
+import com.example._Do.task.dto.TaskFilter;
+import com.example._Do.task.dto.TaskPatch;
 import com.example._Do.task.dto.TaskRequest;
 import com.example._Do.task.dto.TaskResponse;
 import com.example._Do.task.entity.Priority;
 import com.example._Do.task.entity.Task;
+import com.example._Do.task.exception.InvalidPageException;
 import com.example._Do.task.mapper.TaskMapper;
 import com.example._Do.task.repository.TaskRepository;
+import com.example._Do.user.entity.Role;
 import com.example._Do.user.entity.User;
 import com.example._Do.user.repository.UserRepository;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -16,17 +26,23 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 /**
@@ -49,6 +65,13 @@ class TaskServiceTest {
     private TaskMapper taskMapper;
     @Mock
     private UserRepository userRepository;
+    @Mock
+    private TaskWriteMetrics taskWriteMetrics;
+    @Mock
+    private TaskCounterService taskCounterService;
+    @Spy
+    private TaskResponseCache taskResponseCache =
+            new TaskResponseCache(null, null, new SimpleMeterRegistry(), Duration.ZERO, false);
 
     // --- SYSTEM UNDER TEST ---
     @InjectMocks
@@ -62,6 +85,7 @@ class TaskServiceTest {
 
     // --- TEST DATA FIXTURES ---
     private User mockUser;
+    private AuthenticatedUser principal;
     private Task mockTask;
     private TaskRequest mockRequest;
 
@@ -77,7 +101,9 @@ class TaskServiceTest {
                 .email("test@user.com")
                 .firstName("John")
                 .lastName("Doe")
+                .role(Role.USER)
                 .build();
+        principal = AuthenticatedUser.from(mockUser);
 
         // 2. Prepare a mock Task belonging to the user
         mockTask = Task.builder()
@@ -121,12 +147,12 @@ class TaskServiceTest {
     @DisplayName("Should create task successfully when valid request is provided")
     void createTask_WhenValidRequest_ShouldSaveAndReturnResponse() {
         // --- GIVEN ---
-        // Mock Security behavior
+        // Mock Security behavior (principal comes from the JWT claims)
         when(securityContext.getAuthentication()).thenReturn(authentication);
-        when(authentication.getName()).thenReturn("test@user.com");
+        when(authentication.getPrincipal()).thenReturn(principal);
 
-        // Mock User retrieval
-        when(userRepository.findByEmail("test@user.com")).thenReturn(Optional.of(mockUser));
+        // Mock owner reference (no SELECT on the users table)
+        when(userRepository.getReferenceById(1L)).thenReturn(mockUser);
 
         // Mock Mapper: DTO -> Entity
         when(taskMapper.toEntity(mockRequest)).thenReturn(mockTask);
@@ -147,6 +173,8 @@ class TaskServiceTest {
 
         // Verification: Ensure repository.save() was called exactly once
         verify(taskRepository, times(1)).save(any(Task.class));
+        // The user table is never queried on the task path
+        verify(userRepository, never()).findByEmail(any());
     }
 
     /**
@@ -162,14 +190,11 @@ class TaskServiceTest {
     void getTaskById_WhenUserOwnsTask_ShouldReturnResponse() {
         // --- GIVEN ---
         when(securityContext.getAuthentication()).thenReturn(authentication);
-        when(authentication.getName()).thenReturn("test@user.com");
-        when(userRepository.findByEmail("test@user.com")).thenReturn(Optional.of(mockUser));
-
-        // Mock Repository finding the task
-        when(taskRepository.findById(100L)).thenReturn(Optional.of(mockTask));
+        when(authentication.getPrincipal()).thenReturn(principal);
 
+        // Mock Repository projecting the task (scoped to the owner)
         TaskResponse expectedResponse = TaskResponse.builder().id(100L).build();
-        when(taskMapper.toResponse(mockTask)).thenReturn(expectedResponse);
+        when(taskRepository.findResponseByIdAndUserId(100L, 1L)).thenReturn(Optional.of(expectedResponse));
 
         // --- WHEN ---
         TaskResponse response = taskService.getTaskById(100L);
@@ -177,6 +202,10 @@ class TaskServiceTest {
         // --- THEN ---
         assertThat(response).isNotNull();
         assertThat(response.getId()).isEqualTo(100L);
+
+        // Verification: the read path never loads the entity
+        verify(taskRepository, never()).findByIdAndUserId(any(), any());
+        verify(taskMapper, never()).toResponse(any());
     }
 
     /**
@@ -199,11 +228,10 @@ class TaskServiceTest {
 
         // 3. Current logged-in user is still "mockUser" (ID: 1)
         when(securityContext.getAuthentication()).thenReturn(authentication);
-        when(authentication.getName()).thenReturn("test@user.com");
-        when(userRepository.findByEmail("test@user.com")).thenReturn(Optional.of(mockUser));
+        when(authentication.getPrincipal()).thenReturn(principal);
 
-        // 4. Repository finds the task (it exists physically in DB)
-        when(taskRepository.findById(100L)).thenReturn(Optional.of(mockTask));
+        // 4. The task exists physically in DB, but the owner-scoped query does not match it
+        when(taskRepository.findResponseByIdAndUserId(100L, 1L)).thenReturn(Optional.empty());
 
         // --- WHEN & THEN ---
         // Verify that the service throws an exception due to ownership mismatch
@@ -211,7 +239,139 @@ class TaskServiceTest {
                 .isInstanceOf(EntityNotFoundException.class)
                 .hasMessage("Task not found"); // don't reveal it exists
 
-        // Verification: Ensure we never tried to map the response
+        // Verification: Ensure we never tried to load or map the task
+        verify(taskRepository, never()).findByIdAndUserId(any(), any());
         verify(taskMapper, never()).toResponse(any());
     }
-}
\ No newline at end of file
+
+    /**
+     * Scenario: Deleting a task that does not exist or belongs to someone else.
+     * <p>
+     * Given: Neither the guarded DELETE nor the owner-scoped lock finds a task.<br>
+     * When: deleteTask is called.<br>
+     * Then: An EntityNotFoundException should be thrown without any DELETE.
+     * </p>
+     */
+    @Test
+    @DisplayName("Should throw Exception when no owned task was found")
+    void deleteTask_WhenNotOwned_ShouldThrowException() {
+        // --- GIVEN ---
+        when(securityContext.getAuthentication()).thenReturn(authentication);
+        when(authentication.getPrincipal()).thenReturn(principal);
+        when(taskCounterService.lock(1L, 100L)).thenReturn(Optional.empty());
+
+        // --- WHEN & THEN ---
+        assertThatThrownBy(() -> taskService.deleteTask(100L, null))
+                .isInstanceOf(EntityNotFoundException.class)
+                .hasMessage("Task not found");
+        verify(taskRepository, never()).deleteByIdAndUserId(any(), any());
+    }
+
+    /**
+     * Scenario: Toggling completion with a merge patch.
+     * <p>
+     * Given: A patch that only contains {@code completed}.<br>
+     * When: patchTask is called.<br>
+     * Then: The dedicated completion UPDATE flips the flag and the counters follow without a lock.
+     * </p>
+     */
+    @Test
+    @DisplayName("Should use the completion fast path when only 'completed' is patched")
+    void patchTask_WhenCompletionOnly_ShouldUseFastPath() {
+        // --- GIVEN ---
+        when(securityContext.getAuthentication()).thenReturn(authentication);
+        when(authentication.getPrincipal()).thenReturn(principal);
+        TaskPatch patch = TaskPatch.fromJson(JsonNodeFactory.instance.objectNode().put("completed", true));
+        when(taskRepository.toggleCompletedByIdAndUserId(eq(100L), eq(1L), isNull(), eq(true), any())).thenReturn(1);
+        TaskResponse expectedResponse = TaskResponse.builder().id(100L).completed(true).build();
+        when(taskRepository.findResponseByIdAndUserId(100L, 1L)).thenReturn(Optional.of(expectedResponse));
+
+        // --- WHEN ---
+        TaskResponse response = taskService.patchTask(100L, patch, null);
+
+        // --- THEN ---
+        assertThat(response.isCompleted()).isTrue();
+        verify(taskRepository, never()).patch(any(), any(), any(), any(), any(), anyBoolean());
+        verify(taskCounterService).countToggled(1L, 100L, true);
+        verify(taskCounterService, never()).lock(any(), any());
+        verify(taskWriteMetrics).recordPatch(patch);
+    }
+
+    /**
+     * Scenario: Patching a task that does not exist or belongs to someone else.
+     * <p>
+     * Given: Neither the guarded nor the locked owner-scoped UPDATE affects a row.<br>
+     * When: patchTask is called with a title change.<br>
+     * Then: An EntityNotFoundException should be thrown and nothing is recorded.
+     * </p>
+     */
+    @Test
+    @DisplayName("Should throw Exception when no owned task was patched")
+    void patchTask_WhenNoRowAffected_ShouldThrowException() {
+        // --- GIVEN ---
+        when(securityContext.getAuthentication()).thenReturn(authentication);
+        when(authentication.getPrincipal()).thenReturn(principal);
+        TaskPatch patch = TaskPatch.fromJson(JsonNodeFactory.instance.objectNode().put("title", "Renamed"));
+        when(taskCounterService.lock(1L, 100L))
+                .thenReturn(Optional.of(new TaskCounterState(100L, Priority.HIGH, false, true)));
+        when(taskRepository.patch(eq(100L), eq(1L), isNull(), eq(patch), any(), eq(false))).thenReturn(0);
+
+        // --- WHEN & THEN ---
+        assertThatThrownBy(() -> taskService.patchTask(100L, patch, null))
+                .isInstanceOf(EntityNotFoundException.class)
+                .hasMessage("Task not found");
+        verify(taskCounterService, never()).countChanged(any(), any(), any(), anyBoolean());
+        verify(taskWriteMetrics, never()).recordPatch(any());
+    }
+
+    /**
+     * Scenario: A conditional delete (If-Match) after someone else modified the task.
+     * <p>
+     * Given: The versioned DELETE affects no row, but the owned task still exists.<br>
+     * When: deleteTask is called with the stale version.<br>
+     * Then: A PreconditionFailedException (412) should be thrown instead of "not found".
+     * </p>
+     */
+    @Test
+    @DisplayName("Should throw PreconditionFailed when the task version changed")
+    void deleteTask_WhenVersionChanged_ShouldThrowPreconditionFailed() {
+        // --- GIVEN ---
+        when(securityContext.getAuthentication()).thenReturn(authentication);
+        when(authentication.getPrincipal()).thenReturn(principal);
+        when(taskCounterService.lock(1L, 100L))
+                .thenReturn(Optional.of(new TaskCounterState(100L, Priority.HIGH, false, true)));
+        when(taskRepository.deleteByIdAndUserIdAndVersion(100L, 1L, 3L)).thenReturn(0);
+        when(taskRepository.existsByIdAndUserId(100L, 1L)).thenReturn(true);
+
+        // --- WHEN & THEN ---
+        assertThatThrownBy(() -> taskService.deleteTask(100L, 3L))
+                .isInstanceOf(PreconditionFailedException.class);
+        verify(taskRepository, never()).deleteByIdAndUserId(any(), any());
+    }
+
+    /**
+     * Scenario: Requesting a page whose offset (page x size) exceeds the int range of the queries.
+     * <p>
+     * Given: An authenticated user and a page number far beyond any real listing.<br>
+     * When: getAllTasks, getTaskSlice or searchTasks is called.<br>
+     * Then: An InvalidPageException (400) should be thrown before any query.
+     * </p>
+     */
+    @Test
+    @DisplayName("Should reject pages whose offset exceeds the int range")
+    void listings_WhenOffsetTooLarge_ShouldThrowInvalidPage() {
+        // --- GIVEN ---
+        when(securityContext.getAuthentication()).thenReturn(authentication);
+        when(authentication.getPrincipal()).thenReturn(principal);
+        Pageable tooDeep = PageRequest.of(Integer.MAX_VALUE / 10, 100);
+
+        // --- WHEN & THEN ---
+        assertThatThrownBy(() -> taskService.getAllTasks(TaskFilter.none(), tooDeep))
+                .isInstanceOf(InvalidPageException.class);
+        assertThatThrownBy(() -> taskService.getTaskSlice(TaskFilter.none(), tooDeep))
+                .isInstanceOf(InvalidPageException.class);
+        assertThatThrownBy(() -> taskService.searchTasks("report", tooDeep))
+                .isInstanceOf(InvalidPageException.class);
+        verifyNoInteractions(taskRepository);
+    }
+}
@@ -0,0 +1,160 @@
+package com.example._Do.user.cache;
+
+import com.example._Do.auth.service.TokenVersionService;
+import com.example._Do.user.entity.Role;
+import com.example._Do.user.entity.User;
+import com.example._Do.user.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for {@link UserCache} and {@link UserInvalidationService}.
+ * <p>
+ * <strong>Goal:</strong> Repeated lookups of a user must not reach the database, callers must not
+ * share the cached instance, and an invalidation message from any node must evict the user, even
+ * when its email index entry is gone or a load of the user is still running.
+ * </p>
+ */
+@ExtendWith(MockitoExtension.class)
+class UserCacheTest {
+
+    private static final String EMAIL = "cached@test.com";
+
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private TokenVersionService tokenVersionService;
+    @Mock
+    private StringRedisTemplate stringRedisTemplate;
+
+    private SimpleMeterRegistry meterRegistry;
+    private UserCache userCache;
+    private UserInvalidationService userInvalidationService;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        userCache = new UserCache(userRepository, meterRegistry, Duration.ofMinutes(5), 100);
+        userInvalidationService = new UserInvalidationService(
+                userCache, tokenVersionService, stringRedisTemplate, meterRegistry, true);
+        user = User.builder()
+                .id(1L)
+                .firstName("Cached")
+                .lastName("User")
+                .email(EMAIL)
+                .password("hash")
+                .role(Role.USER)
+                .build();
+        lenient().when(userRepository.findByEmail(EMAIL)).thenReturn(Optional.of(user));
+    }
+
+    @Test
+    @DisplayName("Repeated lookups are served from the cache with independent copies")
+    void findByEmail_ShouldLoadOnce() {
+        User first = userCache.findByEmail(EMAIL).orElseThrow();
+        first.setRole(Role.ADMIN);
+        User second = userCache.findByEmail(EMAIL).orElseThrow();
+
+        verify(userRepository, times(1)).findByEmail(EMAIL);
+        assertThat(second).isNotSameAs(first);
+        assertThat(second.getRole()).isEqualTo(Role.USER);
+    }
+
+    @Test
+    @DisplayName("Unknown emails are not cached")
+    void findByEmail_WhenUnknown_ShouldNotCache() {
+        when(userRepository.findByEmail(anyString())).thenReturn(Optional.empty());
+
+        assertThat(userCache.findByEmail("unknown@test.com")).isEmpty();
+        assertThat(userCache.findByEmail("unknown@test.com")).isEmpty();
+
+        verify(userRepository, times(2)).findByEmail("unknown@test.com");
+    }
+
+    @Test
+    @DisplayName("A user is evicted by ID even after its email index entry was dropped")
+    void evict_WhenEmailIndexIsGone_ShouldStillEvict() {
+        userCache.findByEmail(EMAIL);
+        ((Cache<?, ?>) ReflectionTestUtils.getField(userCache, "idsByEmail")).invalidateAll();
+
+        userCache.evict(1L);
+
+        assertThat(((Cache<?, ?>) ReflectionTestUtils.getField(userCache, "usersById")).getIfPresent(1L)).isNull();
+    }
+
+    @Test
+    @DisplayName("A load by email overtaken by an eviction is not cached")
+    void findByEmail_WhenEvictedDuringLoad_ShouldNotCache() {
+        when(userRepository.findByEmail(EMAIL)).thenAnswer(invocation -> {
+            userCache.evict(1L);
+            return Optional.of(user);
+        });
+
+        userCache.findByEmail(EMAIL);
+        userCache.findByEmail(EMAIL);
+
+        verify(userRepository, times(2)).findByEmail(EMAIL);
+    }
+
+    @Test
+    @DisplayName("An invalidation message evicts the user and its token version and records the lag")
+    void onMessage_ShouldEvictUser() {
+        userCache.findByEmail(EMAIL);
+        String payload = "1:" + (System.currentTimeMillis() - 5);
+
+        userInvalidationService.onMessage(new DefaultMessage(
+                UserInvalidationService.CHANNEL.getBytes(StandardCharsets.UTF_8),
+                payload.getBytes(StandardCharsets.UTF_8)), null);
+        userCache.findByEmail(EMAIL);
+
+        verify(userRepository, times(2)).findByEmail(EMAIL);
+        verify(tokenVersionService).evict(1L);
+        assertThat(meterRegistry.get("users.cache.invalidation.lag").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("A change is applied locally and published to the other nodes")
+    void onUserChanged_ShouldEvictAndPublish() {
+        userCache.findByEmail(EMAIL);
+
+        userInvalidationService.onUserChanged(new UserChangedEvent(1L));
+        userCache.findByEmail(EMAIL);
+
+        verify(userRepository, times(2)).findByEmail(EMAIL);
+        verify(stringRedisTemplate).convertAndSend(eq(UserInvalidationService.CHANNEL), startsWith("1:"));
+    }
+
+    @Test
+    @DisplayName("Malformed messages are ignored")
+    void onMessage_WhenMalformed_ShouldIgnore() {
+        userInvalidationService.onMessage(new DefaultMessage(
+                UserInvalidationService.CHANNEL.getBytes(StandardCharsets.UTF_8),
+                "garbage".getBytes(StandardCharsets.UTF_8)), null);
+
+        verifyNoInteractions(tokenVersionService);
+    }
+}